@@ -0,0 +1,145 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.strategicgains.hyperexpress.HyperExpress;
+import com.strategicgains.hyperexpress.builder.TokenBinder;
+import com.strategicgains.hyperexpress.builder.TokenResolver;
+import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.hal.HalResourceFactory;
+
+/**
+ * Measures creating a large HAL collection resource serially and in parallel, with
+ * HyperExpress.enableParallelCollections(), on ForkJoin pools of increasing parallelism.
+ * A parallelism of zero creates the collection serially. The speed-up is bounded by the
+ * number of available cores.
+ *
+ * @author agent
+ * @since Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionResourceBenchmark
+{
+	private static final String HAL_JSON = "application/hal+json";
+
+	@Param({"10000"})
+	public int items;
+
+	@Param({"0", "1", "2", "4", "8"})
+	public int parallelism;
+
+	private List<Blog> blogs;
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setup()
+	{
+		HyperExpress.registerResourceFactoryStrategy(new HalResourceFactory(), HAL_JSON);
+		HyperExpress.relationships()
+			.forCollectionOf(Blog.class)
+				.rel("self", "{baseUrl}/blogs")
+			.forClass(Blog.class)
+				.rel("self", "{baseUrl}/blogs/{blogId}")
+				.rel("entries", "{baseUrl}/blogs/{blogId}/entries")
+				.rel("owner", "{baseUrl}/users/{ownerId}");
+
+		blogs = new ArrayList<Blog>(items);
+
+		for (int i = 0; i < items; i++)
+		{
+			blogs.add(new Blog(String.valueOf(i), "Blog number " + i, "user" + (i % 100)));
+		}
+
+		if (parallelism > 0)
+		{
+			pool = new ForkJoinPool(parallelism);
+			HyperExpress.enableParallelCollections(pool, 1000);
+		}
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		HyperExpress.disableParallelCollections();
+
+		if (pool != null)
+		{
+			pool.shutdown();
+		}
+	}
+
+	@Benchmark
+	public Resource createCollectionResource()
+	{
+		HyperExpress.bind("baseUrl", "http://api.example.com");
+		HyperExpress.tokenBinder(new TokenBinder<Blog>()
+		{
+			@Override
+			public void bind(Blog blog, TokenResolver resolver)
+			{
+				resolver.bind("blogId", blog.id)
+					.bind("ownerId", blog.ownerId);
+			}
+		});
+
+		try
+		{
+			return HyperExpress.createCollectionResource(blogs, Blog.class, HAL_JSON);
+		}
+		finally
+		{
+			HyperExpress.clearTokenBindings();
+		}
+	}
+
+	public static class Blog
+	{
+		private String id;
+		private String name;
+		private String ownerId;
+
+		public Blog(String id, String name, String ownerId)
+		{
+			super();
+			this.id = id;
+			this.name = name;
+			this.ownerId = ownerId;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.strategicgains.hyperexpress.domain.hal.HalResource;
+import com.strategicgains.hyperexpress.serialization.jackson.HalResourceDeserializer;
+
+/**
+ * Compares deserializing a HAL collection with a large _embedded array directly from
+ * the parser's tokens with first materializing the document as a JsonNode tree (as
+ * HalResourceDeserializer previously did) and then building the resources from it.
+ * Run with '-prof gc' to compare allocation rates.
+ *
+ * @author agent
+ * @since Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HalDeserializationBenchmark
+{
+	@Param({"10000"})
+	public int items;
+
+	private ObjectMapper mapper;
+	private String json;
+
+	@Setup
+	public void setup()
+	{
+		SimpleModule module = new SimpleModule();
+		module.addDeserializer(HalResource.class, new HalResourceDeserializer());
+		mapper = new ObjectMapper();
+		mapper.registerModule(module);
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"_links\":{\"self\":{\"href\":\"/blogs\"},\"next\":{\"href\":\"/blogs?offset=")
+			.append(items)
+			.append("\"}},\"_embedded\":{\"blogs\":[");
+
+		for (int i = 0; i < items; i++)
+		{
+			if (i > 0) sb.append(',');
+
+			sb.append("{\"_links\":{\"self\":{\"href\":\"/blogs/").append(i)
+				.append("\"},\"entries\":{\"href\":\"/blogs/").append(i).append("/entries\"}},")
+				.append("\"id\":\"").append(i).append("\",")
+				.append("\"name\":\"Blog number ").append(i).append("\",")
+				.append("\"description\":\"A blog used to measure deserialization of large collections\"}");
+		}
+
+		sb.append("]},\"count\":").append(items).append('}');
+		json = sb.toString();
+	}
+
+	@Benchmark
+	public HalResource streaming()
+	throws IOException
+	{
+		return mapper.readValue(json, HalResource.class);
+	}
+
+	@Benchmark
+	public HalResource tree()
+	throws IOException
+	{
+		JsonNode root = mapper.readTree(json);
+		return mapper.readValue(mapper.treeAsTokens(root), HalResource.class);
+	}
+}
@@ -0,0 +1,139 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.strategicgains.hyperexpress.domain.Link;
+import com.strategicgains.hyperexpress.domain.LinkDefinition;
+import com.strategicgains.hyperexpress.domain.Namespace;
+import com.strategicgains.hyperexpress.domain.NamespaceSet;
+import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.ResourceArena;
+import com.strategicgains.hyperexpress.domain.hal.HalResource;
+import com.strategicgains.hyperexpress.domain.hal.HalResourceFactory;
+
+/**
+ * Measures the bytes allocated per resource when filling a typical embedded HAL resource
+ * (three links, three properties and the shared namespaces), as in a large collection. The
+ * links and namespaces are created once, so only the resource itself is measured.
+ * recycledResources() does the same with resources from a HalResourceFactory in a
+ * ResourceArena, released after each batch (i.e. request).
+ * <p/>
+ * Run with the GC profiler and read gc.alloc.rate.norm, which is in bytes per resource:
+ * <p/>
+ * <code>
+ * java -jar benchmarks.jar ResourceFootprintBenchmark -prof gc
+ * </code>
+ *
+ * @author agent
+ * @since Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceFootprintBenchmark
+{
+	private static final int RESOURCES = 1000;
+
+	private Link self;
+	private Link entries;
+	private Link owner;
+	private NamespaceSet namespaces;
+	private HalResourceFactory factory = new HalResourceFactory();
+	private List<Resource> resources = new ArrayList<Resource>(RESOURCES);
+
+	@Setup
+	public void setup()
+	{
+		self = new LinkDefinition("self", "http://api.example.com/blogs/1").freeze();
+		entries = new LinkDefinition("blog:entries", "http://api.example.com/blogs/1/entries").freeze();
+		owner = new LinkDefinition("blog:owner", "http://api.example.com/users/1").freeze();
+		List<Namespace> list = new ArrayList<Namespace>();
+		list.add(new Namespace("blog", "http://api.example.com/rels/{rel}"));
+		namespaces = NamespaceSet.of(list);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RESOURCES)
+	public List<Resource> createResources()
+	{
+		List<Resource> resources = new ArrayList<Resource>(RESOURCES);
+
+		for (int i = 0; i < RESOURCES; i++)
+		{
+			Resource r = new HalResource();
+			fill(r);
+			resources.add(r);
+		}
+
+		return resources;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RESOURCES)
+	public int recycledResources()
+	{
+		ResourceArena arena = new ResourceArena().enter();
+
+		try
+		{
+			for (int i = 0; i < RESOURCES; i++)
+			{
+				Resource r = factory.createResource(null);
+				fill(r);
+				resources.add(r);
+			}
+		}
+		finally
+		{
+			arena.exit();
+		}
+
+		int size = resources.size();
+		resources.clear();
+		arena.release();
+		return size;
+	}
+
+	private void fill(Resource r)
+	{
+		r.addProperty("id", "1");
+		r.addProperty("name", "Blog number 1");
+		r.addProperty("ownerId", "user1");
+		r.addLink(self);
+		r.addLink(entries, true);
+		r.addLink(owner);
+		r.addNamespaces(namespaces);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.strategicgains.hyperexpress.util.MapStringFormat;
+import com.strategicgains.hyperexpress.util.UrlTemplate;
+
+/**
+ * Compares the regular-expression based MapStringFormat with the compiled, single-pass
+ * UrlTemplate when resolving a typical link URL against a large set of bound tokens
+ * (e.g. every request header, as bound by the RestExpress plugin).
+ *
+ * @author agent
+ * @since Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlTemplateBenchmark
+{
+	private static final String PATTERN = "{baseUrl}/blogs/{blogId}/entries/{entryId}/comments/{commentId}";
+
+	@Param({"4", "24"})
+	public int boundTokens;
+
+	private Map<String, String> values;
+	private MapStringFormat formatter;
+	private UrlTemplate template;
+
+	@Setup
+	public void setup()
+	{
+		values = new HashMap<String, String>();
+		values.put("baseUrl", "http://api.example.com");
+		values.put("blogId", "8a6f6d1e-2b3c-4d5e-8f90-123456789abc");
+		values.put("entryId", "42");
+		values.put("commentId", "1337");
+
+		for (int i = values.size(); i < boundTokens; i++)
+		{
+			values.put("X-Header-" + i, "header-value-" + i);
+		}
+
+		formatter = new MapStringFormat();
+		template = UrlTemplate.compile(PATTERN);
+	}
+
+	@Benchmark
+	public String mapStringFormat()
+	{
+		return formatter.format(PATTERN, values);
+	}
+
+	@Benchmark
+	public String urlTemplateCompileAndResolve()
+	{
+		return UrlTemplate.compile(PATTERN).resolve(values);
+	}
+
+	@Benchmark
+	public String urlTemplatePrecompiled()
+	{
+		return template.resolve(values);
+	}
+}
@@ -16,16 +16,31 @@
 package com.strategicgains.hyperexpress;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.strategicgains.hyperexpress.domain.Resource;
 import com.strategicgains.hyperexpress.exception.ResourceException;
 
 /**
+ * Copies the properties of domain objects into Resource instances. The fields to copy
+ * for a given class are determined once, by reflection, into a CopyPlan that is cached
+ * per class (and discarded if the inclusion or exclusion annotations change), so
+ * converting many objects of the same class does no repeated introspection.
+ * <p/>
+ * If no inclusion or exclusion annotations are set and a ModelAccessor was generated
+ * for the class (see {@link com.strategicgains.hyperexpress.annotation.HyperExpressModel}),
+ * properties are copied by the generated accessor instead, without reflection.
+ * 
  * @author toddf
  * @since Apr 11, 2014
  */
@@ -36,6 +51,7 @@ implements ResourceFactoryStrategy
 
 	private Set<Class<? extends Annotation>> inclusionAnnotations;
 	private Set<Class<? extends Annotation>> exclusionAnnotations;
+	private volatile ClassValue<CopyPlan> copyPlans = newCopyPlans();
 
 	/**
 	 * Instead of requiring its own property/field annotations, this strategy supports the
@@ -59,6 +75,7 @@ implements ResourceFactoryStrategy
 		}
 
 		inclusionAnnotations.addAll(Arrays.asList(annotations));
+		copyPlans = newCopyPlans();
 	    return this;
     }
 
@@ -83,6 +100,7 @@ implements ResourceFactoryStrategy
 		}
 
 		exclusionAnnotations.addAll(Arrays.asList(annotations));
+		copyPlans = newCopyPlans();
 	    return this;
     }
 
@@ -94,50 +112,96 @@ implements ResourceFactoryStrategy
      */
 	protected void copyProperties(Object from, Resource to)
 	{
-		copyProperties0(from.getClass(), from, to);
+		copyPlans.get(from.getClass()).copy(from, to);
 	}
 
 	/**
-	 * Recursively-copies properties from the Object, up the inheritance hierarchy, to
-	 * the destination Resource.
+	 * Passes each property that copyProperties() would copy into a Resource to the visitor
+	 * instead, in the same order, without creating a Resource. Null values are skipped. As
+	 * copyProperties() does, throws ResourceException if a property name repeats (e.g. for a
+	 * field that shadows a super-class field), rather than visiting it twice.
 	 * 
-	 * @param type the Type of the object being copied. May be a super-type of the 'from' object.
-	 * @param from the instance of Object being copied.
-	 * @param to the destination Resource instance.
+	 * @param from an Object instance, never null.
+	 * @param visitor a PropertyVisitor to receive the properties.
 	 */
-	private void copyProperties0(Class<?> type, Object from, Resource to)
+	public void visitProperties(Object from, PropertyVisitor visitor)
 	{
-		if (type == null) return;
-		if (Resource.class.isAssignableFrom(type))
+		copyPlans.get(from.getClass()).visit(from, visitor);
+	}
+
+	private ClassValue<CopyPlan> newCopyPlans()
+	{
+		return new ClassValue<CopyPlan>()
 		{
-			to.from((Resource) from);
-			return;
+			@Override
+			protected CopyPlan computeValue(Class<?> type)
+			{
+				return createCopyPlan(type);
+			}
+		};
+	}
+
+	/**
+	 * Determines, up the inheritance hierarchy, which fields of the given type get copied
+	 * to a Resource. Fields of the type are copied before those of its super-types.
+	 * 
+	 * @param type the Type of the objects being copied.
+	 * @return a CopyPlan for instances of the type.
+	 */
+	private CopyPlan createCopyPlan(Class<?> type)
+	{
+		if (inclusionAnnotations == null && exclusionAnnotations == null)
+		{
+			ModelAccessor<?> accessor = ModelAccessors.forClass(type);
+
+			if (accessor != null) return new CopyPlan(accessor);
 		}
 
-		Field[] fields = getDeclaredFields(type);
+		List<String> names = new ArrayList<>();
+		List<MethodHandle> getters = new ArrayList<>();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
 
-		try
+		for (Class<?> c = type; c != null; c = c.getSuperclass())
 		{
-			for (Field f : fields)
+			if (Resource.class.isAssignableFrom(c))
+			{
+				return new CopyPlan(names, getters, true);
+			}
+
+			for (Field f : getDeclaredFields(c))
 			{
 				if (isIncluded(f))
 				{
 					f.setAccessible(true);
-					Object value = f.get(from);
-					
-					if (value != null)
-					{
-						to.addProperty(f.getName(), value);
-					}
+					names.add(f.getName());
+					getters.add(toGetter(lookup, f));
 				}
 			}
 		}
+
+		return new CopyPlan(names, getters, false);
+	}
+
+	/**
+	 * Answers a MethodHandle of type (Object)Object that reads the field.
+	 */
+	private MethodHandle toGetter(MethodHandles.Lookup lookup, Field f)
+	{
+		try
+		{
+			MethodHandle getter = lookup.unreflectGetter(f);
+
+			if (Modifier.isStatic(f.getModifiers()))
+			{
+				getter = MethodHandles.dropArguments(getter, 0, Object.class);
+			}
+
+			return getter.asType(MethodType.methodType(Object.class, Object.class));
+		}
 		catch (IllegalAccessException e)
 		{
 			throw new ResourceException(e);
 		}
-
-		copyProperties0(type.getSuperclass(), from, to);
 	}
 
 	/**
@@ -177,4 +241,147 @@ implements ResourceFactoryStrategy
 	{
 		return type.getDeclaredFields();
 	}
+
+	/**
+	 * The fields to copy for a given class, in order (sub-class fields first), with their
+	 * accessors. If the class is itself a Resource, it's copied via Resource.from() instead.
+	 * Alternatively, copying is delegated to a generated ModelAccessor.
+	 * <p/>
+	 * Whether field names repeat is determined once, so only those plans, and plans for
+	 * Resource classes, check for duplicate property names as they're visited.
+	 */
+	private static final class CopyPlan
+	{
+		private static final String[] NO_NAMES = new String[0];
+		private static final MethodHandle[] NO_GETTERS = new MethodHandle[0];
+
+		private final String[] names;
+		private final MethodHandle[] getters;
+		private final boolean isResource;
+		private final boolean hasDuplicateNames;
+		@SuppressWarnings("rawtypes")
+		private final ModelAccessor accessor;
+
+		CopyPlan(ModelAccessor<?> accessor)
+		{
+			super();
+			this.names = NO_NAMES;
+			this.getters = NO_GETTERS;
+			this.isResource = false;
+			this.hasDuplicateNames = false;
+			this.accessor = accessor;
+		}
+
+		CopyPlan(List<String> names, List<MethodHandle> getters, boolean isResource)
+		{
+			super();
+			this.names = names.toArray(new String[names.size()]);
+			this.getters = getters.toArray(new MethodHandle[getters.size()]);
+			this.isResource = isResource;
+			this.hasDuplicateNames = (new HashSet<String>(names).size() < names.size());
+			this.accessor = null;
+		}
+
+		void copy(Object from, final Resource to)
+		{
+			visitFields(from, new PropertyVisitor()
+			{
+				@Override
+				public void visit(String name, Object value)
+				{
+					to.addProperty(name, value);
+				}
+			});
+
+			if (isResource)
+			{
+				to.from((Resource) from);
+			}
+		}
+
+		void visit(Object from, PropertyVisitor visitor)
+		{
+			if (hasDuplicateNames || isResource)
+			{
+				visitor = new UniqueNameVisitor(visitor);
+			}
+
+			visitFields(from, visitor);
+
+			if (isResource)
+			{
+				for (Map.Entry<String, Object> property : ((Resource) from).getProperties().entrySet())
+				{
+					if (property.getValue() != null)
+					{
+						visitor.visit(property.getKey(), property.getValue());
+					}
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void visitFields(Object from, PropertyVisitor visitor)
+		{
+			if (accessor != null)
+			{
+				accessor.visitProperties(from, visitor);
+				return;
+			}
+
+			for (int i = 0; i < getters.length; i++)
+			{
+				Object value = get(i, from);
+
+				if (value != null)
+				{
+					visitor.visit(names[i], value);
+				}
+			}
+		}
+
+		private Object get(int i, Object from)
+		{
+			try
+			{
+				return getters[i].invokeExact(from);
+			}
+			catch (RuntimeException | Error e)
+			{
+				throw e;
+			}
+			catch (Throwable t)
+			{
+				throw new ResourceException(t);
+			}
+		}
+	}
+
+	/**
+	 * Passes properties on to another visitor, throwing ResourceException for a repeated
+	 * name, as Resource.addProperty() does.
+	 */
+	private static final class UniqueNameVisitor
+	implements PropertyVisitor
+	{
+		private final PropertyVisitor visitor;
+		private final Set<String> names = new HashSet<String>();
+
+		UniqueNameVisitor(PropertyVisitor visitor)
+		{
+			super();
+			this.visitor = visitor;
+		}
+
+		@Override
+		public void visit(String name, Object value)
+		{
+			if (!names.add(name))
+			{
+				throw new ResourceException("Duplicate property: " + name);
+			}
+
+			visitor.visit(name, value);
+		}
+	}
 }
@@ -15,11 +15,16 @@
 */
 package com.strategicgains.hyperexpress;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.strategicgains.hyperexpress.domain.Resource;
 import com.strategicgains.hyperexpress.exception.ResourceException;
+import com.strategicgains.hyperexpress.util.MediaType;
 
 /**
  * A ResourceFactory implementation that has no functionality on its own, but must have ResourceFactoryStrategy
@@ -30,6 +35,16 @@ import com.strategicgains.hyperexpress.exception.ResourceException;
  *     .addStrategy(new AtomResourceFactoryStrategy(), "application/xml");
  * </p>
  * Resource resource = rf.createResource(object, response.getContentType());
+ * </p>
+ * The content type may also be a media type with parameters (e.g. 'application/hal+json; charset=UTF-8')
+ * or an Accept header value, with wildcards and q-values (e.g. 'application/xml;q=0.5, application/*').
+ * Those are negotiated against the registered content types: the most preferred acceptable range is
+ * matched with the content types in the order they were added. The strategy chosen for each such string
+ * is cached, so repeated values are negotiated once. Once the cache is full, an arbitrary entry is evicted
+ * for each new one, so the bound is approximate under concurrent use.
+ * </p>
+ * Lookups take no lock. Adding a strategy replaces the registrations, and their cache, as a whole, so a
+ * negotiation racing with it can't cache a choice made from the old registrations.
  * 
  * @author toddf
  * @since Apr 7, 2014
@@ -37,20 +52,47 @@ import com.strategicgains.hyperexpress.exception.ResourceException;
 public class DefaultResourceFactory
 implements ResourceFactory
 {
-	private Map<String, ResourceFactoryStrategy> factoryStrategies = new HashMap<String, ResourceFactoryStrategy>();
+	public static final int DEFAULT_NEGOTIATION_CACHE_SIZE = 256;
+
+	// Cached for content types that match no strategy.
+	private static final Registration NO_MATCH = new Registration(null, null);
+
+	private final int maxNegotiated;
+	private volatile Registrations registrations = new Registrations();
+
+	public DefaultResourceFactory()
+	{
+		this(DEFAULT_NEGOTIATION_CACHE_SIZE);
+	}
+
+	/**
+	 * @param maxNegotiated the maximum number of negotiated content types to cache. Must be greater than zero.
+	 * @throws IllegalArgumentException if maxNegotiated is less than one.
+	 */
+	public DefaultResourceFactory(final int maxNegotiated)
+	{
+		super();
+
+		if (maxNegotiated < 1)
+		{
+			throw new IllegalArgumentException("Negotiation cache size must be greater than zero: " + maxNegotiated);
+		}
+
+		this.maxNegotiated = maxNegotiated;
+	}
 
 	/**
 	 * Create a Resource using data from the given object for the requested content type.
 	 * 
 	 * @param object the object to use as a source of properties (data).
-	 * @param contentType the content type to use when creating the new resource.
+	 * @param contentType the content type (or Accept header value) to use when creating the new resource.
 	 * @return a concrete implementation of Resource with properties copied from object.
 	 * @throws ResourceException if no factory exists for the contentType
 	 */
 	@Override
 	public Resource createResource(Object object, String contentType)
 	{
-		ResourceFactoryStrategy strategy = factoryStrategies.get(contentType);
+		ResourceFactoryStrategy strategy = getStrategy(contentType);
 
 		if (strategy == null)
 		{
@@ -68,14 +110,14 @@ implements ResourceFactory
 	 * @return this DefaultResourceFactory to facilitate method chaining.
 	 * @throws ResourceException if a strategy for a duplicate content type is added.
 	 */
-	public DefaultResourceFactory addFactoryStrategy(ResourceFactoryStrategy strategy, String contentType)
+	public synchronized DefaultResourceFactory addFactoryStrategy(ResourceFactoryStrategy strategy, String contentType)
 	{
-		if (factoryStrategies.containsKey(contentType))
+		if (registrations.factoryStrategies.containsKey(contentType))
 		{
 			throw new ResourceException("Duplicate content type: " + contentType);
 		}
 
-		factoryStrategies.put(contentType, strategy);
+		registrations = new Registrations(registrations, strategy, contentType);
 		return this;
 	}
 
@@ -85,14 +127,14 @@ implements ResourceFactory
 	 * Create a Resource using data from the given object for the requested content type.
 	 * 
 	 * @param object the object to use as a source of properties (data).
-	 * @param contentType the content type to use when creating the new resource.
+	 * @param contentType the content type (or Accept header value) to use when creating the new resource.
 	 * @return the Class of the concrete Resource implementation.
 	 * @throws ResourceException if no factory exists for the contentType
 	 */
 	@Override
     public Class<? extends Resource> getResourceType(String contentType)
     {
-		ResourceFactoryStrategy strategy = factoryStrategies.get(contentType);
+		ResourceFactoryStrategy strategy = getStrategy(contentType);
 
 		if (strategy == null)
 		{
@@ -101,4 +143,137 @@ implements ResourceFactory
 
 		return strategy.getResourceType();
     }
+
+	/**
+	 * Answer the number of negotiated content types currently cached.
+	 */
+	public int getNegotiatedCount()
+	{
+		return registrations.negotiated.size();
+	}
+
+	/**
+	 * Answer the strategy registered for exactly the content type or, failing that, the
+	 * strategy negotiated for it.
+	 * 
+	 * @return a ResourceFactoryStrategy, or null if none matches.
+	 */
+	private ResourceFactoryStrategy getStrategy(String contentType)
+	{
+		// Read once, so the lookup, negotiation and caching all use the same registrations.
+		Registrations current = registrations;
+		ResourceFactoryStrategy strategy = current.factoryStrategies.get(contentType);
+
+		if (strategy != null || contentType == null) return strategy;
+
+		Registration registration = current.negotiated.get(contentType);
+
+		if (registration == null)
+		{
+			registration = negotiate(contentType, current.mediaTypes);
+			current.cache(contentType, registration, maxNegotiated);
+		}
+
+		return registration.strategy;
+	}
+
+	private Registration negotiate(String contentType, List<Registration> mediaTypes)
+	{
+		List<MediaType> ranges = MediaType.parseList(contentType);
+
+		for (MediaType range : ranges)
+		{
+			// Ranges are in order of preference, so the rest are unacceptable.
+			if (!range.isAcceptable()) break;
+
+			for (Registration registration : mediaTypes)
+			{
+				if (range.includes(registration.mediaType) && !isExcluded(registration.mediaType, range, ranges))
+				{
+					return registration;
+				}
+			}
+		}
+
+		return NO_MATCH;
+	}
+
+	/**
+	 * Answer whether the media type is excluded (e.g. by 'application/xml;q=0') by a more
+	 * specific range than the one that includes it.
+	 */
+	private boolean isExcluded(MediaType mediaType, MediaType range, List<MediaType> ranges)
+	{
+		for (int i = ranges.size() - 1; i >= 0 && !ranges.get(i).isAcceptable(); i--)
+		{
+			MediaType exclusion = ranges.get(i);
+
+			if (exclusion.getSpecificity() > range.getSpecificity() && exclusion.includes(mediaType)) return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * An immutable set of registered strategies, with the cache of choices negotiated from them.
+	 */
+	private static class Registrations
+	{
+		private final Map<String, ResourceFactoryStrategy> factoryStrategies;
+		private final List<Registration> mediaTypes;
+		private final ConcurrentHashMap<String, Registration> negotiated = new ConcurrentHashMap<String, Registration>();
+
+		public Registrations()
+		{
+			super();
+			this.factoryStrategies = new HashMap<String, ResourceFactoryStrategy>();
+			this.mediaTypes = new ArrayList<Registration>();
+		}
+
+		/**
+		 * Copy the registrations, adding the strategy for the content type. The copy starts with
+		 * an empty cache.
+		 */
+		public Registrations(Registrations that, ResourceFactoryStrategy strategy, String contentType)
+		{
+			super();
+			this.factoryStrategies = new HashMap<String, ResourceFactoryStrategy>(that.factoryStrategies);
+			this.factoryStrategies.put(contentType, strategy);
+			this.mediaTypes = new ArrayList<Registration>(that.mediaTypes);
+			MediaType mediaType = MediaType.parse(contentType);
+
+			if (mediaType != null)
+			{
+				this.mediaTypes.add(new Registration(mediaType, strategy));
+			}
+		}
+
+		public void cache(String contentType, Registration registration, int maxNegotiated)
+		{
+			if (negotiated.size() >= maxNegotiated)
+			{
+				Iterator<String> keys = negotiated.keySet().iterator();
+
+				if (keys.hasNext())
+				{
+					negotiated.remove(keys.next());
+				}
+			}
+
+			negotiated.put(contentType, registration);
+		}
+	}
+
+	private static class Registration
+	{
+		private MediaType mediaType;
+		private ResourceFactoryStrategy strategy;
+
+		public Registration(MediaType mediaType, ResourceFactoryStrategy strategy)
+		{
+			super();
+			this.mediaType = mediaType;
+			this.strategy = strategy;
+		}
+	}
 }
@@ -15,16 +15,23 @@
 */
 package com.strategicgains.hyperexpress;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
-
-import com.strategicgains.hyperexpress.builder.LinkBuilder;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.strategicgains.hyperexpress.builder.CompiledRelationships;
+import com.strategicgains.hyperexpress.builder.CompiledRelationships.LinkPlan;
+import com.strategicgains.hyperexpress.builder.LinkCache;
 import com.strategicgains.hyperexpress.builder.RelationshipDefinition;
 import com.strategicgains.hyperexpress.builder.TokenBinder;
 import com.strategicgains.hyperexpress.builder.TokenResolver;
+import com.strategicgains.hyperexpress.domain.LazyResourceList;
 import com.strategicgains.hyperexpress.domain.Link;
+import com.strategicgains.hyperexpress.domain.LinkDefinition;
 import com.strategicgains.hyperexpress.domain.Resource;
 
 /**
@@ -59,16 +66,23 @@ public class HyperExpress
 	private static final HyperExpress INSTANCE = new HyperExpress();
 
 	private DefaultResourceFactory resourceFactory;
-	private RelationshipDefinition relationshipDefinition;
+	private AtomicReference<CompiledRelationships> relationships;
 	private ThreadLocal<TokenResolver> tokenResolver;
 
+	// Opt-in parallel construction of large collection resources. Null pool means serial.
+	private volatile ForkJoinPool parallelPool;
+	private volatile int parallelThreshold = Integer.MAX_VALUE;
+
+	// Opt-in cache of built links, shared across requests. Null means no caching.
+	private volatile LinkCache linkCache;
+
 	/*
 	 * Private to prevent external instantiation.
 	 */
 	private HyperExpress()
 	{
 		resourceFactory = new DefaultResourceFactory();
-		relationshipDefinition = new RelationshipDefinition();
+		relationships = new AtomicReference<CompiledRelationships>(new RelationshipDefinition().compile());
 		tokenResolver = new ThreadLocal<TokenResolver>();
 	}
 
@@ -119,6 +133,21 @@ public class HyperExpress
 		return INSTANCE._createResource(object, contentType);
 	}
 
+	/**
+	 * Create a resource instance from the object for the given content type, as createResource(Object, String),
+	 * but using the given TokenResolver instead of the current thread's token bindings. Use this when the
+	 * bindings are carried along with the work, for example, across threads in an asynchronous pipeline.
+	 * 
+	 * @param object
+	 * @param contentType
+	 * @param tokenResolver the TokenResolver used to populate the tokens in the link URLs.
+	 * @return
+	 */
+	public static Resource createResource(Object object, String contentType, TokenResolver tokenResolver)
+	{
+		return INSTANCE._createResource(object, contentType, tokenResolver);
+	}
+
 	/**
 	 * Return the type of the concrete Resource implementation that is created for the
 	 * given contentType.
@@ -160,26 +189,176 @@ public class HyperExpress
 		return INSTANCE._createCollectionResource(components, componentType, componentRel, contentType);
 	}
 
+	/**
+	 * Creates a collection resource as createCollectionResource(Collection, Class, String), but using the given
+	 * TokenResolver instead of the current thread's token bindings and TokenBinders.
+	 * 
+	 * @param components the objects to embed. They will be converted to Resource instances also.
+	 * @param componentType the object type of the components.
+	 * @param contentType the desired content type of the resource (e.g. "application/hal+json")
+	 * @param tokenResolver the TokenResolver used to populate the tokens in the link URLs.
+	 * @return a new Resource instance with the collection embedded (as Resources).
+	 */
+	public static Resource createCollectionResource(Collection<?> components, Class<?> componentType, String contentType, TokenResolver tokenResolver)
+	{
+		return INSTANCE._createCollectionResource(components, componentType, contentType, tokenResolver);
+	}
+
+	/**
+	 * Creates a collection resource as createCollectionResource(Collection, Class, String, String), but using
+	 * the given TokenResolver instead of the current thread's token bindings and TokenBinders.
+	 * 
+	 * @param components the objects to embed. They will be converted to Resource instances also.
+	 * @param componentType the object type of the components.
+	 * @param componentRel the 'rel' name to use when embedding the resources.
+	 * @param contentType the desired content type of the resource (e.g. "application/hal+json")
+	 * @param tokenResolver the TokenResolver used to populate the tokens in the link URLs.
+	 * @return a new Resource instance with the collection embedded (as Resources).
+	 */
+	public static Resource createCollectionResource(Collection<?> components, Class<?> componentType, String componentRel, String contentType, TokenResolver tokenResolver)
+	{
+		return INSTANCE._createCollectionResource(components, componentType, componentRel, contentType, tokenResolver);
+	}
+
+	/**
+	 * Creates a collection resource whose components are converted into embedded Resources
+	 * lazily, one at a time, as the resource is serialized (see LazyResourceList). The rel
+	 * name is derived from the component type as for createCollectionResource().
+	 * 
+	 * @param components the objects to embed, iterated once during serialization.
+	 * @param componentType the object type of the components.
+	 * @param contentType the desired content type of the resource (e.g. "application/hal+json")
+	 * @param tokenResolver the TokenResolver used to create the components' links (e.g. from detachTokenResolver()).
+	 * @return a new Resource instance with the collection embedded lazily.
+	 */
+	public static Resource createLazyCollectionResource(Iterator<?> components, Class<?> componentType, String contentType, TokenResolver tokenResolver)
+	{
+		return INSTANCE._createLazyCollectionResource(components, componentType, contentType, tokenResolver);
+	}
+
+	/**
+	 * Creates a collection resource whose components are converted into embedded Resources
+	 * lazily, one at a time, as the resource is serialized (see LazyResourceList).
+	 * <p/>
+	 * As serialization may happen after the request's token bindings are cleared, the
+	 * TokenResolver to use is passed in, rather than taken from the current thread.
+	 * Expansion callbacks are not supported, as they would iterate the components.
+	 * 
+	 * @param components the objects to embed, iterated once during serialization.
+	 * @param componentType the object type of the components.
+	 * @param componentRel the 'rel' name to use when embedding the resources.
+	 * @param contentType the desired content type of the resource (e.g. "application/hal+json")
+	 * @param tokenResolver the TokenResolver used to create the components' links (e.g. from detachTokenResolver()).
+	 * @return a new Resource instance with the collection embedded lazily.
+	 */
+	public static Resource createLazyCollectionResource(Iterator<?> components, Class<?> componentType, String componentRel, String contentType, TokenResolver tokenResolver)
+	{
+		return INSTANCE._createLazyCollectionResource(components, componentType, componentRel, contentType, tokenResolver);
+	}
+
+	/**
+	 * Create the embedded resources of large collections in parallel on the given pool.
+	 * Collections with at least threshold components passed to createCollectionResource()
+	 * are split across the pool's workers. The embedded resources are added to the collection
+	 * resource in their original order, so the result is the same as when created serially.
+	 * <p/>
+	 * Each component is linked in its own scope on the calling thread's TokenResolver (see
+	 * TokenResolver.newScope()), so TokenBinders must be thread safe. Smaller collections
+	 * are created on the calling thread.
+	 * <p/>
+	 * The pool is not shut down by HyperExpress.
+	 * 
+	 * @param pool the ForkJoinPool on which to create collection components.
+	 * @param threshold the minimum number of components for parallel creation.
+	 * @see #disableParallelCollections()
+	 */
+	public static void enableParallelCollections(ForkJoinPool pool, int threshold)
+	{
+		INSTANCE._enableParallelCollections(pool, threshold);
+	}
+
+	/**
+	 * Create the embedded resources of all collections serially, on the calling thread.
+	 * This is the default.
+	 */
+	public static void disableParallelCollections()
+	{
+		INSTANCE._enableParallelCollections(null, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Cache up to maxSize built links across requests. A link is built once for each set of
+	 * values of the tokens in its URL and the same, frozen Link instance is added to every
+	 * resource that needs it. This helps most when the same links are created over and over,
+	 * such as the links to the parents or authors in a feed.
+	 * <p/>
+	 * Links are looked up after their conditions are checked, so conditional links behave as
+	 * they do without the cache. Links in created resources must not be changed. Use clone()
+	 * to change a copy. The cache is emptied when the relationships change.
+	 * 
+	 * @param maxSize the maximum number of cached links. Least-recently used links are evicted.
+	 * @see #disableLinkCache()
+	 * @see #linkCache()
+	 */
+	public static void enableLinkCache(int maxSize)
+	{
+		INSTANCE.linkCache = new LinkCache(maxSize);
+	}
+
+	/**
+	 * Build new links for every resource. This is the default.
+	 */
+	public static void disableLinkCache()
+	{
+		INSTANCE.linkCache = null;
+	}
+
+	/**
+	 * Answer the link cache, for example to read its hit and miss counts.
+	 * 
+	 * @return the LinkCache, or null if the link cache is not enabled.
+	 */
+	public static LinkCache linkCache()
+	{
+		return INSTANCE.linkCache;
+	}
+
 	/**
 	 * The HyperExpress to define relationships between resource types and namespaces.
+	 * <p/>
+	 * Resources are created from a compiled snapshot of the relationships, which is
+	 * recompiled on first use after the RelationshipDefinition changes.
 	 * 
 	 * @return the RelationshipDefinition contained in this singleton.
 	 * @see RelationshipDefinition
 	 */
 	public static RelationshipDefinition relationships()
 	{
-		return INSTANCE.relationshipDefinition;
+		return INSTANCE.relationships.get().getDefinition();
 	}
 
 	/**
-	 * Set the RelationshipDefinition for HyperExpress.
+	 * Set the RelationshipDefinition for HyperExpress. The definition is compiled and
+	 * swapped in atomically, so relationships may be reloaded while requests are being
+	 * processed. Each resource is created using either the old or the new relationships.
 	 * 
 	 * @param relationships a RelationshipDefinition
 	 * @see RelationshipDefinition
 	 */
 	public static void relationships(RelationshipDefinition relationships)
 	{
-		INSTANCE.relationshipDefinition = relationships;
+		INSTANCE._relationships(relationships);
+	}
+
+	/**
+	 * The immutable snapshot of the current RelationshipDefinition, as used to create resources.
+	 * 
+	 * @return the current CompiledRelationships.
+	 * @see RelationshipDefinition#compile()
+	 */
+	public static CompiledRelationships compiledRelationships()
+	{
+		return INSTANCE._relationships();
 	}
 
 	/**
@@ -226,6 +405,21 @@ public class HyperExpress
 		INSTANCE._clearTokenBindings();
 	}
 
+	/**
+	 * Detach this thread's TokenResolver, with its token bindings and TokenBinder callbacks,
+	 * from the current thread and return it. Subsequent calls to bind(), tokenBinder() or
+	 * clearTokenBindings() on this thread do not affect the returned TokenResolver.
+	 * <p/>
+	 * Use this to defer link creation past the end of request processing, for example,
+	 * until a response is serialized.
+	 * 
+	 * @return this thread's TokenResolver. Never null.
+	 */
+	public static TokenResolver detachTokenResolver()
+	{
+		return INSTANCE._detachTokenResolver();
+	}
+
 
 	// SECTION: PRIVATE INSTANCE METHODS
 
@@ -244,9 +438,19 @@ public class HyperExpress
 	 * @return
 	 */
 	private Resource _createResource(Object object, String contentType)
+	{
+		return _createResource(object, contentType, _acquireTokenResolver());
+	}
+
+	private Resource _createResource(Object object, String contentType, TokenResolver tokenResolver)
+	{
+		return _createResource(object, contentType, tokenResolver, null);
+	}
+
+	private Resource _createResource(Object object, String contentType, TokenResolver tokenResolver, RequestLinks requestLinks)
 	{
 		Resource r = resourceFactory.createResource(object, contentType);
-		_assignResourceLinks(r, object, (object == null ? null : object.getClass()));
+		_assignResourceLinks(r, object, (object == null ? null : object.getClass()), tokenResolver, requestLinks);
 		return r;
 	}
 
@@ -266,8 +470,13 @@ public class HyperExpress
 	 */
 	private Resource _createCollectionResource(Collection<?> components, Class<?> componentType, String contentType)
 	{
-		String componentRel = relationshipDefinition.getCollectionRelFor(componentType);
-		return _createCollectionResource(components, componentType, componentRel, contentType);
+		return _createCollectionResource(components, componentType, contentType, _acquireTokenResolver());
+	}
+
+	private Resource _createCollectionResource(Collection<?> components, Class<?> componentType, String contentType, TokenResolver tokenResolver)
+	{
+		String componentRel = _relationships().getCollectionRelFor(componentType);
+		return _createCollectionResource(components, componentType, componentRel, contentType, tokenResolver);
 	}
 
 	/**
@@ -284,27 +493,39 @@ public class HyperExpress
 	 * @param contentType
 	 * @return a new Resource instance with the collection embedded (as Resources).
 	 */
-    @SuppressWarnings("unchecked")
 	private Resource _createCollectionResource(Collection<?> components, Class<?> componentType, String componentRel, String contentType)
 	{
-		Resource root = resourceFactory.createResource(null, contentType);
-		Collection<LinkBuilder> templates = relationshipDefinition.getCollectionLinkBuilders(componentType);
-		
-		for (Link link : _resolveUrlTokens(templates, null, _acquireTokenResolver()))
-		{
-			root.addLink(link, relationshipDefinition.isCollectionArrayRel(componentType, link.getRel()));
-		}
+		return _createCollectionResource(components, componentType, componentRel, contentType, _acquireTokenResolver());
+	}
 
-		root.addNamespaces(relationshipDefinition.getNamespaces().values());
+    @SuppressWarnings("unchecked")
+	private Resource _createCollectionResource(Collection<?> components, Class<?> componentType, String componentRel, String contentType, TokenResolver tokenResolver)
+	{
+		Resource root = _createCollectionRoot(componentType, contentType, tokenResolver);
 		Resource childResource = null;
+		ForkJoinPool pool = parallelPool;
 
 		if (components == null || components.isEmpty())
 		{
 			root.addResources(componentRel, Collections.EMPTY_LIST);
 		}
+		else if (pool != null && components.size() >= parallelThreshold)
+		{
+			Object[] objects = components.toArray();
+			Resource[] children = new Resource[objects.length];
+			int grain = Math.max(1, objects.length / (pool.getParallelism() * 4));
+			RequestLinks requestLinks = _createRequestLinks(componentType, tokenResolver);
+			pool.invoke(new CreateComponentsTask(this, objects, children, 0, objects.length, grain, componentType, contentType, tokenResolver, requestLinks));
+
+			for (Resource child : children)
+			{
+				root.addResource(componentRel, child, true);
+			}
+		}
 		else
 		{
 			boolean isResourceCollection = false;
+			RequestLinks requestLinks = (components.size() > 1 ? _createRequestLinks(componentType, tokenResolver) : null);
 
 			for (Object component : components)
 			{
@@ -312,11 +533,11 @@ public class HyperExpress
 				{
 					isResourceCollection = true;
 					childResource = (Resource) component;
-					_assignResourceLinks(childResource, component, componentType);
+					_assignResourceLinks(childResource, component, componentType, tokenResolver, requestLinks);
 				}
 				else
 				{
-					childResource = _createResource(component, contentType);
+					childResource = _createResource(component, contentType, tokenResolver, requestLinks);
 				}
 
 				root.addResource(componentRel, childResource, true);
@@ -326,6 +547,118 @@ public class HyperExpress
 		return root;
 	}
 
+	private Resource _createLazyCollectionResource(Iterator<?> components, Class<?> componentType, String contentType, TokenResolver tokenResolver)
+	{
+		String componentRel = _relationships().getCollectionRelFor(componentType);
+		return _createLazyCollectionResource(components, componentType, componentRel, contentType, tokenResolver);
+	}
+
+	private Resource _createLazyCollectionResource(Iterator<?> components, final Class<?> componentType, String componentRel, final String contentType, final TokenResolver tokenResolver)
+	{
+		Resource root = _createCollectionRoot(componentType, contentType, tokenResolver);
+		final RequestLinks requestLinks = _createRequestLinks(componentType, tokenResolver);
+		root.addResources(componentRel, new LazyResourceList(components, new LazyResourceList.Creator()
+		{
+			@Override
+			public Resource create(Object component)
+			{
+				return _createComponentResource(component, componentType, contentType, tokenResolver, requestLinks);
+			}
+		}));
+
+		return root;
+	}
+
+	/**
+	 * Create the embedded Resource for a collection component. Resource components are
+	 * linked and used as-is.
+	 */
+	private Resource _createComponentResource(Object component, Class<?> componentType, String contentType, TokenResolver tokenResolver,
+		RequestLinks requestLinks)
+	{
+		if (component instanceof Resource)
+		{
+			_assignResourceLinks((Resource) component, component, componentType, tokenResolver, requestLinks);
+			return (Resource) component;
+		}
+
+		return _createResource(component, contentType, tokenResolver, requestLinks);
+	}
+
+	/**
+	 * Build the request-scoped links of a collection's components once, for the whole collection.
+	 */
+	private RequestLinks _createRequestLinks(Class<?> componentType, TokenResolver tokenResolver)
+	{
+		LinkPlan plan = _relationships().getLinkPlan(componentType);
+
+		if (plan.isEmpty()) return null;
+
+		return new RequestLinks(plan, tokenResolver, linkCache);
+	}
+
+	/**
+	 * Create the root resource of a collection, with the collection links and namespaces.
+	 */
+	private Resource _createCollectionRoot(Class<?> componentType, String contentType, TokenResolver tokenResolver)
+	{
+		CompiledRelationships rels = _relationships();
+		Resource root = resourceFactory.createResource(null, contentType);
+		_addLinks(root, rels.getCollectionLinkPlan(componentType), null, tokenResolver);
+		root.addNamespaces(rels.getNamespaceSet());
+		return root;
+	}
+
+	private void _enableParallelCollections(ForkJoinPool pool, int threshold)
+	{
+		parallelThreshold = Math.max(1, threshold);
+		parallelPool = pool;
+	}
+
+	/**
+	 * Answer the current compiled relationships, recompiling them if the RelationshipDefinition
+	 * changed since. If relationships(RelationshipDefinition) swaps in a new definition meanwhile,
+	 * the recompiled snapshot is discarded in favor of it.
+	 */
+	private CompiledRelationships _relationships()
+	{
+		CompiledRelationships compiled = relationships.get();
+
+		if (!compiled.isCurrent())
+		{
+			CompiledRelationships recompiled = compiled.getDefinition().compile();
+
+			if (relationships.compareAndSet(compiled, recompiled))
+			{
+				_clearLinkCache();
+			}
+
+			return relationships.get();
+		}
+
+		return compiled;
+	}
+
+	private void _relationships(RelationshipDefinition definition)
+	{
+		relationships.set(definition.compile());
+		_clearLinkCache();
+	}
+
+	/**
+	 * Cached links are keyed by the LinkBuilders of the compiled relationships, so
+	 * they're never found again once new relationships are compiled.
+	 */
+	private void _clearLinkCache()
+	{
+		LinkCache cache = linkCache;
+
+		if (cache != null)
+		{
+			cache.clear();
+		}
+	}
+
 	private TokenResolver _bindToken(String token, String value)
     {
 		return _acquireTokenResolver().bind(token, value);
@@ -340,13 +673,20 @@ public class HyperExpress
 	{
 		TokenResolver tr = _getTokenResolver();
 
+		// Keep the emptied TokenResolver for this thread's next request.
 		if (tr != null)
 		{
-			tr.clear();
-			tokenResolver.remove();
+			tr.reset();
 		}
 	}
 
+	private TokenResolver _detachTokenResolver()
+	{
+		TokenResolver tr = _acquireTokenResolver();
+		tokenResolver.remove();
+		return tr;
+	}
+
 	private TokenResolver _acquireTokenResolver()
 	{
 		TokenResolver tr = _getTokenResolver();
@@ -365,35 +705,174 @@ public class HyperExpress
 		return tokenResolver.get();
 	}
 
-	private List<Link> _resolveUrlTokens(Collection<LinkBuilder> linkBuilders, Object object, TokenResolver tokenResolver)
-    {
-	    List<Link> links = new ArrayList<>(linkBuilders.size());
+	/**
+	 * Build the links in the plan and add them to the resource. The object's tokens are bound
+	 * once, rather than once per link, in a scope that's discarded afterward so they don't leak
+	 * into the next object.
+	 */
+	private void _addLinks(Resource r, LinkPlan plan, Object object, TokenResolver tokenResolver)
+	{
+		_addLinks(r, plan, object, tokenResolver, null);
+	}
+
+	/**
+	 * As _addLinks(Resource, LinkPlan, Object, TokenResolver), but using the already-built link
+	 * from requestLinks for each link the object's TokenBinders don't affect.
+	 */
+	private void _addLinks(Resource r, LinkPlan plan, Object object, TokenResolver tokenResolver, RequestLinks requestLinks)
+	{
+		if (plan.isEmpty()) return;
 
-		for (LinkBuilder linkBuilder : linkBuilders)
+		TokenResolver resolver = tokenResolver;
+		LinkCache cache = linkCache;
+		boolean hasRequestLinks = (object != null && requestLinks != null && requestLinks.plan == plan);
+
+		if (object != null)
+		{
+			resolver = tokenResolver.newScope();
+			resolver.callTokenBinders(object);
+		}
+
+		for (int i = 0; i < plan.size(); i++)
 		{
-			Link link = linkBuilder.build(object, tokenResolver);
-			
+			Link link;
+
+			if (hasRequestLinks && plan.isRequestScoped(i, resolver))
+			{
+				link = requestLinks.get(i);
+			}
+			else
+			{
+				link = plan.getLinkBuilder(i).buildFor(object, resolver, cache);
+			}
+
 			if (link != null)
 			{
-				links.add(link);
+				r.addLink(link, plan.isArrayRel(i));
 			}
 		}
+	}
 
-		return links;
-    }
+	private void _assignResourceLinks(Resource r, Object object, Class<?> objectType, TokenResolver tokenResolver)
+	{
+		_assignResourceLinks(r, object, objectType, tokenResolver, null);
+	}
 
-	private void _assignResourceLinks(Resource r, Object object, Class<?> objectType)
+	private void _assignResourceLinks(Resource r, Object object, Class<?> objectType, TokenResolver tokenResolver, RequestLinks requestLinks)
     {
+		CompiledRelationships rels = _relationships();
+
 	    if (object != null)
 		{
-			Collection<LinkBuilder> linkBuilders = relationshipDefinition.getLinkBuilders(objectType);
+			_addLinks(r, rels.getLinkPlan(objectType), object, tokenResolver, requestLinks);
+		}
+
+		r.addNamespaces(rels.getNamespaceSet());
+    }
+
+	/**
+	 * Creates the embedded Resources for a range of collection components, splitting the
+	 * range in half until it's no larger than the grain. Each Resource is stored at its
+	 * component's index, preserving the collection order.
+	 */
+	private static final class CreateComponentsTask
+	extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private HyperExpress hyperExpress;
+		private Object[] components;
+		private Resource[] children;
+		private int from;
+		private int to;
+		private int grain;
+		private Class<?> componentType;
+		private String contentType;
+		private TokenResolver requestResolver;
+		private RequestLinks requestLinks;
+
+		CreateComponentsTask(HyperExpress hyperExpress, Object[] components, Resource[] children, int from, int to, int grain,
+			Class<?> componentType, String contentType, TokenResolver requestResolver, RequestLinks requestLinks)
+		{
+			super();
+			this.hyperExpress = hyperExpress;
+			this.components = components;
+			this.children = children;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.componentType = componentType;
+			this.contentType = contentType;
+			this.requestResolver = requestResolver;
+			this.requestLinks = requestLinks;
+		}
 
-			for (Link link : _resolveUrlTokens(linkBuilders, object, _acquireTokenResolver()))
+		@Override
+		protected void compute()
+		{
+			if (to - from <= grain)
 			{
-				r.addLink(link, relationshipDefinition.isArrayRel(objectType, link.getRel()));
+				for (int i = from; i < to; i++)
+				{
+					children[i] = hyperExpress._createComponentResource(components[i], componentType, contentType, requestResolver, requestLinks);
+				}
+
+				return;
 			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new CreateComponentsTask(hyperExpress, components, children, from, middle, grain, componentType, contentType, requestResolver, requestLinks),
+				new CreateComponentsTask(hyperExpress, components, children, middle, to, grain, componentType, contentType, requestResolver, requestLinks));
 		}
+	}
 
-		r.addNamespaces(relationshipDefinition.getNamespaces().values());
-    }
+	/**
+	 * The request-scoped links of a collection's components (see LinkPlan.isRequestScoped()).
+	 * Each is built from the request's TokenResolver the first time a component needs it, then
+	 * frozen and shared by every other component whose TokenBinders don't bind the tokens it
+	 * depends on. Thread safe, so it may be shared by the tasks of a parallel collection.
+	 */
+	private static final class RequestLinks
+	{
+		// Marks a link whose conditions were not met, so it's not built again.
+		private static final Link NO_LINK = new LinkDefinition(null, null).freeze();
+
+		private final LinkPlan plan;
+		private final TokenResolver requestResolver;
+		private final LinkCache cache;
+		private final AtomicReferenceArray<Link> links;
+
+		RequestLinks(LinkPlan plan, TokenResolver requestResolver, LinkCache cache)
+		{
+			super();
+			this.plan = plan;
+			this.requestResolver = requestResolver;
+			this.cache = cache;
+			this.links = new AtomicReferenceArray<Link>(plan.size());
+		}
+
+		Link get(int index)
+		{
+			Link link = links.get(index);
+
+			if (link == null)
+			{
+				link = plan.getLinkBuilder(index).buildFor(null, requestResolver, cache);
+
+				if (link == null)
+				{
+					link = NO_LINK;
+				}
+				else if (link instanceof LinkDefinition)
+				{
+					((LinkDefinition) link).freeze();
+				}
+
+				links.compareAndSet(index, null, link);
+				link = links.get(index);
+			}
+
+			return (link == NO_LINK ? null : link);
+		}
+	}
 }
@@ -0,0 +1,44 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress;
+
+import com.strategicgains.hyperexpress.builder.TokenBinder;
+
+/**
+ * Copies properties from, and binds URL tokens for, instances of a single domain
+ * class without reflection. Implementations are generated at compile time by the
+ * HyperExpress annotation processor for classes annotated with
+ * {@link com.strategicgains.hyperexpress.annotation.HyperExpressModel} and found
+ * at runtime via {@link ModelAccessors}.
+ * <p/>
+ * The copied properties are the same ones AbstractResourceFactoryStrategy copies by
+ * default (all fields, up the inheritance hierarchy, except static, final, transient
+ * and volatile fields).
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public interface ModelAccessor<T>
+extends TokenBinder<T>
+{
+	/**
+	 * Pass each property of the object to the visitor. Null values are skipped.
+	 * 
+	 * @param from an instance of the domain class. Never null.
+	 * @param visitor a PropertyVisitor, such as one that adds properties to a Resource.
+	 */
+	void visitProperties(T from, PropertyVisitor visitor);
+}
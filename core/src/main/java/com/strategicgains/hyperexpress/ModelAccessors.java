@@ -0,0 +1,93 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress;
+
+import com.strategicgains.hyperexpress.exception.ResourceException;
+
+/**
+ * Locates the generated ModelAccessor, if any, for a domain class. A generated
+ * accessor for class 'com.example.Blog' is named 'com.example.Blog_HyperExpressAccessor'
+ * and is loaded from the domain class's class loader. Lookups, including misses, are
+ * cached per class.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public final class ModelAccessors
+{
+	/**
+	 * The suffix appended to the binary name of a domain class to name its generated accessor.
+	 */
+	public static final String ACCESSOR_SUFFIX = "_HyperExpressAccessor";
+
+	private static final Object NONE = new Object();
+
+	private static final ClassValue<Object> ACCESSORS = new ClassValue<Object>()
+	{
+		@Override
+		protected Object computeValue(Class<?> type)
+		{
+			ModelAccessor<?> accessor = load(type);
+			return (accessor == null ? NONE : accessor);
+		}
+	};
+
+	private ModelAccessors()
+	{
+		// prevents instantiation.
+	}
+
+	/**
+	 * Answer the generated ModelAccessor for exactly the given class (not its super-classes).
+	 * 
+	 * @param type a domain class.
+	 * @return the generated ModelAccessor, or null if none was generated for the class.
+	 * @throws ResourceException if the generated accessor cannot be instantiated.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ModelAccessor<T> forClass(Class<T> type)
+	{
+		Object accessor = ACCESSORS.get(type);
+		return (accessor == NONE ? null : (ModelAccessor<T>) accessor);
+	}
+
+	private static ModelAccessor<?> load(Class<?> type)
+	{
+		if (type.isPrimitive() || type.isArray() || type.getClassLoader() == null) return null;
+
+		Class<?> accessorClass;
+
+		try
+		{
+			accessorClass = Class.forName(type.getName() + ACCESSOR_SUFFIX, true, type.getClassLoader());
+		}
+		catch (ClassNotFoundException e)
+		{
+			return null;
+		}
+
+		if (!ModelAccessor.class.isAssignableFrom(accessorClass)) return null;
+
+		try
+		{
+			return (ModelAccessor<?>) accessorClass.getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new ResourceException("Cannot instantiate " + accessorClass.getName(), e);
+		}
+	}
+}
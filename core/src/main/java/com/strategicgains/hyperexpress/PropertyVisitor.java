@@ -0,0 +1,38 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress;
+
+/**
+ * A callback that receives the properties of a domain object, as determined by a
+ * ResourceFactoryStrategy (or a generated ModelAccessor), without first copying
+ * them into a Resource. Used, for example, to stream properties straight to a
+ * serializer.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see AbstractResourceFactoryStrategy#visitProperties(Object, PropertyVisitor)
+ */
+public interface PropertyVisitor
+{
+	/**
+	 * Called once for each non-null property, in the order they would be copied into
+	 * a Resource.
+	 * 
+	 * @param name the property name.
+	 * @param value the property value. Never null.
+	 */
+	void visit(String name, Object value);
+}
@@ -0,0 +1,42 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a domain class for which the HyperExpress annotation processor (in the
+ * HyperExpress-Processor artifact) generates a ModelAccessor at compile time. The
+ * generated accessor copies the class's properties into a Resource and binds its
+ * {@link BindToken} fields to URL tokens, without reflection.
+ * <p/>
+ * If the processor is not on the annotation-processor path, this annotation has no
+ * effect and properties are copied reflectively, as usual.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see com.strategicgains.hyperexpress.ModelAccessor
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface HyperExpressModel
+{
+}
@@ -0,0 +1,389 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.strategicgains.hyperexpress.domain.Namespace;
+import com.strategicgains.hyperexpress.domain.NamespaceSet;
+import com.strategicgains.hyperexpress.util.Strings;
+
+/**
+ * An immutable snapshot of a RelationshipDefinition, created by RelationshipDefinition.compile().
+ * The link builders, array rels and collection rel names of each type are precomputed into a
+ * LinkPlan, so the snapshot can be read by any number of request threads without locking.
+ * <p/>
+ * Lookups are class-hierarchy aware: a class without relationships of its own uses those of its
+ * nearest superclass, or else of its first interface, that has them. So subclasses and proxies
+ * (e.g. Hibernate's) get the links of their domain type. Object links and collection links are
+ * looked up separately, so a subclass that defines its own object links but no collection links
+ * still gets the collection links of its superclass, along with its collection rel name. This
+ * differs from looking up exact class names, where such a subclass got no collection links and a
+ * rel name pluralized from its own name. Each class is resolved once, then memoized
+ * in a ClassValue, so subsequent lookups don't touch class names or the hierarchy.
+ * <p/>
+ * The link builders are copies, so changes to the RelationshipDefinition after compile() do not
+ * affect the snapshot. isCurrent() tells whether the definition has changed since.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see RelationshipDefinition#compile()
+ */
+public final class CompiledRelationships
+{
+	private static final LinkPlan EMPTY_PLAN = new LinkPlan(new LinkBuilder[0], new boolean[0]);
+
+	private final RelationshipDefinition definition;
+	private final int version;
+	private final Map<String, LinkPlan> plansByClass;
+	private final Map<String, String> relNamesByClass;
+	private final Map<String, Namespace> namespaces;
+	private final NamespaceSet namespaceSet;
+
+	private final ClassValue<TypeRelationships> byType = new ClassValue<TypeRelationships>()
+	{
+		@Override
+		protected TypeRelationships computeValue(Class<?> type)
+		{
+			return resolve(type);
+		}
+	};
+
+	CompiledRelationships(RelationshipDefinition definition, int version, Map<String, List<ConditionalLinkBuilder>> linkBuildersByClass,
+		Map<String, Set<String>> arrayRelsByClass, Map<String, String> relNamesByClass, Map<String, Namespace> namespaces)
+	{
+		super();
+		this.definition = definition;
+		this.version = version;
+		this.plansByClass = compilePlans(linkBuildersByClass, arrayRelsByClass);
+		this.relNamesByClass = Collections.unmodifiableMap(new HashMap<String, String>(relNamesByClass));
+		this.namespaces = Collections.unmodifiableMap(new LinkedHashMap<String, Namespace>(namespaces));
+		this.namespaceSet = NamespaceSet.of(this.namespaces.values());
+	}
+
+	/**
+	 * @return the RelationshipDefinition this snapshot was compiled from.
+	 */
+	public RelationshipDefinition getDefinition()
+	{
+		return definition;
+	}
+
+	/**
+	 * Answers whether the RelationshipDefinition is unchanged since this snapshot was compiled.
+	 */
+	public boolean isCurrent()
+	{
+		return definition.version() == version;
+	}
+
+	/**
+	 * @param forClass a domain type, or an array of one.
+	 * @return the link plan for instances of the type (or for the collection, if an array). Never null.
+	 */
+	public LinkPlan getLinkPlan(Class<?> forClass)
+	{
+		if (forClass == null) return EMPTY_PLAN;
+
+		return byType.get(forClass).plan;
+	}
+
+	/**
+	 * @param componentType the component type of a collection.
+	 * @return the link plan for a collection of the type. Never null.
+	 */
+	public LinkPlan getCollectionLinkPlan(Class<?> componentType)
+	{
+		if (componentType == null) return EMPTY_PLAN;
+
+		return byType.get(componentType).collectionPlan;
+	}
+
+	public List<LinkBuilder> getLinkBuilders(Class<?> forClass)
+	{
+		return getLinkPlan(forClass).getLinkBuilders();
+	}
+
+	public List<LinkBuilder> getCollectionLinkBuilders(Class<?> componentType)
+	{
+		return getCollectionLinkPlan(componentType).getLinkBuilders();
+	}
+
+	public Map<String, Namespace> getNamespaces()
+	{
+		return namespaces;
+	}
+
+	/**
+	 * Answer the namespaces as an immutable NamespaceSet, shared by the resources created from
+	 * these relationships.
+	 */
+	public NamespaceSet getNamespaceSet()
+	{
+		return namespaceSet;
+	}
+
+	public boolean isArrayRel(Class<?> objectType, String rel)
+	{
+		return getLinkPlan(objectType).isArrayRel(rel);
+	}
+
+	public boolean isCollectionArrayRel(Class<?> objectType, String rel)
+	{
+		return getCollectionLinkPlan(objectType).isArrayRel(rel);
+	}
+
+	/**
+	 * Returns a 'rel' name for a collection of the given class. If set via asRel() for the
+	 * class (or the type it inherits its collection relationships from), that name is returned.
+	 * Otherwise, the simple name of that type is pluralized and set to lower-case.
+	 */
+	public String getCollectionRelFor(Class<?> forClass)
+	{
+		return byType.get(forClass).collectionRel;
+	}
+
+	/**
+	 * Find the relationships of a class, searching the class and its superclasses, then
+	 * their interfaces (breadth first) for the nearest that has relationships defined.
+	 */
+	private TypeRelationships resolve(Class<?> type)
+	{
+		if (type.isArray())
+		{
+			TypeRelationships component = byType.get(type.getComponentType());
+			return new TypeRelationships(component.collectionPlan, EMPTY_PLAN, component.collectionRel);
+		}
+
+		LinkPlan plan = null;
+		LinkPlan collectionPlan = null;
+		Class<?> collectionType = null;
+		String collectionRel = null;
+
+		for (Class<?> candidate : hierarchyOf(type))
+		{
+			if (plan == null)
+			{
+				plan = plansByClass.get(candidate.getName());
+			}
+
+			String collectionKey = RelationshipDefinition.collectionKey(candidate);
+
+			if (collectionPlan == null)
+			{
+				collectionPlan = plansByClass.get(collectionKey);
+				if (collectionPlan != null) collectionType = candidate;
+			}
+
+			if (collectionRel == null)
+			{
+				collectionRel = relNamesByClass.get(collectionKey);
+			}
+		}
+
+		if (collectionRel == null)
+		{
+			Class<?> named = (collectionType == null ? type : collectionType);
+			collectionRel = Strings.pluralize(named.getSimpleName().toLowerCase());
+		}
+
+		return new TypeRelationships((plan == null ? EMPTY_PLAN : plan), (collectionPlan == null ? EMPTY_PLAN : collectionPlan), collectionRel);
+	}
+
+	/**
+	 * The class, its superclasses, then all their interfaces, breadth first.
+	 */
+	private static Set<Class<?>> hierarchyOf(Class<?> type)
+	{
+		Set<Class<?>> hierarchy = new LinkedHashSet<Class<?>>();
+
+		for (Class<?> c = type; c != null; c = c.getSuperclass())
+		{
+			hierarchy.add(c);
+		}
+
+		List<Class<?>> interfaces = new ArrayList<Class<?>>();
+
+		for (Class<?> c : hierarchy)
+		{
+			interfaces.addAll(Arrays.asList(c.getInterfaces()));
+		}
+
+		for (int i = 0; i < interfaces.size(); i++)
+		{
+			Class<?> iface = interfaces.get(i);
+
+			if (hierarchy.add(iface))
+			{
+				interfaces.addAll(Arrays.asList(iface.getInterfaces()));
+			}
+		}
+
+		return hierarchy;
+	}
+
+	private static Map<String, LinkPlan> compilePlans(Map<String, List<ConditionalLinkBuilder>> linkBuildersByClass, Map<String, Set<String>> arrayRelsByClass)
+	{
+		Map<String, LinkPlan> plans = new HashMap<String, LinkPlan>();
+
+		for (Entry<String, List<ConditionalLinkBuilder>> entry : linkBuildersByClass.entrySet())
+		{
+			Set<String> arrayRels = arrayRelsByClass.get(entry.getKey());
+			List<ConditionalLinkBuilder> source = entry.getValue();
+			LinkBuilder[] builders = new LinkBuilder[source.size()];
+			boolean[] isArrayRel = new boolean[builders.length];
+
+			for (int i = 0; i < builders.length; i++)
+			{
+				ConditionalLinkBuilder builder = new ConditionalLinkBuilder(source.get(i));
+				builders[i] = builder;
+				isArrayRel[i] = (arrayRels != null && arrayRels.contains(builder.rel()));
+			}
+
+			plans.put(entry.getKey(), new LinkPlan(builders, isArrayRel));
+		}
+
+		return Collections.unmodifiableMap(plans);
+	}
+
+	/**
+	 * The resolved relationships of a single class.
+	 */
+	private static final class TypeRelationships
+	{
+		private final LinkPlan plan;
+		private final LinkPlan collectionPlan;
+		private final String collectionRel;
+
+		TypeRelationships(LinkPlan plan, LinkPlan collectionPlan, String collectionRel)
+		{
+			super();
+			this.plan = plan;
+			this.collectionPlan = collectionPlan;
+			this.collectionRel = collectionRel;
+		}
+	}
+
+	/**
+	 * The link builders for a type, in definition order, with whether each one's rel
+	 * is rendered as an array.
+	 */
+	public static final class LinkPlan
+	{
+		private final LinkBuilder[] builders;
+		private final boolean[] isArrayRel;
+
+		// The tokens each link depends on, classified at compile time. Null for object-scoped links.
+		private final String[][] dependencies;
+		private final List<LinkBuilder> builderList;
+		private final Set<String> arrayRels;
+
+		private LinkPlan(LinkBuilder[] builders, boolean[] isArrayRel)
+		{
+			super();
+			this.builders = builders;
+			this.isArrayRel = isArrayRel;
+			this.dependencies = new String[builders.length][];
+
+			for (int i = 0; i < builders.length; i++)
+			{
+				dependencies[i] = builders[i].dependencies();
+			}
+
+			this.builderList = Collections.unmodifiableList(Arrays.asList(builders));
+			Set<String> rels = new HashSet<String>();
+
+			for (int i = 0; i < builders.length; i++)
+			{
+				if (isArrayRel[i]) rels.add(builders[i].rel());
+			}
+
+			this.arrayRels = rels;
+		}
+
+		public int size()
+		{
+			return builders.length;
+		}
+
+		public boolean isEmpty()
+		{
+			return (builders.length == 0);
+		}
+
+		public LinkBuilder getLinkBuilder(int index)
+		{
+			return builders[index];
+		}
+
+		public boolean isArrayRel(int index)
+		{
+			return isArrayRel[index];
+		}
+
+		public boolean isArrayRel(String rel)
+		{
+			return arrayRels.contains(rel);
+		}
+
+		public List<LinkBuilder> getLinkBuilders()
+		{
+			return builderList;
+		}
+
+		/**
+		 * Answer whether the link at index depends on the object it's built for, not just on
+		 * bound tokens, because it has LinkPredicates.
+		 */
+		public boolean isObjectScoped(int index)
+		{
+			return (dependencies[index] == null);
+		}
+
+		/**
+		 * Answer whether the link at index, built in an object's scope (see TokenResolver.newScope()),
+		 * is the same as the link built in the scope's parent. That is, the link is not object scoped
+		 * and none of the tokens it depends on were bound in the object's scope.
+		 * 
+		 * @param index the index of the link.
+		 * @param objectScope the scope in which the object's TokenBinders were called.
+		 * @return true if the link only depends on request-level token bindings.
+		 */
+		public boolean isRequestScoped(int index, TokenResolver objectScope)
+		{
+			String[] tokenNames = dependencies[index];
+
+			if (tokenNames == null) return false;
+
+			for (String tokenName : tokenNames)
+			{
+				if (objectScope.isBoundHere(tokenName)) return false;
+			}
+
+			return true;
+		}
+	}
+}
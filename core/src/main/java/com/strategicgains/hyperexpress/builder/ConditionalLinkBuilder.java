@@ -16,6 +16,7 @@
 package com.strategicgains.hyperexpress.builder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.strategicgains.hyperexpress.domain.Link;
@@ -27,6 +28,9 @@ import com.strategicgains.hyperexpress.domain.Link;
  * <p/>
  * Otherwise, if the flag is set to a token and that token doesn't get bound from the object
  * during build(), then the resulting link is not returned (it is null).
+ * <p/>
+ * Typed conditions may also be added as LinkPredicate instances. All conditions are checked
+ * before the URL is resolved or the Link created, so links that are not returned cost little.
  * 
  * @author toddf
  * @since Jul 9, 2014
@@ -34,9 +38,15 @@ import com.strategicgains.hyperexpress.domain.Link;
 public class ConditionalLinkBuilder
 extends LinkBuilder
 {
+	private static final String FALSE = Boolean.FALSE.toString();
+
 	private boolean optional = false;
 	private List<String> conditionals = new ArrayList<String>();
 
+	// The ifBound() and ifNotBound() conditionals, compiled as they're added.
+	private List<TokenPredicate> tokenPredicates = new ArrayList<TokenPredicate>();
+	private List<LinkPredicate<?>> predicates = new ArrayList<LinkPredicate<?>>();
+
 	public ConditionalLinkBuilder()
     {
 	    super();
@@ -65,7 +75,10 @@ extends LinkBuilder
 	public ConditionalLinkBuilder(ConditionalLinkBuilder builder)
 	{
 		super(builder);
+		this.optional = builder.optional;
 		this.conditionals = new ArrayList<String>(builder.conditionals);
+		this.tokenPredicates = new ArrayList<TokenPredicate>(builder.tokenPredicates);
+		this.predicates = new ArrayList<LinkPredicate<?>>(builder.predicates);
 	}
 
 	void optional()
@@ -80,14 +93,9 @@ extends LinkBuilder
 			return;
 		}
 
-		if (token.startsWith("{") && token.endsWith("}"))
-		{
-			conditionals.add(token);
-		}
-		else
-		{
-			conditionals.add("{" + token + "}");
-		}
+		String name = tokenName(token);
+		conditionals.add("{" + name + "}");
+		tokenPredicates.add(new TokenPredicate(name, true));
 	}
 
 	void ifNotBound(String token)
@@ -97,14 +105,29 @@ extends LinkBuilder
 			return;
 		}
 
-		if (token.startsWith("{") && token.endsWith("}"))
+		String name = tokenName(token);
+		conditionals.add("!{" + name + "}");
+		tokenPredicates.add(new TokenPredicate(name, false));
+	}
+
+	void when(LinkPredicate<?> predicate)
+	{
+		if (predicate == null)
 		{
-			conditionals.add("!" + token);
+			return;
 		}
-		else
+
+		predicates.add(predicate);
+	}
+
+	private String tokenName(String token)
+	{
+		if (token.startsWith("{") && token.endsWith("}"))
 		{
-			conditionals.add("!{" + token + "}");
+			return token.substring(1, token.length() - 1);
 		}
+
+		return token;
 	}
 
 	public boolean isOptional()
@@ -122,66 +145,139 @@ extends LinkBuilder
 		return conditionals;
 	}
 
+	/**
+	 * Calls the TokenBinders for the object, then builds the link as buildFor(Object, TokenResolver).
+	 * 
+	 * @param object an object from which to bind tokens. May be null.
+	 * @param tokenResolver a TokenResolver with token bindings.
+	 * @return a new Link instance, or null if the conditions are not met.
+	 */
 	@Override
 	public Link build(Object object, TokenResolver tokenResolver)
     {
-		Link link = super.build(object, tokenResolver);
-
-
-		if (hasConditionals())
+		if (tokenResolver != null)
 		{
-			for (String conditional : conditionals)
-			{
-				String value = tokenResolver.resolve(conditional, object);
-
-				// not bound
-				if ((value.startsWith("{") && value.endsWith("}"))
-					|| value.trim().equalsIgnoreCase(Boolean.FALSE.toString()))
-				{
-					return null;
-				}
-				// desire not bound
-				else if (value.startsWith("!"))
-				{
-					if (!(value.startsWith("!{") && value.endsWith("}"))
-						&& !value.substring(1).trim().equalsIgnoreCase(Boolean.FALSE.toString()))
-					{
-						return null;
-					}
-				}
-			}
-		}
-		else if (isOptional() && link.hasToken())
-		{
-			return null;
+			tokenResolver.callTokenBinders(object);
 		}
 
-		return link;
+		return buildFor(object, tokenResolver);
     }
 
+	/**
+	 * Builds the link from tokens already bound in the TokenResolver, as buildFor(null, TokenResolver).
+	 * 
+	 * @param tokenResolver a TokenResolver with token bindings. May be null.
+	 * @return a new Link instance, or null if the conditions are not met.
+	 */
+	@Override
+	public Link build(TokenResolver tokenResolver)
+	{
+		return buildFor(null, tokenResolver);
+	}
+
+	/**
+	 * Builds the link for an object whose tokens are already bound in the TokenResolver. Returns
+	 * null, without resolving the URL, if any LinkPredicate fails. If there are ifBound() or
+	 * ifNotBound() conditionals, returns null if they're not satisfied. Otherwise, if the link is
+	 * optional, returns null if its URL has unbound tokens.
+	 * 
+	 * @param object the object the link is built for. May be null.
+	 * @param tokenResolver a TokenResolver with token bindings. May be null.
+	 * @return a new Link instance, or null if the conditions are not met.
+	 */
+	@Override
+	public Link buildFor(Object object, TokenResolver tokenResolver)
+	{
+		if (!isSatisfied(object, tokenResolver)) return null;
+
+		return resolve(tokenResolver, null);
+	}
+
+	/**
+	 * As buildFor(Object, TokenResolver), checking the conditions before looking for the link
+	 * in the LinkCache.
+	 * 
+	 * @param object the object the link is built for. May be null.
+	 * @param tokenResolver a TokenResolver with token bindings. May be null.
+	 * @param linkCache a LinkCache of previously-built links. May be null.
+	 * @return a Link instance, or null if the conditions are not met.
+	 */
 	@Override
-	public Link build()
+	public Link buildFor(Object object, TokenResolver tokenResolver, LinkCache linkCache)
+	{
+		if (!isSatisfied(object, tokenResolver)) return null;
+
+		return resolve(tokenResolver, linkCache);
+	}
+
+	/**
+	 * Answers the URL tokens and the ifBound() and ifNotBound() tokens. Null if there are
+	 * LinkPredicates, as they are given the object.
+	 */
+	@Override
+	String[] dependencies()
+	{
+		String[] tokenNames = super.dependencies();
+
+		if (tokenNames == null || !predicates.isEmpty()) return null;
+
+		if (tokenPredicates.isEmpty()) return tokenNames;
+
+		String[] dependencies = Arrays.copyOf(tokenNames, tokenNames.length + tokenPredicates.size());
+
+		for (int i = 0; i < tokenPredicates.size(); i++)
+		{
+			dependencies[tokenNames.length + i] = tokenPredicates.get(i).tokenName;
+		}
+
+		return dependencies;
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private boolean isSatisfied(Object object, TokenResolver tokenResolver)
 	{
-		Link link = super.build();
+		for (LinkPredicate predicate : predicates)
+		{
+			if (!predicate.test(object, tokenResolver)) return false;
+		}
 
-		if (isOptional() && link.hasToken())
+		if (tokenResolver != null && hasConditionals())
 		{
-			return null;
+			for (TokenPredicate predicate : tokenPredicates)
+			{
+				if (!predicate.test(object, tokenResolver)) return false;
+			}
+		}
+		else if (isOptional() && !isUrlFullyBound(tokenResolver))
+		{
+			return false;
 		}
 
-		return link;
+		return true;
 	}
 
-	@Override
-	public Link build(TokenResolver tokenResolver)
+	/**
+	 * An ifBound() or ifNotBound() condition. A token bound to "false" counts as not bound.
+	 */
+	private static final class TokenPredicate
+	implements LinkPredicate<Object>
 	{
-		Link link = super.build(tokenResolver);
+		private final String tokenName;
+		private final boolean isBound;
 
-		if (isOptional() && link.hasToken())
+		TokenPredicate(String tokenName, boolean isBound)
 		{
-			return null;
+			super();
+			this.tokenName = tokenName;
+			this.isBound = isBound;
 		}
 
-		return link;
+		@Override
+		public boolean test(Object object, TokenResolver tokenResolver)
+		{
+			String value = tokenResolver.lookup(tokenName);
+			boolean bound = (value != null && !value.trim().equalsIgnoreCase(FALSE));
+			return (bound == isBound);
+		}
 	}
 }
@@ -5,7 +5,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import com.strategicgains.hyperexpress.domain.Link;
+import com.strategicgains.hyperexpress.domain.LinkAttributes;
 import com.strategicgains.hyperexpress.domain.LinkDefinition;
+import com.strategicgains.hyperexpress.util.Strings;
 
 /**
  * Build LinkDefinition instances from a URL pattern, binding URL tokens to
@@ -21,10 +23,14 @@ public class LinkBuilder
 	private static final String REL_TYPE = "rel";
 	private static final String TITLE = "title";
 	private static final String TYPE = "type";
+	private static final String HREF = "href";
 
 	private UrlBuilder urlBuilder;
 	private Map<String, String> attributes = new HashMap<String, String>();
 
+	// Shared by every link built, until the attributes change.
+	private LinkAttributes linkAttributes;
+
 	/**
 	 * Create an empty LinkBuilder, with no URL pattern. Using this constructor
 	 * mandates that you MUST use the build(String) form of build instead of the
@@ -67,6 +73,7 @@ public class LinkBuilder
 		super();
 		this.urlBuilder = that.urlBuilder.clone();
 		this.attributes = new HashMap<String, String>(that.attributes);
+		this.linkAttributes = that.linkAttributes;
 	}
 
 	/**
@@ -117,6 +124,7 @@ public class LinkBuilder
 	public void clearAttributes()
 	{
 		attributes.clear();
+		linkAttributes = null;
 	}
 
 	/**
@@ -239,6 +247,7 @@ public class LinkBuilder
 			attributes.put(name, value);
 		}
 
+		linkAttributes = null;
 		return this;
 	}
 
@@ -252,6 +261,89 @@ public class LinkBuilder
 		return createLink(urlBuilder.build(tokenResolver));
 	}
 
+	/**
+	 * Build a Link for an object whose tokens are already bound in the TokenResolver.
+	 * TokenBinders are not called. Subclasses may use the object to decide whether
+	 * to build the link.
+	 * 
+	 * @param object the object the link is built for. May be null.
+	 * @param tokenResolver a TokenResolver with the object's tokens bound.
+	 * @return a new Link instance, or null if no link is to be created.
+	 */
+	public Link buildFor(Object object, TokenResolver tokenResolver)
+	{
+		return build(tokenResolver);
+	}
+
+	/**
+	 * Build a Link for an object whose tokens are already bound in the TokenResolver, as
+	 * buildFor(Object, TokenResolver), but answering a shared, frozen Link from the LinkCache
+	 * if one was built before with the same values for this builder's URL tokens.
+	 * <p/>
+	 * The builder must not be changed once its links are cached. Subclasses that change how
+	 * links are built must override this method also.
+	 * 
+	 * @param object the object the link is built for. May be null.
+	 * @param tokenResolver a TokenResolver with the object's tokens bound.
+	 * @param linkCache a LinkCache of previously-built links. May be null, to not use a cache.
+	 * @return a Link instance, or null if no link is to be created.
+	 */
+	public Link buildFor(Object object, TokenResolver tokenResolver, LinkCache linkCache)
+	{
+		if (linkCache == null) return buildFor(object, tokenResolver);
+
+		return resolve(tokenResolver, linkCache);
+	}
+
+	/**
+	 * Answers whether every token in the built link's href is bound. If an 'href' attribute
+	 * is set, it overrides the URL pattern and is used as-is, so answers whether it has no tokens.
+	 */
+	boolean isUrlFullyBound(TokenResolver tokenResolver)
+	{
+		String href = attributes.get(HREF);
+
+		if (href != null) return !Strings.hasToken(href);
+
+		return urlBuilder.isFullyBound(tokenResolver);
+	}
+
+	/**
+	 * Answers the names of the tokens the built URL depends on.
+	 */
+	String[] tokenNames()
+	{
+		return urlBuilder.tokenNames();
+	}
+
+	/**
+	 * Answers the names of the tokens the built link, or whether it's built, depends on.
+	 * Null if the link depends on the object itself, not just on bound tokens.
+	 */
+	String[] dependencies()
+	{
+		return (urlPattern() == null ? null : tokenNames());
+	}
+
+	/**
+	 * Builds the Link without calling TokenBinders or checking conditions, using the
+	 * LinkCache, if there is one.
+	 */
+	Link resolve(TokenResolver tokenResolver, LinkCache linkCache)
+	{
+		if (linkCache == null || tokenResolver == null) return createLink(urlBuilder.build(tokenResolver));
+
+		return linkCache.get(this, tokenResolver);
+	}
+
+	/**
+	 * Builds a frozen Link, for sharing via the LinkCache.
+	 */
+	Link buildShared(TokenResolver tokenResolver)
+	{
+		return createLink(urlBuilder.build(tokenResolver)).freeze();
+	}
+
 	/**
 	 * Build a Link instance.
 	 * 
@@ -293,18 +385,22 @@ public class LinkBuilder
 		return s.toString();
 	}
 
-	private Link createLink(String url)
+	private LinkDefinition createLink(String url)
 	{
-		Link link = new LinkDefinition(attributes.get(REL_TYPE), url);
+		String href = attributes.get(HREF);
+		return new LinkDefinition(attributes.get(REL_TYPE), (href != null ? href : url), linkAttributes());
+	}
 
-		for (Entry<String, String> entry : attributes.entrySet())
+	private LinkAttributes linkAttributes()
+	{
+		LinkAttributes shared = linkAttributes;
+
+		if (shared == null)
 		{
-			if (!entry.getKey().equalsIgnoreCase(REL_TYPE))
-			{
-				link.set(entry.getKey(), entry.getValue());
-			}
+			shared = LinkAttributes.of(attributes);
+			linkAttributes = shared;
 		}
 
-		return link;
+		return shared;
 	}
 }
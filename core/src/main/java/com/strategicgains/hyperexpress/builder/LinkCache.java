@@ -0,0 +1,255 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.builder;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.strategicgains.hyperexpress.domain.Link;
+
+/**
+ * A bounded cache of built links, shared across requests. Links are
+ * keyed by the LinkBuilder that built them and the values of the tokens its URL references,
+ * so a link such as 'up' for '/blogs/{blogId}' is built once per blogId and links without
+ * tokens are built once. Cached links are frozen LinkDefinition instances, shared by every
+ * resource they're added to.
+ * <p/>
+ * Once more than maxSize links are cached, links are evicted approximately least-recently
+ * used first: a 'clock' sweeps the cache, giving links used since its last pass a second
+ * chance. Hit and miss counts are kept to help size the cache.
+ * <p/>
+ * LinkCache is thread safe and lookups take no lock. One thread evicts at a time; others
+ * don't wait for it, so the cache may briefly hold a few more than maxSize links.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see LinkBuilder#buildFor(Object, TokenResolver, LinkCache)
+ */
+public final class LinkCache
+{
+	private final int maxSize;
+	private final ConcurrentHashMap<Key, Entry> links = new ConcurrentHashMap<Key, Entry>();
+	private final AtomicBoolean isEvicting = new AtomicBoolean();
+	private Iterator<Map.Entry<Key, Entry>> hand; // guarded by isEvicting
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Create an empty LinkCache that holds, at most, maxSize links.
+	 * 
+	 * @param maxSize the maximum number of cached links. Must be greater than zero.
+	 * @throws IllegalArgumentException if maxSize is less than one.
+	 */
+	public LinkCache(int maxSize)
+	{
+		super();
+
+		if (maxSize < 1)
+		{
+			throw new IllegalArgumentException("LinkCache maxSize must be greater than zero: " + maxSize);
+		}
+
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Answer the link built by the builder for the tokens bound in the TokenResolver,
+	 * building and caching it if it's not cached. Conditions are not checked.
+	 */
+	Link get(LinkBuilder builder, TokenResolver tokenResolver)
+	{
+		String[] tokenNames = builder.tokenNames();
+		String[] values = new String[tokenNames.length];
+
+		for (int i = 0; i < tokenNames.length; i++)
+		{
+			values[i] = tokenResolver.lookup(tokenNames[i]);
+		}
+
+		Key key = new Key(builder, values);
+		Entry entry = links.get(key);
+
+		if (entry != null)
+		{
+			hits.incrementAndGet();
+			entry.touch();
+			return entry.link;
+		}
+
+		misses.incrementAndGet();
+		Link link = builder.buildShared(tokenResolver);
+		entry = links.putIfAbsent(key, new Entry(link));
+
+		if (entry != null)
+		{
+			// Another thread cached it first. Share that one.
+			return entry.link;
+		}
+
+		if (links.size() > maxSize)
+		{
+			evict();
+		}
+
+		return link;
+	}
+
+	/**
+	 * Sweep the clock hand over the cache until it's back down to maxSize, removing links
+	 * not used since the hand last passed them. Each pass is bounded, so a cache where
+	 * every link is hot between passes may stay over maxSize until the next insertion.
+	 */
+	private void evict()
+	{
+		if (!isEvicting.compareAndSet(false, true)) return;
+
+		try
+		{
+			for (int i = 0, n = 2 * links.size(); i < n && links.size() > maxSize; i++)
+			{
+				if (hand == null || !hand.hasNext())
+				{
+					hand = links.entrySet().iterator();
+					if (!hand.hasNext()) break;
+				}
+
+				Map.Entry<Key, Entry> candidate = hand.next();
+
+				if (candidate.getValue().isReferenced)
+				{
+					candidate.getValue().isReferenced = false;
+				}
+				else
+				{
+					links.remove(candidate.getKey(), candidate.getValue());
+				}
+			}
+		}
+		finally
+		{
+			isEvicting.set(false);
+		}
+	}
+
+	/**
+	 * Answer the maximum number of links held by this cache.
+	 */
+	public int getMaxSize()
+	{
+		return maxSize;
+	}
+
+	/**
+	 * Answer the number of links currently cached.
+	 */
+	public int size()
+	{
+		return links.size();
+	}
+
+	/**
+	 * Answer the number of lookups that found a cached link.
+	 */
+	public long getHits()
+	{
+		return hits.get();
+	}
+
+	/**
+	 * Answer the number of lookups that had to build the link.
+	 */
+	public long getMisses()
+	{
+		return misses.get();
+	}
+
+	/**
+	 * Remove all cached links. The hit and miss counts are not reset.
+	 */
+	public void clear()
+	{
+		links.clear();
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + "{size=" + size() + ", maxSize=" + maxSize
+			+ ", hits=" + getHits() + ", misses=" + getMisses() + "}";
+	}
+
+	/**
+	 * A cached link and whether it's been used since the clock hand last passed it.
+	 */
+	private static final class Entry
+	{
+		private final Link link;
+		private volatile boolean isReferenced = true;
+
+		Entry(Link link)
+		{
+			super();
+			this.link = link;
+		}
+
+		void touch()
+		{
+			// Only write when needed, so hot links don't bounce their cache line between cores.
+			if (!isReferenced)
+			{
+				isReferenced = true;
+			}
+		}
+	}
+
+	/**
+	 * A LinkBuilder, by identity, and the values of its URL tokens.
+	 */
+	private static final class Key
+	{
+		private final LinkBuilder builder;
+		private final String[] values;
+		private final int hashCode;
+
+		Key(LinkBuilder builder, String[] values)
+		{
+			super();
+			this.builder = builder;
+			this.values = values;
+			this.hashCode = 31 * System.identityHashCode(builder) + Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object that)
+		{
+			if (this == that) return true;
+			if (!(that instanceof Key)) return false;
+
+			Key other = (Key) that;
+			return (builder == other.builder && Arrays.equals(values, other.values));
+		}
+	}
+}
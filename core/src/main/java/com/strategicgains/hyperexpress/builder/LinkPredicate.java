@@ -0,0 +1,37 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.builder;
+
+/**
+ * Defines the interface for a condition under which a link is created. A LinkPredicate is
+ * added to a relationship with RelationshipDefinition.when() and tested before the link's URL
+ * is resolved, so the link costs nothing when the predicate fails.
+ * <p/>
+ * The object is the domain instance the links are being created for, whose tokens are already
+ * bound in the TokenResolver. It is null for collection links.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public interface LinkPredicate<T>
+{
+	/**
+	 * @param object the instance for which the link is created. May be null.
+	 * @param tokenResolver the TokenResolver with the instance's tokens bound.
+	 * @return true if the link should be created. Otherwise, false.
+	 */
+	boolean test(T object, TokenResolver tokenResolver);
+}
@@ -29,8 +29,17 @@ import com.strategicgains.hyperexpress.exception.RelationshipException;
 import com.strategicgains.hyperexpress.util.Strings;
 
 /**
+ * Defines the links (relationships) and namespaces of domain types and collections of them.
+ * <p/>
+ * A RelationshipDefinition is a builder. For use while creating resources, compile() it into an
+ * immutable CompiledRelationships snapshot, which may be safely shared by request threads.
+ * <p/>
+ * Its methods are synchronized, so compile() (e.g. when HyperExpress recompiles a changed
+ * definition on a request thread) never sees a change in progress.
+ * 
  * @author toddf
  * @since Apr 8, 2014
+ * @see CompiledRelationships
  */
 public class RelationshipDefinition
 {
@@ -63,13 +72,16 @@ public class RelationshipDefinition
 	private String lastClassName;
 	private Map<String, String> relNamesByClass = new HashMap<String, String>();
 
+	// Incremented on every change (while synchronized), so compiled snapshots can tell if they're stale.
+	private volatile int version;
+
 	/**
 	 * Adds one or more namespaces to this relationship builder.
 	 * 
 	 * @param namespaces one or more Namespace instances.
 	 * @return
 	 */
-	public RelationshipDefinition addNamespaces(Namespace... namespaces)
+	public synchronized RelationshipDefinition addNamespaces(Namespace... namespaces)
 	{
 		if (namespaces == null) return this;
 
@@ -87,7 +99,7 @@ public class RelationshipDefinition
 	 * @param namespace a Namespace. Cannot be null.
 	 * @return
 	 */
-	public RelationshipDefinition addNamespace(Namespace namespace)
+	public synchronized RelationshipDefinition addNamespace(Namespace namespace)
 	{
 		if (namespace == null) return this;
 
@@ -97,17 +109,18 @@ public class RelationshipDefinition
 		}
 
 		namespaces.put(namespace.name(), namespace.clone());
+		version++;
 		return this;
 	}
 
-	public RelationshipDefinition forCollectionOf(Class<?> forClass)
+	public synchronized RelationshipDefinition forCollectionOf(Class<?> forClass)
 	{
 		if (forClass == null) return this;
 
-		return forClassName(forClass.getName() + COLLECTION_SUFFIX);
+		return forClassName(collectionKey(forClass));
 	}
 
-	public RelationshipDefinition asRel(String name)
+	public synchronized RelationshipDefinition asRel(String name)
 	{
 		if (lastClassName == null)
 		{
@@ -115,6 +128,7 @@ public class RelationshipDefinition
 		}
 
 		relNamesByClass.put(lastClassName, name);
+		version++;
 		return this;
 	}
 
@@ -126,9 +140,9 @@ public class RelationshipDefinition
 	 * @param forClass
 	 * @return
 	 */
-	public String getCollectionRelFor(Class<?> forClass)
+	public synchronized String getCollectionRelFor(Class<?> forClass)
 	{
-		String rel = relNamesByClass.get(forClass.getName() + COLLECTION_SUFFIX);
+		String rel = relNamesByClass.get(collectionKey(forClass));
 
 		if (rel == null)
 		{
@@ -138,7 +152,7 @@ public class RelationshipDefinition
 		return rel;
 	}
 
-	public RelationshipDefinition forClass(Class<?> forClass)
+	public synchronized RelationshipDefinition forClass(Class<?> forClass)
 	{
 		if (forClass == null) return this;
 
@@ -156,6 +170,7 @@ public class RelationshipDefinition
 		{
 			linkBuildersForClass = new ArrayList<>();
 			linkBuildersByClass.put(name, linkBuildersForClass);
+			version++;
 		}
 
 		arrayRels = arrayRelsByClass.get(name);
@@ -176,7 +191,7 @@ public class RelationshipDefinition
 	 * @param href the URL, possibly templated.
 	 * @return this RelationshipDefinition
 	 */
-	public RelationshipDefinition rel(String rel, String href)
+	public synchronized RelationshipDefinition rel(String rel, String href)
 	{
 		return rel(rel, new ConditionalLinkBuilder(href));
 	}
@@ -188,7 +203,7 @@ public class RelationshipDefinition
 	 * @param builder an OptionalLinkBuilder instance.
 	 * @return this RelationshipDefinition
 	 */
-	public RelationshipDefinition rel(String rel, ConditionalLinkBuilder builder)
+	public synchronized RelationshipDefinition rel(String rel, ConditionalLinkBuilder builder)
 	{
 		builder.rel(rel);
 		this.linkBuilder = builder;
@@ -199,6 +214,7 @@ public class RelationshipDefinition
 		}
 
 		linkBuildersForClass.add(builder);
+		version++;
 		return this;
 	}
 
@@ -211,7 +227,7 @@ public class RelationshipDefinition
 	 * @param href the URL, possibly templated.
 	 * @return this RelationshipDefinition
 	 */
-	public RelationshipDefinition rels(String name, String href)
+	public synchronized RelationshipDefinition rels(String name, String href)
 	{
 		return rels(name, new ConditionalLinkBuilder(href));
 	}
@@ -225,7 +241,7 @@ public class RelationshipDefinition
 	 * @param builder an OptionalLinkBuilder instance.
 	 * @return this RelationshipDefinition
 	 */
-	public RelationshipDefinition rels(String name, ConditionalLinkBuilder builder)
+	public synchronized RelationshipDefinition rels(String name, ConditionalLinkBuilder builder)
 	{
 		arrayRels.add(name);
 		return rel(name, builder);
@@ -237,7 +253,7 @@ public class RelationshipDefinition
 	 * @param title
 	 * @return
 	 */
-	public RelationshipDefinition title(String title)
+	public synchronized RelationshipDefinition title(String title)
 	{
 		return attribute(TITLE, title);
 	}
@@ -248,7 +264,7 @@ public class RelationshipDefinition
 	 * @param value
 	 * @return
 	 */
-	public RelationshipDefinition hreflang(String value)
+	public synchronized RelationshipDefinition hreflang(String value)
 	{
 		return attribute(HREFLANG, value);
 	}
@@ -259,7 +275,7 @@ public class RelationshipDefinition
 	 * @param type
 	 * @return
 	 */
-	public RelationshipDefinition type(String type)
+	public synchronized RelationshipDefinition type(String type)
     {
     	return attribute(TYPE, type);
     }
@@ -270,7 +286,7 @@ public class RelationshipDefinition
 	 * @param name
 	 * @return
 	 */
-	public RelationshipDefinition name(String name)
+	public synchronized RelationshipDefinition name(String name)
 	{
 		return attribute(NAME, name);
 	}
@@ -281,7 +297,7 @@ public class RelationshipDefinition
 	 * @param value
 	 * @return
 	 */
-	public RelationshipDefinition templated(boolean value)
+	public synchronized RelationshipDefinition templated(boolean value)
 	{
 		if (value)
 		{
@@ -297,7 +313,7 @@ public class RelationshipDefinition
 	 * @param value
 	 * @return
 	 */
-	public RelationshipDefinition deprecation(String value)
+	public synchronized RelationshipDefinition deprecation(String value)
 	{
 		return attribute(DEPRECATION, value);
 	}
@@ -308,7 +324,7 @@ public class RelationshipDefinition
 	 * @param value
 	 * @return
 	 */
-	public RelationshipDefinition profile(String value)
+	public synchronized RelationshipDefinition profile(String value)
 	{
 		return attribute(PROFILE, value);
 	}
@@ -319,7 +335,7 @@ public class RelationshipDefinition
 	 * @param value
 	 * @return
 	 */
-	public RelationshipDefinition length(String value)
+	public synchronized RelationshipDefinition length(String value)
 	{
 		return attribute(LENGTH, value);
 	}
@@ -330,11 +346,12 @@ public class RelationshipDefinition
 	 * 
 	 * @return
 	 */
-	public RelationshipDefinition optional()
+	public synchronized RelationshipDefinition optional()
 	{
 		if (linkBuilder == null) throw new RelationshipException("Attempt to set optional on null link. Call 'rel()' first.");
 
 		linkBuilder.optional();
+		version++;
 		return this;
 	}
 
@@ -353,19 +370,37 @@ public class RelationshipDefinition
 	 * @param token a URL token name, with or without beginning and ending curly-braces.
 	 * @return
 	 */
-	public RelationshipDefinition ifBound(String token)
+	public synchronized RelationshipDefinition ifBound(String token)
 	{
 		if (linkBuilder == null) throw new RelationshipException("Attempt to set ifBound() on null link: " + token + ". Call 'rel()' first.");
 
 		linkBuilder.ifBound(token);
+		version++;
 		return this;
 	}
 
-	public RelationshipDefinition ifNotBound(String token)
+	public synchronized RelationshipDefinition ifNotBound(String token)
 	{
 		if (linkBuilder == null) throw new RelationshipException("Attempt to set ifNotBound() on null link: " + token + ". Call 'rel()' first.");
 
 		linkBuilder.ifNotBound(token);
+		version++;
+		return this;
+	}
+
+	/**
+	 * Only create the latest rel() if the predicate holds for the object the links are created
+	 * for. The predicate is tested before the link's URL is resolved.
+	 * 
+	 * @param predicate a LinkPredicate on the domain type.
+	 * @return this RelationshipDefinition
+	 */
+	public synchronized <T> RelationshipDefinition when(LinkPredicate<T> predicate)
+	{
+		if (linkBuilder == null) throw new RelationshipException("Attempt to set when() on null link. Call 'rel()' first.");
+
+		linkBuilder.when(predicate);
+		version++;
 		return this;
 	}
 
@@ -380,11 +415,12 @@ public class RelationshipDefinition
 	 * @param value
 	 * @return
 	 */
-	public RelationshipDefinition attribute(String name, String value)
+	public synchronized RelationshipDefinition attribute(String name, String value)
     {
 		if (linkBuilder == null) throw new RelationshipException("Attempt to set attribute on null link: " + name + ". Call 'rel()' first.");
 
 		linkBuilder.set(name, value);
+		version++;
     	return this;
     }
 
@@ -395,46 +431,74 @@ public class RelationshipDefinition
 	 * @param querySegment an optional query-string segment. Optionally contains tokens.
 	 * @return this RelationshipDefinition to facilitate method chaining.
 	 */
-	public RelationshipDefinition withQuery(String querySegment)
+	public synchronized RelationshipDefinition withQuery(String querySegment)
 	{
 		if (linkBuilder == null) throw new RelationshipException("Attempt to set query-string segment on null link: " + querySegment + ". Call 'rel()' first.");
 
 		linkBuilder.withQuery(querySegment);
+		version++;
 		return this;
 	}
 
-	public List<LinkBuilder> getLinkBuilders(Class<?> forClass)
+	/**
+	 * Create an immutable snapshot of the relationships defined so far. Compile once all the
+	 * relationships are defined, typically at startup.
+	 * 
+	 * @return a new CompiledRelationships instance.
+	 */
+	public synchronized CompiledRelationships compile()
+	{
+		return new CompiledRelationships(this, version, linkBuildersByClass, arrayRelsByClass, relNamesByClass, namespaces);
+	}
+
+	/**
+	 * Answer the number of changes made to this RelationshipDefinition.
+	 */
+	int version()
+	{
+		return version;
+	}
+
+	/**
+	 * The key of the relationships for a collection of the component type.
+	 */
+	static String collectionKey(Class<?> componentType)
+	{
+		return componentType.getName() + COLLECTION_SUFFIX;
+	}
+
+	public synchronized List<LinkBuilder> getLinkBuilders(Class<?> forClass)
 	{
 		if (forClass == null) return Collections.emptyList();
 
 		if (forClass.isArray())
 		{
-			return getLinkBuildersForName(forClass.getComponentType().getName() + COLLECTION_SUFFIX);
+			return getLinkBuildersForName(collectionKey(forClass.getComponentType()));
 		}
 
 		return getLinkBuildersForName(forClass.getName());
 	}
 
-	public List<LinkBuilder> getCollectionLinkBuilders(Class<?> componentType)
+	public synchronized List<LinkBuilder> getCollectionLinkBuilders(Class<?> componentType)
 	{
 		if (componentType == null) return Collections.emptyList();
 
-		return getLinkBuildersForName(componentType.getName() + COLLECTION_SUFFIX);
+		return getLinkBuildersForName(collectionKey(componentType));
 	}
 
-	public Map<String, Namespace> getNamespaces()
+	public synchronized Map<String, Namespace> getNamespaces()
 	{
 		return Collections.unmodifiableMap(namespaces);
 	}
 
-	public boolean isArrayRel(Class<?> objectType, String rel)
+	public synchronized boolean isArrayRel(Class<?> objectType, String rel)
 	{
 		return isArrayRel(objectType.getName(), rel);
 	}
 
-	public boolean isCollectionArrayRel(Class<?> objectType, String rel)
+	public synchronized boolean isCollectionArrayRel(Class<?> objectType, String rel)
 	{
-		return isArrayRel(objectType.getName() + COLLECTION_SUFFIX, rel);
+		return isArrayRel(collectionKey(objectType), rel);
 	}
 
 	private boolean isArrayRel(String className, String rel)
@@ -16,31 +16,101 @@
 package com.strategicgains.hyperexpress.builder;
 
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-import com.strategicgains.hyperexpress.util.MapStringFormat;
+import com.strategicgains.hyperexpress.ModelAccessor;
+import com.strategicgains.hyperexpress.ModelAccessors;
+import com.strategicgains.hyperexpress.util.UrlTemplate;
 
 /**
  * TokenResolver is a utility class that replaces tokens (e.g. '{tokenName}')
  * in strings with values. It allows the addition of TokenBinder instances,
  * which are simply callbacks that can extract token values from Object
  * instances before replacing tokens in a string.
+ * <p/>
+ * TokenBinders are indexed by the type they bind (their generic type argument),
+ * so only the binders assignable from a given object's class are called for it.
+ * If a ModelAccessor was generated for the object's class, it is called before the
+ * installed TokenBinders.
+ * <p/>
+ * A TokenResolver may have scopes, created with newScope(). A scope is a lightweight
+ * overlay on its parent: it sees the parent's bindings and TokenBinders, but tokens
+ * bound in the scope (e.g. by TokenBinders for a single object) are kept in the scope
+ * and never change the parent. Discarding the scope discards those bindings. Several
+ * scopes may be used concurrently, as long as the parent isn't modified meanwhile.
  * 
  * @author toddf
  * @since Apr 28, 2014
  */
 public class TokenResolver
 {
-	private static final MapStringFormat FORMATTER = new MapStringFormat();
+	/**
+	 * The type bound by each TokenBinder implementation class (e.g. the T in
+	 * TokenBinder<T>), determined reflectively once per binder class.
+	 */
+	private static final ClassValue<Class<?>> BOUND_TYPES = new ClassValue<Class<?>>()
+	{
+		@Override
+		protected Class<?> computeValue(Class<?> binderClass)
+		{
+			return findBoundType(binderClass);
+		}
+	};
 
-	private Map<String, String> values = new HashMap<String, String>();
+	private static final TokenBinder<?>[] NO_BINDERS = new TokenBinder<?>[0];
+
+	// Masks a token bound in a parent, when it's unbound in a scope.
+	private static final String UNBOUND = new String("{unbound}");
+
+	private TokenResolver parent;
+	private Map<String, String> values;
+	private Map<String, String> layeredValues;
 	private List<TokenBinder<?>> binders = new ArrayList<TokenBinder<?>>();
 
+	// The binders applicable to a given object class. Rebuilt when binders change.
+	// Concurrent, as scopes in several threads may look up their parent's binders.
+	private volatile Map<Class<?>, TokenBinder<?>[]> bindersByType;
+
+	public TokenResolver()
+	{
+		super();
+		this.values = new HashMap<String, String>();
+	}
+
+	private TokenResolver(TokenResolver parent)
+	{
+		super();
+		this.parent = parent;
+	}
+
+	/**
+	 * Create a scope on this TokenResolver. The scope resolves tokens bound in itself
+	 * first, then those bound in this TokenResolver, and calls this TokenResolver's
+	 * TokenBinders (followed by any installed in the scope). Binding or unbinding tokens
+	 * in the scope doesn't affect this TokenResolver.
+	 * <p/>
+	 * Scopes are cheap to create and are intended to hold the tokens bound for a single
+	 * object while its links are created.
+	 * 
+	 * @return a new TokenResolver scope with this TokenResolver as its parent.
+	 */
+	public TokenResolver newScope()
+	{
+		return new TokenResolver(this);
+	}
+
 	/**
 	 * Bind a token to a value. During resolve(), any token names matching
 	 * the given token name here will be replaced with the given value.
@@ -57,11 +127,11 @@ public class TokenResolver
 	{
 		if (value == null)
 		{
-			values.remove(tokenName);
+			remove(tokenName);
 		}
 		else
 		{
-			values.put(tokenName, value);
+			acquireValues().put(tokenName, value);
 		}
 
 		return this;
@@ -69,20 +139,32 @@ public class TokenResolver
 
 	/**
 	 * Removes all bound tokens. Does not remove token binder callbacks.
+	 * In a scope, only the tokens bound in the scope are removed.
 	 */
 	public void clear()
 	{
-		values.clear();
+		if (values != null)
+		{
+			values.clear();
+		}
 	}
 
 	/**
-	 * 'Unbind' a named substitution value from a token name.
+	 * 'Unbind' a named substitution value from a token name. In a scope, the
+	 * token is unbound in the scope only, hiding any value bound in its parent.
 	 * 
 	 * @param tokenName the name of a previously-bound token name.
 	 */
 	public void remove(String tokenName)
 	{
-		values.remove(tokenName);
+		if (parent != null && parent.lookup(tokenName) != null)
+		{
+			acquireValues().put(tokenName, UNBOUND);
+		}
+		else if (values != null)
+		{
+			values.remove(tokenName);
+		}
 	}
 
 	/**
@@ -91,9 +173,8 @@ public class TokenResolver
 	 * resolve(Collection<String>, Object), the TokenBinder.bind(Object) method
 	 * is called to bind additional tokens that may come from the object.
 	 * <p/>
-	 * <Strong>LIMITATION:</strong> As TokenBinder is typed, calling binder()
-	 * with TokenBinder instances for different generic types will cause
-	 * a {@link ClassCastException} during resolve().
+	 * A TokenBinder is only called for objects that are instances of its
+	 * generic type. A raw TokenBinder is called for every object.
 	 * 
 	 * @param callback a TokenBinder implementation.
 	 * @return this instance of TokenResolver to facilitate method chaining.
@@ -103,6 +184,7 @@ public class TokenResolver
 		if (callback == null) return this;
 
 		binders.add(callback);
+		bindersByType = null;
 		return this;
 	}
 
@@ -112,6 +194,7 @@ public class TokenResolver
 	public void clearBinders()
 	{
 		binders.clear();
+		bindersByType = null;
 	}
 
 	/**
@@ -122,7 +205,7 @@ public class TokenResolver
 	public void reset()
 	{
 		clear();
-		binders.clear();
+		clearBinders();
 	}
 
 	/**
@@ -133,7 +216,19 @@ public class TokenResolver
 	 */
 	public String resolve(String pattern)
 	{
-		return FORMATTER.format(pattern, values);
+		return resolve(UrlTemplate.compile(pattern));
+	}
+
+	/**
+	 * Resolve the tokens in a pre-compiled template. Only the tokens referenced
+	 * by the template are looked up.
+	 * 
+	 * @param template a compiled UrlTemplate.
+	 * @return a string with bound tokens substituted for values.
+	 */
+	public String resolve(UrlTemplate template)
+	{
+		return template.resolve(values());
 	}
 
 	/**
@@ -141,15 +236,10 @@ public class TokenResolver
 	 * the given Object first. Any TokenBinder callbacks are called for the
 	 * object before resolving the tokens. If object is null, no token binders
 	 * are called.
-	 * <p/>
-	 * <Strong>LIMITATION:</strong> As TokenBinder is typed, calling binder()
-	 * with TokenBinder instances for different generic types will cause
-	 * a {@link ClassCastException} during resolve().
 	 * 
 	 * @param pattern a pattern string optionally containing tokens.
 	 * @param object an instance for which to call TokenBinders.
 	 * @return a string with bound tokens substituted for values.
-	 * @throws ClassCastException if binder() called with TokenBinder instances for different generic types.
 	 */
 	public String resolve(String pattern, Object object)
 	{
@@ -158,7 +248,7 @@ public class TokenResolver
 			callTokenBinders(object);
 		}
 
-		return FORMATTER.format(pattern, values);
+		return resolve(pattern);
 	}
 
 	/**
@@ -203,30 +293,225 @@ public class TokenResolver
 	}
 
 	/**
-	 * Call the installed TokenBinder instances, calling bind() for each one
-	 * and passing the object so the TokenBinders can extract token values
-	 * from the object.
+	 * Answer the bound token values, for use by the builders when resolving
+	 * compiled templates directly. For a scope, this is a read-only view of the
+	 * scope's bindings layered over its parent's.
 	 * 
-	 * @param object an object for which to extract token bindings.
+	 * @return the token values, keyed by token name.
+	 */
+	Map<String, String> values()
+	{
+		if (parent == null) return acquireValues();
+
+		if (layeredValues == null)
+		{
+			layeredValues = new LayeredValues();
+		}
+
+		return layeredValues;
+	}
+
+	/**
+	 * Answer the value bound to a token in this TokenResolver or its parents.
+	 */
+	String lookup(String tokenName)
+	{
+		for (TokenResolver r = this; r != null; r = r.parent)
+		{
+			String value = (r.values == null ? null : r.values.get(tokenName));
+
+			if (value != null)
+			{
+				return (value == UNBOUND ? null : value);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Answer whether the token was bound (or removed) in this TokenResolver itself, rather
+	 * than inherited from its parents.
+	 */
+	boolean isBoundHere(String tokenName)
+	{
+		return (values != null && values.containsKey(tokenName));
+	}
+
+	/**
+	 * Answer the tokens bound in this TokenResolver and its parents.
+	 */
+	private Map<String, String> flatten()
+	{
+		Map<String, String> flattened = (parent == null ? new LinkedHashMap<String, String>() : parent.flatten());
+
+		if (values == null) return flattened;
+
+		for (Entry<String, String> entry : values.entrySet())
+		{
+			if (entry.getValue() == UNBOUND)
+			{
+				flattened.remove(entry.getKey());
+			}
+			else
+			{
+				flattened.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		return flattened;
+	}
+
+	private Map<String, String> acquireValues()
+	{
+		if (values == null)
+		{
+			values = new HashMap<String, String>(8);
+		}
+
+		return values;
+	}
+
+	/**
+	 * Call the generated ModelAccessor (if any) and the installed TokenBinder instances
+	 * that apply to the object's type, passing the object so they can extract token
+	 * values from it.
+	 * <p/>
+	 * Callers that resolve several patterns for the same object (e.g. all the
+	 * links for a resource) should call this once and then use the resolve()
+	 * methods that do not take an object.
+	 * 
+	 * @param object an object for which to extract token bindings. May be null.
 	 */
 	@SuppressWarnings({
         "rawtypes", "unchecked"
     })
-    private void callTokenBinders(Object object)
+    public void callTokenBinders(Object object)
 	{
 		if (object == null) return;
 
-		for (TokenBinder tokenBinder : binders)
+		ModelAccessor generated = ModelAccessors.forClass(object.getClass());
+
+		if (generated != null)
+		{
+			generated.bind(object, this);
+		}
+
+		for (TokenBinder tokenBinder : getBindersFor(object.getClass()))
+		{
+			tokenBinder.bind(object, this);
+		}
+	}
+
+	private TokenBinder<?>[] getBindersFor(Class<?> type)
+	{
+		TokenBinder<?>[] inherited = (parent == null ? NO_BINDERS : parent.getBindersFor(type));
+
+		if (binders.isEmpty()) return inherited;
+
+		Map<Class<?>, TokenBinder<?>[]> byType = bindersByType;
+
+		if (byType == null)
+		{
+			byType = new ConcurrentHashMap<Class<?>, TokenBinder<?>[]>();
+			bindersByType = byType;
+		}
+
+		TokenBinder<?>[] forType = byType.get(type);
+
+		if (forType == null)
 		{
-			Class<?> binderClass = (Class<?>) ((ParameterizedType) tokenBinder
-				.getClass()
-				.getGenericInterfaces()[0])
-				.getActualTypeArguments()[0];
+			List<TokenBinder<?>> assignable = new ArrayList<TokenBinder<?>>(inherited.length + binders.size());
 
-			if (binderClass.isAssignableFrom(object.getClass()))
+			for (TokenBinder<?> binder : inherited)
 			{
-				tokenBinder.bind(object, this);
+				assignable.add(binder);
 			}
+
+			for (TokenBinder<?> binder : binders)
+			{
+				if (BOUND_TYPES.get(binder.getClass()).isAssignableFrom(type))
+				{
+					assignable.add(binder);
+				}
+			}
+
+			forType = (assignable.isEmpty() ? NO_BINDERS : assignable.toArray(new TokenBinder<?>[assignable.size()]));
+			byType.put(type, forType);
+		}
+
+		return forType;
+	}
+
+	/**
+	 * Answer the type argument of the TokenBinder interface implemented by
+	 * binderClass (or one of its superclasses). Raw implementations bind Object.
+	 */
+	private static Class<?> findBoundType(Class<?> binderClass)
+	{
+		for (Class<?> c = binderClass; c != null; c = c.getSuperclass())
+		{
+			for (Type type : c.getGenericInterfaces())
+			{
+				if (type instanceof ParameterizedType
+					&& TokenBinder.class.equals(((ParameterizedType) type).getRawType()))
+				{
+					Type bound = ((ParameterizedType) type).getActualTypeArguments()[0];
+
+					if (bound instanceof Class)
+					{
+						return (Class<?>) bound;
+					}
+
+					if (bound instanceof ParameterizedType)
+					{
+						return (Class<?>) ((ParameterizedType) bound).getRawType();
+					}
+				}
+			}
+		}
+
+		return Object.class;
+	}
+
+	/**
+	 * A read-only Map view of a scope's bindings over its parent's. Only get() is
+	 * direct; iteration flattens the layers.
+	 */
+	private class LayeredValues
+	extends AbstractMap<String, String>
+	{
+		@Override
+		public String get(Object key)
+		{
+			return (key instanceof String ? lookup((String) key) : null);
+		}
+
+		@Override
+		public boolean containsKey(Object key)
+		{
+			return get(key) != null;
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet()
+		{
+			final Map<String, String> flattened = flatten();
+
+			return new AbstractSet<Entry<String, String>>()
+			{
+				@Override
+				public Iterator<Entry<String, String>> iterator()
+				{
+					return flattened.entrySet().iterator();
+				}
+
+				@Override
+				public int size()
+				{
+					return flattened.size();
+				}
+			};
 		}
 	}
 
@@ -236,7 +521,7 @@ public class TokenResolver
 	    s.append("{");
 		boolean isFirst = true;
 
-		for (Entry<String, String> entry : values.entrySet())
+		for (Entry<String, String> entry : flatten().entrySet())
 		{
 			if (!isFirst)
 			{
@@ -252,6 +537,7 @@ public class TokenResolver
 			s.append(entry.getValue());
 		}
 
+		s.append("}");
 		return s.toString();
     }
 }
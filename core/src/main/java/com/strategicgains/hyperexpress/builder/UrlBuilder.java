@@ -17,8 +17,9 @@ package com.strategicgains.hyperexpress.builder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-import com.strategicgains.hyperexpress.util.Strings;
+import com.strategicgains.hyperexpress.util.UrlTemplate;
 
 /**
  * Build URL strings from a URL pattern, binding URL tokens to actual values.
@@ -28,6 +29,9 @@ import com.strategicgains.hyperexpress.util.Strings;
  * include query-string arguments that get fully populated. If there is no
  * parameter bound to a particular query-string segment, it is not included in
  * the constructed URL string.
+ * <p/>
+ * The URL pattern (including any base URL) and query-string segments are compiled
+ * into UrlTemplate instances once and re-used on each build().
  * 
  * @author toddf
  * @since Jan 10, 2014
@@ -37,7 +41,13 @@ implements Cloneable
 {
 	private String baseUrl;
 	private String urlPattern;
-	private List<String> queries;
+	private List<UrlTemplate> queries;
+
+	// Compiled from baseUrl + urlPattern on first use. Reset when either changes.
+	private UrlTemplate template;
+
+	// The tokens of the template and query-string segments. Reset along with the template.
+	private String[] tokenNames;
 
 	/**
 	 * Create an empty UrlBuilder, with no URL pattern. Using this constructor
@@ -89,6 +99,8 @@ implements Cloneable
 	public UrlBuilder urlPattern(String urlPattern)
 	{
 		this.urlPattern = urlPattern;
+		this.template = null;
+		this.tokenNames = null;
 		return this;
 	}
 
@@ -118,6 +130,8 @@ implements Cloneable
 	public UrlBuilder baseUrl(String baseUrl)
 	{
 		this.baseUrl = baseUrl;
+		this.template = null;
+		this.tokenNames = null;
 		return this;
 	}
 
@@ -146,7 +160,8 @@ implements Cloneable
 	 */
 	public UrlBuilder withQuery(String query)
 	{
-		queries().add(query);
+		queries().add(UrlTemplate.compile(query));
+		tokenNames = null;
 		return this;
 	}
 
@@ -159,6 +174,8 @@ implements Cloneable
 		{
 			queries.clear();
 		}
+
+		tokenNames = null;
 	}
 
 	@Override
@@ -166,7 +183,9 @@ implements Cloneable
 	{
 		UrlBuilder b = new UrlBuilder(this.urlPattern);
 		b.baseUrl = this.baseUrl;
-		b.queries = (this.queries == null ? null : new ArrayList<String>(this.queries));
+		b.queries = (this.queries == null ? null : new ArrayList<UrlTemplate>(this.queries));
+		b.template = this.template;
+		b.tokenNames = this.tokenNames;
 		return b;
 	}
 
@@ -201,7 +220,7 @@ implements Cloneable
 	 */
 	public String build(TokenResolver tokenResolver)
 	{
-		return build(buildFullUrlPattern(), null, tokenResolver);
+		return build(getTemplate(), null, tokenResolver);
 	}
 
 	/**
@@ -215,7 +234,7 @@ implements Cloneable
 	 */
 	public String build(Object object, TokenResolver tokenResolver)
 	{
-		return build(buildFullUrlPattern(), object, tokenResolver);
+		return build(getTemplate(), object, tokenResolver);
 	}
 
 	/**
@@ -246,30 +265,84 @@ implements Cloneable
 	{
 		if (tokenResolver == null) return urlPattern;
 
-		String url = tokenResolver.resolve(urlPattern, object);
-		return appendQueryString(url, tokenResolver);
+		return build(UrlTemplate.compile(urlPattern), object, tokenResolver);
 	}
 
-	private String buildFullUrlPattern()
+	private String build(UrlTemplate template, Object object, TokenResolver tokenResolver)
 	{
-		if (urlPattern == null)
-		    throw new IllegalStateException("Null URL pattern");
+		if (tokenResolver == null) return template.pattern();
+
+		if (object != null)
+		{
+			tokenResolver.callTokenBinders(object);
+		}
+
+		Map<String, String> values = tokenResolver.values();
 
-		return (baseUrl == null ? urlPattern : baseUrl + urlPattern);
+		if (queries == null || queries.isEmpty()) return template.resolve(values);
+
+		StringBuilder sb = new StringBuilder(template.pattern().length() << 1);
+		template.appendTo(sb, values);
+		appendQueryString(sb, values);
+		return sb.toString();
 	}
 
-	private String appendQueryString(String url, TokenResolver tokenResolver)
+	/**
+	 * Answers whether every token in the URL pattern (excluding the optional query-string
+	 * segments) is bound, without building the URL.
+	 */
+	boolean isFullyBound(TokenResolver tokenResolver)
+	{
+		if (tokenResolver == null) return !getTemplate().hasTokens();
+
+		return getTemplate().isFullyBound(tokenResolver.values());
+	}
+
+	/**
+	 * Answer the names of the tokens that the built URL depends on: those in the URL pattern,
+	 * followed by those in the query-string segments. Two TokenResolvers with the same values
+	 * for these tokens build the same URL.
+	 */
+	String[] tokenNames()
 	{
-		if (queries == null || queries.isEmpty()) return url;
+		if (tokenNames == null)
+		{
+			List<String> names = new ArrayList<String>(getTemplate().getTokens());
 
-		StringBuilder sb = new StringBuilder(url);
-		boolean hasQuery = url.contains("?");
+			if (queries != null)
+			{
+				for (UrlTemplate query : queries)
+				{
+					names.addAll(query.getTokens());
+				}
+			}
+
+			tokenNames = names.toArray(new String[names.size()]);
+		}
+
+		return tokenNames;
+	}
 
-		for (String query : queries)
+	private UrlTemplate getTemplate()
+	{
+		if (template == null)
 		{
-			String boundQuery = tokenResolver.resolve(query);
+			if (urlPattern == null)
+			    throw new IllegalStateException("Null URL pattern");
+
+			template = UrlTemplate.compile(baseUrl == null ? urlPattern : baseUrl + urlPattern);
+		}
+
+		return template;
+	}
 
-			if (!Strings.hasToken(boundQuery))
+	private void appendQueryString(StringBuilder sb, Map<String, String> values)
+	{
+		boolean hasQuery = (sb.indexOf("?") >= 0);
+
+		for (UrlTemplate query : queries)
+		{
+			if (query.isFullyBound(values))
 			{
 				if (hasQuery)
 				{
@@ -280,12 +353,10 @@ implements Cloneable
 					sb.append("?");
 				}
 
-				sb.append(boundQuery);
+				query.appendTo(sb, values);
 				hasQuery = true;
 			}
 		}
-
-		return (hasQuery ? sb.toString() : url);
 	}
 
 	private void printQueryStrings(StringBuilder s)
@@ -295,7 +366,7 @@ implements Cloneable
 
 		if (queries != null)
 		{
-			for (String query : queries)
+			for (UrlTemplate query : queries)
 			{
 				if (!isFirst)
 				{
@@ -313,11 +384,11 @@ implements Cloneable
 		s.append("}");
     }
 
-	private List<String> queries()
+	private List<UrlTemplate> queries()
 	{
 		if (queries == null)
 		{
-			queries = new ArrayList<String>();
+			queries = new ArrayList<UrlTemplate>();
 		}
 
 		return queries;
@@ -15,20 +15,35 @@
  */
 package com.strategicgains.hyperexpress.domain;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import com.strategicgains.hyperexpress.exception.ResourceException;
 
 /**
  * An abstract implementation of the Resource interface.
+ * <p/>
+ * Resources are created in large numbers (e.g. one per component of a collection), so the
+ * layout is kept compact: each structure is allocated on first use, properties and embedded
+ * resources are kept in small array-backed maps, and links are kept once, in the order added,
+ * with a compact index that chains the links of each rel (see firstLinkIndex(String) and
+ * nextLinkIndex(int)), so links can be grouped by rel without scanning or copying them.
+ * <p/>
+ * Resources acquired from a ResourcePool are reset and reused once their ResourceArena is
+ * released. Every public accessor of a released resource throws IllegalStateException. Once
+ * a released resource is reused, though, it is live again: a reference kept from the earlier
+ * request is not detected and sees the new request's state. Only debug mode, which never
+ * reuses released resources, detects every use after release (see ResourceArena).
  * 
  * @author toddf
  * @since Apr 7, 2014
@@ -36,15 +51,26 @@ import com.strategicgains.hyperexpress.exception.ResourceException;
 public abstract class AbstractResource
 implements Resource
 {
+	// Slots of the int[] kept for each rel in linkRels.
+	private static final int FIRST = 0;
+	private static final int LAST = 1;
+	private static final int COUNT = 2;
+
+	// Either a shared NamespaceSet or, once changed, this resource's own list.
 	private List<Namespace> namespaces;
-	private Map<String, List<Link>> linksByRel = new LinkedHashMap<String, List<Link>>();
-	private List<Link> allLinks = new ArrayList<Link>();
-	private Map<String, Object> properties = new HashMap<String, Object>();
-	private Map<String, List<Resource>> resources;
-	private Set<String> arrayLinkRels = new HashSet<String>();
-	private Set<String> arrayResourceRels = new HashSet<String>();
-	private Map<String, Action> actionsByRel;
-	private Map<String, Form> formsByRel;
+	private List<Link> links;
+
+	// For each rel, in the order first added, the indexes of its first and last links and its
+	// link count. Rels with a link added as multiple (i.e. rendered as an array) are flagged.
+	private ArrayMap<int[]> linkRels;
+
+	// For each link, the index of the next link with the same rel, or -1.
+	private int[] nextLinks;
+	private ArrayMap<Object> properties;
+
+	// Rels rendered as arrays are flagged.
+	private ArrayMap<List<Resource>> resources;
+	private boolean isReleased = false;
 
 	/**
 	 * Initialize the contents of this resource from another. The contents
@@ -57,6 +83,7 @@ implements Resource
 	@Override
 	public Resource from(Resource that)
 	{
+		assertNotReleased();
 		addNamespaces(that.getNamespaces());
 		addLinks(that.getLinks());
 
@@ -83,7 +110,12 @@ implements Resource
 	@Override
 	public Resource addProperty(String name, Object value)
 	{
-		if (properties.containsKey(name))
+		assertNotReleased();
+		if (properties == null)
+		{
+			properties = new ArrayMap<Object>();
+		}
+		else if (properties.containsKey(name))
 		{
 			throw new ResourceException("Duplicate property: " + name);
 		}
@@ -95,17 +127,24 @@ implements Resource
 	@Override
 	public Object getProperty(String key)
 	{
-		return properties.get(key);
+		assertNotReleased();
+		return (properties == null ? null : properties.get(key));
 	}
 
 	@Override
 	public Resource setProperty(String key, Object value)
 	{
+		assertNotReleased();
 		if (value != null)
 		{
+			if (properties == null)
+			{
+				properties = new ArrayMap<Object>();
+			}
+
 			properties.put(key, value);
 		}
-		else
+		else if (properties != null)
 		{
 			properties.remove(key);
 		}
@@ -134,12 +173,19 @@ implements Resource
 	@Override
     public Resource addNamespace(Namespace namespace)
     {
+		assertNotReleased();
 		if (namespace == null) throw new ResourceException("Cannot add null namespace");
 
 		if (namespaces == null)
 		{
 			namespaces = new ArrayList<Namespace>();
 		}
+		else if (namespaces instanceof NamespaceSet)
+		{
+			if (namespaces.contains(namespace)) return this;
+
+			namespaces = new ArrayList<Namespace>(namespaces);
+		}
 
 		if (!namespaces.contains(namespace))
 		{
@@ -152,8 +198,18 @@ implements Resource
 	@Override
 	public Resource addNamespaces(Collection<Namespace> values)
 	{
+		assertNotReleased();
 		if (values == null) return this;
 
+		// Reference a shared NamespaceSet instead of copying it.
+		if (values instanceof NamespaceSet && (namespaces == null || namespaces.isEmpty()))
+		{
+			namespaces = (NamespaceSet) values;
+			return this;
+		}
+
+		if (values == namespaces) return this;
+
 		for (Namespace ns : values)
 		{
 			addNamespace(ns);
@@ -165,25 +221,33 @@ implements Resource
 	@Override
 	public List<Namespace> getNamespaces()
 	{
-		return (namespaces == null ? Collections.<Namespace> emptyList() : Collections.unmodifiableList(namespaces));
+		assertNotReleased();
+		if (namespaces == null) return Collections.<Namespace> emptyList();
+
+		return (namespaces instanceof NamespaceSet ? namespaces : Collections.unmodifiableList(namespaces));
 	}
 
 	@Override
 	public boolean hasNamespaces()
 	{
+		assertNotReleased();
 		return (namespaces != null && !namespaces.isEmpty());
 	}
 
 	@Override
 	public Map<String, Object> getProperties()
 	{
+		assertNotReleased();
+		if (properties == null) return Collections.<String, Object> emptyMap();
+
 		return Collections.unmodifiableMap(properties);
 	}
 
 	@Override
 	public boolean hasProperties()
 	{
-		return (!properties.isEmpty());
+		assertNotReleased();
+		return (properties != null && !properties.isEmpty());
 	}
 
 	@Override
@@ -195,15 +259,42 @@ implements Resource
 	@Override
 	public Resource addLink(Link link, boolean isMultiple)
 	{
+		assertNotReleased();
 		if (link == null) throw new ResourceException("Cannot add null link");
 		if (link.getRel() == null) throw new ResourceException("Cannot link with null 'rel'");
 
-		acquireLinksForRel(link.getRel()).add(link);
-		allLinks.add(link);
+		if (links == null)
+		{
+			links = new ArrayList<Link>();
+			linkRels = new ArrayMap<int[]>();
+			nextLinks = new int[4];
+		}
+
+		int index = links.size();
+		links.add(link);
+
+		if (index == nextLinks.length)
+		{
+			nextLinks = Arrays.copyOf(nextLinks, index << 1);
+		}
+
+		nextLinks[index] = -1;
+		int[] rel = linkRels.get(link.getRel());
+
+		if (rel == null)
+		{
+			linkRels.put(link.getRel(), new int[] {index, index, 1});
+		}
+		else
+		{
+			nextLinks[rel[LAST]] = index;
+			rel[LAST] = index;
+			rel[COUNT]++;
+		}
 
 		if (isMultiple)
 		{
-			arrayLinkRels.add(link.getRel());
+			linkRels.flag(link.getRel());
 		}
 
 		return this;
@@ -212,6 +303,7 @@ implements Resource
 	@Override
 	public Resource addLinks(Collection<Link> links)
 	{
+		assertNotReleased();
 		if (links == null) throw new ResourceException("Cannot add null links collection to resource");
 
 		for (Link link : links)
@@ -225,18 +317,67 @@ implements Resource
 	@Override
 	public List<Link> getLinks()
 	{
-		return Collections.unmodifiableList(allLinks);
+		assertNotReleased();
+		if (links == null) return Collections.<Link> emptyList();
+
+		return Collections.unmodifiableList(links);
 	}
 
+	/**
+	 * Answer the links grouped by rel, in the order each rel was first added. The answer is
+	 * a view over the resource's rel index; the links are not copied.
+	 * 
+	 * @return an unmodifiable map of links by rel. Possibly empty. Never null.
+	 */
 	public Map<String, List<Link>> getLinksByRel()
 	{
-		return Collections.unmodifiableMap(linksByRel);
+		assertNotReleased();
+		if (links == null) return Collections.<String, List<Link>> emptyMap();
+
+		return new LinksByRel();
+	}
+
+	/**
+	 * Answer the index, in getLinks(), of the first link with the given rel. With
+	 * nextLinkIndex(int), this walks the links of a rel without scanning the others.
+	 * 
+	 * @param rel a link relation type.
+	 * @return the index of the first link with the rel, or -1 if there are none.
+	 */
+	public int firstLinkIndex(String rel)
+	{
+		assertNotReleased();
+		if (linkRels == null) return -1;
+
+		int[] forRel = linkRels.get(rel);
+		return (forRel == null ? -1 : forRel[FIRST]);
+	}
+
+	/**
+	 * Answer the index, in getLinks(), of the next link with the same rel as the link at
+	 * the given index.
+	 * 
+	 * @param index the index of a link in getLinks().
+	 * @return the index of the next link with the same rel, or -1 if it's the last one.
+	 * @throws IndexOutOfBoundsException if there's no link at index.
+	 */
+	public int nextLinkIndex(int index)
+	{
+		assertNotReleased();
+
+		if (links == null || index < 0 || index >= links.size())
+		{
+			throw new IndexOutOfBoundsException("No link at index: " + index);
+		}
+
+		return nextLinks[index];
 	}
 
 	@Override
 	public boolean hasLinks()
 	{
-		return (!linksByRel.isEmpty());
+		assertNotReleased();
+		return (links != null && !links.isEmpty());
 	}
 
 	@Override
@@ -248,6 +389,7 @@ implements Resource
 	@Override
 	public Resource addResource(String rel, Resource resource, boolean isMultiple)
 	{
+		assertNotReleased();
 		if (rel == null) throw new ResourceException("Cannot embed resource using null 'rel'");
 		if (resource == null) throw new ResourceException("Cannot embed null resource");
 
@@ -256,18 +398,35 @@ implements Resource
 
 		if (isMultiple)
 		{
-			arrayResourceRels.add(rel);
+			resources.flag(rel);
 		}
 
 		return this;
 	}
 
+	/**
+	 * Embed a collection of resources as an array. A LazyResourceList is embedded as-is,
+	 * without being iterated, and must be the only content of its rel.
+	 */
 	@Override
 	public Resource addResources(String rel, Collection<Resource> collection)
 	{
+		assertNotReleased();
+		if (collection instanceof LazyResourceList)
+		{
+			if (!_getResources().containsKey(rel))
+			{
+				acquireResources().put(rel, (LazyResourceList) collection);
+				resources.flag(rel);
+				return this;
+			}
+
+			throw new ResourceException("Cannot add a lazy resource list to existing resources for rel: " + rel);
+		}
+
 		List<Resource> forRel = acquireResourcesForRel(rel);
 		forRel.addAll(collection);
-		arrayResourceRels.add(rel);
+		resources.flag(rel);
 		return this;
 	}
 
@@ -279,6 +438,7 @@ implements Resource
 
 	private Map<String, List<Resource>> _getResources()
 	{
+		assertNotReleased();
 		return (resources == null ? Collections.<String, List<Resource>> emptyMap() : resources);
 	}
 
@@ -305,35 +465,28 @@ implements Resource
 	@Override
 	public boolean hasResources()
 	{
+		assertNotReleased();
 		return (resources != null && !resources.isEmpty());
 	}
 
-	private List<Resource> acquireResourcesForRel(String rel)
-    {
+	private Map<String, List<Resource>> acquireResources()
+	{
 		if (resources == null)
 		{
-			resources = new HashMap<String, List<Resource>>();
+			resources = new ArrayMap<List<Resource>>();
 		}
 
-	    List<Resource> forRel = resources.get(rel);
-
-		if (forRel == null)
-		{
-			forRel = new ArrayList<Resource>();
-			resources.put(rel, forRel);
-		}
-
-	    return forRel;
-    }
+		return resources;
+	}
 
-	private List<Link> acquireLinksForRel(String rel)
+	private List<Resource> acquireResourcesForRel(String rel)
     {
-	    List<Link> forRel = linksByRel.get(rel);
+	    List<Resource> forRel = acquireResources().get(rel);
 
 		if (forRel == null)
 		{
-			forRel = new ArrayList<Link>();
-			linksByRel.put(rel, forRel);
+			forRel = new ArrayList<Resource>();
+			resources.put(rel, forRel);
 		}
 
 	    return forRel;
@@ -342,19 +495,22 @@ implements Resource
 	@Override
     public boolean isMultipleLinks(String rel)
     {
-		return arrayLinkRels.contains(rel);
+		assertNotReleased();
+		return (linkRels != null && linkRels.isFlagged(rel));
     }
 
 	@Override
     public boolean isMultipleResources(String rel)
     {
-		return arrayResourceRels.contains(rel);
+		assertNotReleased();
+		return (resources != null && resources.isFlagged(rel));
     }
 
 	@Override
 	public Object removeProperty(String name)
 	{
-		return properties.remove(name);
+		assertNotReleased();
+		return (properties == null ? null : properties.remove(name));
 	}
 
 	@Override
@@ -366,6 +522,181 @@ implements Resource
 	@Override
     public boolean hasProperty(String name)
     {
-	    return properties.containsKey(name);
+		assertNotReleased();
+	    return (properties != null && properties.containsKey(name));
     }
+
+	/**
+	 * Clear the contents of this resource, keeping the storage already allocated, so it can
+	 * be reused by a ResourcePool. Sub-classes with state of their own must extend this,
+	 * calling super.reset().
+	 */
+	protected void reset()
+	{
+		namespaces = (namespaces instanceof NamespaceSet ? null : namespaces);
+
+		if (namespaces != null) namespaces.clear();
+		if (links != null) links.clear();
+		if (linkRels != null) linkRels.clear();
+		if (properties != null) properties.clear();
+		if (resources != null) resources.clear();
+	}
+
+	/**
+	 * Throw if this resource has been released to its ResourceArena. Sub-classes may call
+	 * this from their own accessors.
+	 * 
+	 * @throws IllegalStateException if this resource is released.
+	 */
+	protected final void assertNotReleased()
+	{
+		if (isReleased)
+		{
+			throw new IllegalStateException("Resource used after release: " + getClass().getSimpleName());
+		}
+	}
+
+	final boolean isReleased()
+	{
+		return isReleased;
+	}
+
+	final void release()
+	{
+		reset();
+		isReleased = true;
+	}
+
+	final void revive()
+	{
+		isReleased = false;
+	}
+
+	/**
+	 * An unmodifiable view of the links, grouped by rel, over the rel index.
+	 */
+	private final class LinksByRel
+	extends AbstractMap<String, List<Link>>
+	{
+		@Override
+		public List<Link> get(Object rel)
+		{
+			int[] forRel = linkRels.get(rel);
+			return (forRel == null ? null : new RelLinks(forRel));
+		}
+
+		@Override
+		public boolean containsKey(Object rel)
+		{
+			return linkRels.containsKey(rel);
+		}
+
+		@Override
+		public Set<Entry<String, List<Link>>> entrySet()
+		{
+			return new AbstractSet<Entry<String, List<Link>>>()
+			{
+				@Override
+				public Iterator<Entry<String, List<Link>>> iterator()
+				{
+					final Iterator<Entry<String, int[]>> rels = linkRels.entrySet().iterator();
+
+					return new Iterator<Entry<String, List<Link>>>()
+					{
+						@Override
+						public boolean hasNext()
+						{
+							return rels.hasNext();
+						}
+
+						@Override
+						public Entry<String, List<Link>> next()
+						{
+							Entry<String, int[]> rel = rels.next();
+							return new SimpleImmutableEntry<String, List<Link>>(rel.getKey(), new RelLinks(rel.getValue()));
+						}
+
+						@Override
+						public void remove()
+						{
+							throw new UnsupportedOperationException();
+						}
+					};
+				}
+
+				@Override
+				public int size()
+				{
+					return linkRels.size();
+				}
+			};
+		}
+	}
+
+	/**
+	 * An unmodifiable view of the links of one rel, following the rel's chain.
+	 */
+	private final class RelLinks
+	extends AbstractList<Link>
+	{
+		private final int[] rel;
+
+		RelLinks(int[] rel)
+		{
+			super();
+			this.rel = rel;
+		}
+
+		@Override
+		public Link get(int index)
+		{
+			if (index < 0 || index >= rel[COUNT]) throw new IndexOutOfBoundsException("Index: " + index);
+
+			int i = rel[FIRST];
+
+			for (int n = 0; n < index; n++)
+			{
+				i = nextLinks[i];
+			}
+
+			return links.get(i);
+		}
+
+		@Override
+		public int size()
+		{
+			return rel[COUNT];
+		}
+
+		@Override
+		public Iterator<Link> iterator()
+		{
+			return new Iterator<Link>()
+			{
+				private int next = rel[FIRST];
+
+				@Override
+				public boolean hasNext()
+				{
+					return (next >= 0);
+				}
+
+				@Override
+				public Link next()
+				{
+					if (next < 0) throw new NoSuchElementException();
+
+					Link link = links.get(next);
+					next = nextLinks[next];
+					return link;
+				}
+
+				@Override
+				public void remove()
+				{
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
 }
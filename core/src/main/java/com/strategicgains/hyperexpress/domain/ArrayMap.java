@@ -0,0 +1,320 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.domain;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact, insertion-ordered Map with String keys, backed by arrays. Smaller and faster than
+ * a LinkedHashMap for the handful of properties or rels a resource typically has. Small maps
+ * are searched linearly; beyond HASHED_SIZE keys, an open-addressed table of indexes is kept
+ * so that wide resources don't pay a scan per lookup. Each entry may also be flagged (e.g. as
+ * an array rel), without a separate set.
+ * <p/>
+ * Not thread safe. Null keys are not supported.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+final class ArrayMap<V>
+extends AbstractMap<String, V>
+{
+	private static final int INITIAL_CAPACITY = 4;
+	static final int HASHED_SIZE = 8;
+
+	private String[] keys = new String[INITIAL_CAPACITY];
+	private Object[] values = new Object[INITIAL_CAPACITY];
+	private boolean[] flags;
+
+	// One plus the index of each key, by hash. Null until there are more than HASHED_SIZE keys.
+	private int[] table;
+	private int size;
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return (size == 0);
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return (indexOf(key) >= 0);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key)
+	{
+		int i = indexOf(key);
+		return (i < 0 ? null : (V) values[i]);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(String key, V value)
+	{
+		if (key == null) throw new NullPointerException("ArrayMap does not support null keys");
+
+		int i = indexOf(key);
+
+		if (i >= 0)
+		{
+			V previous = (V) values[i];
+			values[i] = value;
+			return previous;
+		}
+
+		if (size == keys.length)
+		{
+			int capacity = size << 1;
+			keys = Arrays.copyOf(keys, capacity);
+			values = Arrays.copyOf(values, capacity);
+
+			if (flags != null)
+			{
+				flags = Arrays.copyOf(flags, capacity);
+			}
+		}
+
+		keys[size] = key;
+		values[size] = value;
+		size++;
+
+		if (size > HASHED_SIZE)
+		{
+			if (table == null || table.length < (keys.length << 1))
+			{
+				rehash();
+			}
+			else
+			{
+				index(size - 1);
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key)
+	{
+		int i = indexOf(key);
+
+		if (i < 0) return null;
+
+		V previous = (V) values[i];
+		int moved = size - i - 1;
+
+		if (moved > 0)
+		{
+			System.arraycopy(keys, i + 1, keys, i, moved);
+			System.arraycopy(values, i + 1, values, i, moved);
+
+			if (flags != null)
+			{
+				System.arraycopy(flags, i + 1, flags, i, moved);
+			}
+		}
+
+		size--;
+		keys[size] = null;
+		values[size] = null;
+
+		if (flags != null)
+		{
+			flags[size] = false;
+		}
+
+		if (table != null)
+		{
+			rehash();
+		}
+
+		return previous;
+	}
+
+	@Override
+	public void clear()
+	{
+		Arrays.fill(keys, 0, size, null);
+		Arrays.fill(values, 0, size, null);
+		flags = null;
+		table = null;
+		size = 0;
+	}
+
+	/**
+	 * Flag the entry for the given key, if there is one.
+	 */
+	void flag(String key)
+	{
+		int i = indexOf(key);
+
+		if (i < 0) return;
+
+		if (flags == null)
+		{
+			flags = new boolean[keys.length];
+		}
+
+		flags[i] = true;
+	}
+
+	/**
+	 * Answer whether the entry for the given key is flagged.
+	 */
+	boolean isFlagged(String key)
+	{
+		if (flags == null) return false;
+
+		int i = indexOf(key);
+		return (i >= 0 && flags[i]);
+	}
+
+	@Override
+	public Set<Entry<String, V>> entrySet()
+	{
+		return new AbstractSet<Entry<String, V>>()
+		{
+			@Override
+			public Iterator<Entry<String, V>> iterator()
+			{
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size()
+			{
+				return size;
+			}
+		};
+	}
+
+	private int indexOf(Object key)
+	{
+		if (key == null) return -1;
+
+		int hash = key.hashCode();
+
+		if (table != null)
+		{
+			int mask = table.length - 1;
+
+			for (int slot = spread(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask)
+			{
+				int i = table[slot] - 1;
+				String k = keys[i];
+
+				if (k == key || (k.hashCode() == hash && k.equals(key))) return i;
+			}
+
+			return -1;
+		}
+
+		for (int i = 0; i < size; i++)
+		{
+			String k = keys[i];
+
+			if (k == key || (k.hashCode() == hash && k.equals(key))) return i;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Rebuild the table of indexes, at no more than half full, or drop it if the map is small
+	 * enough to search linearly.
+	 */
+	private void rehash()
+	{
+		if (size <= HASHED_SIZE)
+		{
+			table = null;
+			return;
+		}
+
+		table = new int[keys.length << 1];
+
+		for (int i = 0; i < size; i++)
+		{
+			index(i);
+		}
+	}
+
+	private void index(int i)
+	{
+		int mask = table.length - 1;
+		int slot = spread(keys[i].hashCode()) & mask;
+
+		while (table[slot] != 0)
+		{
+			slot = (slot + 1) & mask;
+		}
+
+		table[slot] = i + 1;
+	}
+
+	private static int spread(int hash)
+	{
+		return hash ^ (hash >>> 16);
+	}
+
+	private class EntryIterator
+	implements Iterator<Entry<String, V>>
+	{
+		private int next = 0;
+		private int last = -1;
+
+		@Override
+		public boolean hasNext()
+		{
+			return (next < size);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Entry<String, V> next()
+		{
+			if (next >= size) throw new NoSuchElementException();
+
+			last = next++;
+			return new SimpleImmutableEntry<String, V>(keys[last], (V) values[last]);
+		}
+
+		@Override
+		public void remove()
+		{
+			if (last < 0) throw new IllegalStateException();
+
+			ArrayMap.this.remove(keys[last]);
+			next = last;
+			last = -1;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.domain;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+
+import com.strategicgains.hyperexpress.exception.ResourceException;
+
+/**
+ * An embedded resource list backed by an Iterator of components (e.g. domain objects
+ * read from a cursor), each of which is converted into a Resource only as the list is
+ * iterated. A serializer walking the list therefore creates, renders and discards the
+ * embedded resources one at a time, so memory use does not grow with the number of
+ * components.
+ * <p/>
+ * The list can only be iterated once. As its size is unknown until then, size(),
+ * get() and the operations that depend on them are not supported. So that logging or
+ * inspecting the list does not use up its one iteration, toString(), equals() and
+ * hashCode() do not iterate: a LazyResourceList is only equal to itself.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see com.strategicgains.hyperexpress.HyperExpress#createLazyCollectionResource(Iterator, Class, String, String, com.strategicgains.hyperexpress.builder.TokenResolver)
+ */
+public class LazyResourceList
+extends AbstractList<Resource>
+{
+	/**
+	 * Converts a component into the Resource to embed.
+	 */
+	public interface Creator
+	{
+		Resource create(Object component);
+	}
+
+	private Iterator<?> components;
+	private Creator creator;
+	private boolean isIterated = false;
+
+	public LazyResourceList(Iterator<?> components, Creator creator)
+	{
+		super();
+		this.components = components;
+		this.creator = creator;
+	}
+
+	@Override
+	public Iterator<Resource> iterator()
+	{
+		if (isIterated) throw new ResourceException("A lazy resource list can only be iterated once");
+
+		isIterated = true;
+		return new Iterator<Resource>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return components.hasNext();
+			}
+
+			@Override
+			public Resource next()
+			{
+				return creator.create(components.next());
+			}
+
+			@Override
+			public void remove()
+			{
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return !components.hasNext();
+	}
+
+	@Override
+	public Resource get(int index)
+	{
+		throw new UnsupportedOperationException("A lazy resource list only supports iteration");
+	}
+
+	@Override
+	public int size()
+	{
+		throw new UnsupportedOperationException("A lazy resource list only supports iteration");
+	}
+
+	/**
+	 * Answer whether the list has been iterated (and so cannot be again).
+	 */
+	public boolean isIterated()
+	{
+		return isIterated;
+	}
+
+	@Override
+	public boolean equals(Object that)
+	{
+		return (this == that);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return System.identityHashCode(this);
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + (isIterated ? "{iterated}" : "{not iterated}");
+	}
+}
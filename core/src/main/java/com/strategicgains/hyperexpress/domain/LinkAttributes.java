@@ -0,0 +1,294 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.domain;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The attributes of a link, other than 'rel' and 'href', in an immutable flyweight that many
+ * links may share. For instance, every link built by a LinkBuilder shares the one LinkAttributes
+ * instance for the builder's static attributes (e.g. 'title' and 'type'), instead of each link
+ * having its own copy.
+ * <p/>
+ * The common attributes of HAL and Siren links have their own fields. Any others are kept in an
+ * overflow map, which is only allocated if there are such attributes. Changes are made with
+ * with(), which answers a new LinkAttributes instance.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see LinkDefinition
+ */
+public final class LinkAttributes
+{
+	public static final String REL = "rel";
+	public static final String HREF = "href";
+	public static final String TITLE = "title";
+	public static final String TYPE = "type";
+	public static final String NAME = "name";
+	public static final String TEMPLATED = "templated";
+	public static final String HREFLANG = "hreflang";
+	public static final String DEPRECATION = "deprecation";
+	public static final String PROFILE = "profile";
+
+	public static final LinkAttributes EMPTY = new LinkAttributes(null, null, null, null, null, null, null, null);
+
+	private final String title;
+	private final String type;
+	private final String name;
+	private final String templated;
+	private final String hreflang;
+	private final String deprecation;
+	private final String profile;
+	private final Map<String, String> others;
+
+	// The same as Map.hashCode() for the attributes as a map.
+	private final int hashCode;
+
+	private LinkAttributes(String title, String type, String name, String templated, String hreflang,
+		String deprecation, String profile, Map<String, String> others)
+	{
+		super();
+		this.title = title;
+		this.type = type;
+		this.name = name;
+		this.templated = templated;
+		this.hreflang = hreflang;
+		this.deprecation = deprecation;
+		this.profile = profile;
+		this.others = (others == null || others.isEmpty() ? null : Collections.unmodifiableMap(others));
+		this.hashCode = computeHashCode();
+	}
+
+	/**
+	 * Answer a LinkAttributes instance with the given attributes. The 'rel' and 'href'
+	 * attributes, if present, are ignored.
+	 * 
+	 * @param attributes attribute values by name. May be null.
+	 * @return a LinkAttributes instance. Never null.
+	 */
+	public static LinkAttributes of(Map<String, String> attributes)
+	{
+		if (attributes == null || attributes.isEmpty()) return EMPTY;
+
+		LinkAttributes result = EMPTY;
+
+		for (Entry<String, String> entry : attributes.entrySet())
+		{
+			result = result.with(entry.getKey(), entry.getValue());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Retrieve the value of an attribute by name.
+	 * 
+	 * @param name the attribute name. May be null.
+	 * @return the attribute value, or null if it is not set or name is null.
+	 */
+	public String get(String name)
+	{
+		if (name == null) return null;
+
+		switch (name)
+		{
+			case TITLE: return title;
+			case TYPE: return type;
+			case NAME: return this.name;
+			case TEMPLATED: return templated;
+			case HREFLANG: return hreflang;
+			case DEPRECATION: return deprecation;
+			case PROFILE: return profile;
+			default: return (others == null ? null : others.get(name));
+		}
+	}
+
+	/**
+	 * Answer a LinkAttributes instance with the named attribute set to the value, or removed
+	 * if the value is null. This instance is not changed. The 'rel' and 'href' attributes are
+	 * ignored, as links hold them directly, as is a null name.
+	 * 
+	 * @param name the attribute name. May be null.
+	 * @param value the attribute value. May be null.
+	 * @return a LinkAttributes instance with the change. Possibly this instance, if there is no change.
+	 */
+	public LinkAttributes with(String name, String value)
+	{
+		if (name == null || REL.equals(name) || HREF.equals(name)) return this;
+
+		String current = get(name);
+
+		if (value == null ? current == null : value.equals(current)) return this;
+
+		switch (name)
+		{
+			case TITLE: return new LinkAttributes(value, type, this.name, templated, hreflang, deprecation, profile, others);
+			case TYPE: return new LinkAttributes(title, value, this.name, templated, hreflang, deprecation, profile, others);
+			case NAME: return new LinkAttributes(title, type, value, templated, hreflang, deprecation, profile, others);
+			case TEMPLATED: return new LinkAttributes(title, type, this.name, value, hreflang, deprecation, profile, others);
+			case HREFLANG: return new LinkAttributes(title, type, this.name, templated, value, deprecation, profile, others);
+			case DEPRECATION: return new LinkAttributes(title, type, this.name, templated, hreflang, value, profile, others);
+			case PROFILE: return new LinkAttributes(title, type, this.name, templated, hreflang, deprecation, value, others);
+			default:
+				Map<String, String> changed = (others == null ? new HashMap<String, String>(4) : new HashMap<String, String>(others));
+
+				if (value == null)
+				{
+					changed.remove(name);
+				}
+				else
+				{
+					changed.put(name, value);
+				}
+
+				return new LinkAttributes(title, type, this.name, templated, hreflang, deprecation, profile, changed);
+		}
+	}
+
+	/**
+	 * Answer whether there are no attributes.
+	 */
+	public boolean isEmpty()
+	{
+		return (this == EMPTY || (title == null && type == null && name == null && templated == null
+			&& hreflang == null && deprecation == null && profile == null && others == null));
+	}
+
+	/**
+	 * Answer the attributes as a new, modifiable map.
+	 * 
+	 * @return a map of attribute values by name. Never null.
+	 */
+	public Map<String, String> toMap()
+	{
+		Map<String, String> map = new HashMap<String, String>();
+		put(map, TITLE, title);
+		put(map, TYPE, type);
+		put(map, NAME, name);
+		put(map, TEMPLATED, templated);
+		put(map, HREFLANG, hreflang);
+		put(map, DEPRECATION, deprecation);
+		put(map, PROFILE, profile);
+
+		if (others != null)
+		{
+			map.putAll(others);
+		}
+
+		return map;
+	}
+
+	/**
+	 * Append the attributes to the StringBuilder, as ', name=value' for each.
+	 */
+	void appendTo(StringBuilder s)
+	{
+		append(s, TITLE, title);
+		append(s, TYPE, type);
+		append(s, NAME, name);
+		append(s, TEMPLATED, templated);
+		append(s, HREFLANG, hreflang);
+		append(s, DEPRECATION, deprecation);
+		append(s, PROFILE, profile);
+
+		if (others != null)
+		{
+			for (Entry<String, String> entry : others.entrySet())
+			{
+				append(s, entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object object)
+	{
+		if (this == object) return true;
+		if (!(object instanceof LinkAttributes)) return false;
+
+		LinkAttributes that = (LinkAttributes) object;
+		return (hashCode == that.hashCode
+			&& equals(title, that.title)
+			&& equals(type, that.type)
+			&& equals(name, that.name)
+			&& equals(templated, that.templated)
+			&& equals(hreflang, that.hreflang)
+			&& equals(deprecation, that.deprecation)
+			&& equals(profile, that.profile)
+			&& equals(others, that.others));
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder s = new StringBuilder();
+		appendTo(s);
+		return getClass().getSimpleName() + "{" + (s.length() > 0 ? s.substring(2) : "") + "}";
+	}
+
+	private int computeHashCode()
+	{
+		int h = entryHashCode(TITLE, title)
+			+ entryHashCode(TYPE, type)
+			+ entryHashCode(NAME, name)
+			+ entryHashCode(TEMPLATED, templated)
+			+ entryHashCode(HREFLANG, hreflang)
+			+ entryHashCode(DEPRECATION, deprecation)
+			+ entryHashCode(PROFILE, profile);
+
+		return (others == null ? h : h + others.hashCode());
+	}
+
+	/**
+	 * The hash code of a Map.Entry for the name and value, or zero if the value is null.
+	 */
+	static int entryHashCode(String name, String value)
+	{
+		return (value == null ? 0 : name.hashCode() ^ value.hashCode());
+	}
+
+	private static boolean equals(Object a, Object b)
+	{
+		return (a == null ? b == null : a.equals(b));
+	}
+
+	private static void put(Map<String, String> map, String name, String value)
+	{
+		if (value != null)
+		{
+			map.put(name, value);
+		}
+	}
+
+	private static void append(StringBuilder s, String name, String value)
+	{
+		if (value == null) return;
+
+		s.append(", ");
+		s.append(name);
+		s.append("=");
+		s.append(value);
+	}
+}
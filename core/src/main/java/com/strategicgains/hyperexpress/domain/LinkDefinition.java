@@ -15,10 +15,6 @@
  */
 package com.strategicgains.hyperexpress.domain;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Map.Entry;
-
 import com.strategicgains.hyperexpress.util.Strings;
 
 /**
@@ -30,7 +26,9 @@ import com.strategicgains.hyperexpress.util.Strings;
  * At a minimum, a LinkDefinition must contain a 'rel' and an 'href' property,
  * which correspond to the relation type and associated URL, respectively.
  * <p/>
- * LinkDefinition is Cloneable.
+ * LinkDefinition is Cloneable. A frozen LinkDefinition (see freeze()) may be shared
+ * between resources and throws UnsupportedOperationException if changed. Its clone()
+ * is not frozen.
  * 
  * @author toddf
  * @since Oct 17, 2013
@@ -38,10 +36,15 @@ import com.strategicgains.hyperexpress.util.Strings;
 public class LinkDefinition
 implements Link
 {
-	private static final String REL_TYPE = "rel";
-	private static final String HREF = "href";
+	private static final String REL_TYPE = LinkAttributes.REL;
+	private static final String HREF = LinkAttributes.HREF;
+
+	private String rel;
+	private String href;
 
-	private Map<String, String> attributes = new HashMap<String, String>();
+	// Immutable, so may be shared with other links. Replaced on change.
+	private LinkAttributes attributes = LinkAttributes.EMPTY;
+	private boolean isFrozen = false;
 
 	public LinkDefinition(String rel, String href)
 	{
@@ -50,11 +53,53 @@ implements Link
 		setHref(href);
 	}
 
+	/**
+	 * Create a LinkDefinition sharing the given attributes, as LinkBuilder does for the
+	 * static attributes of its links.
+	 * 
+	 * @param rel the relation type.
+	 * @param href the URL.
+	 * @param attributes the other attributes. May be null.
+	 */
+	public LinkDefinition(String rel, String href, LinkAttributes attributes)
+	{
+		this(rel, href);
+
+		if (attributes != null) this.attributes = attributes;
+	}
+
 	public LinkDefinition(LinkDefinition that)
 	{
 		super();
 
-		if (that != null) this.attributes.putAll(that.attributes);
+		if (that != null)
+		{
+			this.rel = that.rel;
+			this.href = that.href;
+			this.attributes = that.attributes;
+		}
+	}
+
+	/**
+	 * Make this LinkDefinition unmodifiable, so it can be shared. Subsequent calls to
+	 * set(), setHref() or setRel() throw UnsupportedOperationException.
+	 * 
+	 * @return this LinkDefinition instance.
+	 */
+	public LinkDefinition freeze()
+	{
+		isFrozen = true;
+		return this;
+	}
+
+	/**
+	 * Answer whether this LinkDefinition is unmodifiable.
+	 * 
+	 * @return true if freeze() was called. Otherwise, false.
+	 */
+	public boolean isFrozen()
+	{
+		return isFrozen;
 	}
 
 	@Override
@@ -66,7 +111,7 @@ implements Link
 	@Override
 	public String getHref()
 	{
-		return get(HREF);
+		return href;
 	}
 
 	@Override
@@ -79,7 +124,7 @@ implements Link
 	@Override
 	public String getRel()
 	{
-		return get(REL_TYPE);
+		return rel;
 	}
 
 	@Override
@@ -89,16 +134,35 @@ implements Link
 		return this;
 	}
 
+	/**
+	 * Retrieve the attributes other than 'rel' and 'href'.
+	 * 
+	 * @return the (possibly shared) LinkAttributes. Never null.
+	 */
+	public LinkAttributes getAttributes()
+	{
+		return attributes;
+	}
+
 	@Override
 	public LinkDefinition set(String name, String value)
 	{
-		if (value == null)
+		if (isFrozen)
+		{
+			throw new UnsupportedOperationException("Frozen link cannot be changed. Use clone() to change a copy: " + toString());
+		}
+
+		if (REL_TYPE.equals(name))
 		{
-			attributes.remove(name);
+			this.rel = value;
+		}
+		else if (HREF.equals(name))
+		{
+			this.href = value;
 		}
 		else
 		{
-			attributes.put(name, value);
+			attributes = attributes.with(name, value);
 		}
 
 		return this;
@@ -107,6 +171,9 @@ implements Link
 	@Override
 	public String get(String name)
 	{
+		if (REL_TYPE.equals(name)) return rel;
+		if (HREF.equals(name)) return href;
+
 		return attributes.get(name);
 	}
 
@@ -126,34 +193,28 @@ implements Link
 	public String toString()
 	{
 		StringBuilder s = new StringBuilder();
-		s.append(this.getClass().getSimpleName());
-		s.append("{");
-		boolean isFirst = true;
 
-		for (Entry<String, String> entry : attributes.entrySet())
+		if (rel != null)
+		{
+			s.append(", rel=").append(rel);
+		}
+
+		if (href != null)
 		{
-			if (!isFirst)
-			{
-				s.append(", ");
-			}
-			else
-			{
-				isFirst = false;
-			}
-
-			s.append(entry.getKey());
-			s.append("=");
-			s.append(entry.getValue());
+			s.append(", href=").append(href);
 		}
 
-		s.append("}");
-		return s.toString();
+		attributes.appendTo(s);
+		return getClass().getSimpleName() + "{" + (s.length() > 0 ? s.substring(2) : "") + "}";
 	}
 
+	/**
+	 * The same as for a map of all the attributes, including 'rel' and 'href'.
+	 */
 	@Override
 	public int hashCode()
 	{
-		return 31 + ((attributes == null) ? 0 : attributes.hashCode());
+		return 31 + LinkAttributes.entryHashCode(REL_TYPE, rel) + LinkAttributes.entryHashCode(HREF, href) + attributes.hashCode();
 	}
 
 	@Override
@@ -168,18 +229,11 @@ implements Link
 
 	public boolean equals(LinkDefinition that)
 	{
-		if (attributes == null)
-		{
-			if (that.attributes != null)
-			{
-				return false;
-			}
-		}
-		else if (!attributes.equals(that.attributes))
-		{
-			return false;
-		}
+		return (equals(rel, that.rel) && equals(href, that.href) && attributes.equals(that.attributes));
+	}
 
-		return true;
+	private static boolean equals(String a, String b)
+	{
+		return (a == null ? b == null : a.equals(b));
 	}
 }
@@ -0,0 +1,107 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.domain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.strategicgains.hyperexpress.exception.ResourceException;
+
+/**
+ * An immutable, ordered list of distinct namespaces, which resources share instead of each
+ * having their own copy. AbstractResource.addNamespaces() references a NamespaceSet as-is
+ * and only copies it if a different namespace is added to the resource later.
+ * <p/>
+ * HyperExpress assigns the NamespaceSet of the compiled relationships to every resource it creates.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public final class NamespaceSet
+extends AbstractList<Namespace>
+implements RandomAccess
+{
+	private static final NamespaceSet EMPTY = new NamespaceSet(new Namespace[0]);
+
+	private final Namespace[] namespaces;
+	private final Set<Namespace> lookup;
+
+	private NamespaceSet(Namespace[] namespaces)
+	{
+		super();
+		this.namespaces = namespaces;
+		this.lookup = new HashSet<Namespace>();
+
+		for (Namespace namespace : namespaces)
+		{
+			lookup.add(namespace);
+		}
+	}
+
+	/**
+	 * Answer a NamespaceSet of the given namespaces, in iteration order, without duplicates.
+	 * 
+	 * @param namespaces a collection of namespaces. May be null or empty.
+	 * @return a NamespaceSet. Never null.
+	 * @throws ResourceException if any namespace is null.
+	 */
+	public static NamespaceSet of(Collection<Namespace> namespaces)
+	{
+		if (namespaces == null || namespaces.isEmpty()) return EMPTY;
+
+		if (namespaces instanceof NamespaceSet) return (NamespaceSet) namespaces;
+
+		Set<Namespace> distinct = new HashSet<Namespace>();
+		Namespace[] ordered = new Namespace[namespaces.size()];
+		int size = 0;
+
+		for (Namespace namespace : namespaces)
+		{
+			if (namespace == null) throw new ResourceException("Cannot add null namespace");
+
+			if (distinct.add(namespace))
+			{
+				ordered[size++] = namespace;
+			}
+		}
+
+		return new NamespaceSet(size == ordered.length ? ordered : Arrays.copyOf(ordered, size));
+	}
+
+	@Override
+	public Namespace get(int index)
+	{
+		if (index < 0 || index >= namespaces.length) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + namespaces.length);
+
+		return namespaces[index];
+	}
+
+	@Override
+	public int size()
+	{
+		return namespaces.length;
+	}
+
+	@Override
+	public boolean contains(Object namespace)
+	{
+		return lookup.contains(namespace);
+	}
+}
@@ -0,0 +1,161 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A request-scoped arena that recycles the Resource instances created during a request.
+ * <p/>
+ * While an arena is entered on the current thread, ResourcePool.acquire() hands out reset
+ * resources from its pool and records them here. Once the response is serialized, release()
+ * resets the resources and returns them to their pools for later requests. Resources created
+ * on other threads (e.g. when building a large collection in parallel) or with no arena
+ * entered are ordinary, unpooled instances.
+ * <p/>
+ * A released resource throws IllegalStateException if it is used before being reused. Use
+ * after it's been reused is not checked: the stale reference reads and changes the new
+ * request's state. In debug mode, released resources are never reused, so any later use of
+ * one is detected.
+ * <p/>
+ * Links are not recycled, as they may be shared between resources and requests (see
+ * LinkCache).
+ * <p/>
+ * Usage:
+ * <code>
+ * ResourceArena arena = new ResourceArena().enter();
+ * try { ...create resources... } finally { arena.exit(); }
+ * ...serialize...
+ * arena.release();
+ * </code>
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see ResourcePool
+ */
+public final class ResourceArena
+{
+	private static final ThreadLocal<ResourceArena> CURRENT = new ThreadLocal<ResourceArena>();
+
+	private final boolean isDebug;
+	private final List<AbstractResource> resources = new ArrayList<AbstractResource>();
+	private final List<ResourcePool<?>> pools = new ArrayList<ResourcePool<?>>();
+	private boolean isReleased = false;
+
+	public ResourceArena()
+	{
+		this(false);
+	}
+
+	/**
+	 * @param isDebug true to never reuse released resources, detecting any use after release.
+	 */
+	public ResourceArena(boolean isDebug)
+	{
+		super();
+		this.isDebug = isDebug;
+	}
+
+	/**
+	 * Answer the arena entered on the current thread.
+	 * 
+	 * @return the current ResourceArena, or null if none is entered.
+	 */
+	public static ResourceArena current()
+	{
+		return CURRENT.get();
+	}
+
+	/**
+	 * Make this the current arena for this thread, so pooled resources are acquired from it.
+	 * 
+	 * @return this ResourceArena instance to facilitate method chaining.
+	 * @throws IllegalStateException if this arena has been released.
+	 */
+	public ResourceArena enter()
+	{
+		if (isReleased) throw new IllegalStateException("Cannot enter a released resource arena");
+
+		CURRENT.set(this);
+		return this;
+	}
+
+	/**
+	 * Stop acquiring resources from this arena on the current thread. Resources already
+	 * acquired remain in use until release().
+	 */
+	public void exit()
+	{
+		if (CURRENT.get() == this)
+		{
+			CURRENT.remove();
+		}
+	}
+
+	/**
+	 * Reset all the resources acquired from this arena and return them to their pools. The
+	 * arena cannot be used afterward. Releasing a released arena does nothing, unless in
+	 * debug mode.
+	 * 
+	 * @throws IllegalStateException if in debug mode and the arena was already released.
+	 */
+	public void release()
+	{
+		exit();
+
+		if (isReleased)
+		{
+			if (isDebug) throw new IllegalStateException("Resource arena released twice");
+
+			return;
+		}
+
+		isReleased = true;
+
+		for (int i = 0; i < resources.size(); i++)
+		{
+			pools.get(i).recycle(resources.get(i), isDebug);
+		}
+
+		resources.clear();
+		pools.clear();
+	}
+
+	public boolean isDebug()
+	{
+		return isDebug;
+	}
+
+	public boolean isReleased()
+	{
+		return isReleased;
+	}
+
+	/**
+	 * Answer the number of resources acquired from this arena and not yet released.
+	 */
+	public int size()
+	{
+		return resources.size();
+	}
+
+	void track(AbstractResource resource, ResourcePool<?> pool)
+	{
+		resources.add(resource);
+		pools.add(pool);
+	}
+}
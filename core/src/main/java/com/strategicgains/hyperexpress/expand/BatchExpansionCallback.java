@@ -0,0 +1,48 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.expand;
+
+import java.util.List;
+
+import com.strategicgains.hyperexpress.domain.Resource;
+
+/**
+ * An {@link ExpansionCallback} that expands all the resources of a collection in one
+ * call, so related data can be fetched in bulk (e.g. the authors of all the entries at
+ * once, instead of one call per entry).
+ * <p/>
+ * It's registered like any other callback, with {@code Expander.registerCallback()}.
+ * {@code Expander.expand(Expansion, Class<?>, List<Resource>)} then calls
+ * expand(Expansion, List) once, instead of expand(Expansion, Resource) for each resource.
+ * See {@link KeyedExpansionCallback} for a callback that embeds related resources by key,
+ * fetching each distinct key once.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see ExpansionBatch
+ */
+public interface BatchExpansionCallback
+extends ExpansionCallback
+{
+	/**
+	 * Expand or augment all the resources at once.
+	 * 
+	 * @param expansion the Expansion, containing the requested relationship names.
+	 * @param resources the resources of a collection. Possibly empty.
+	 * @return the resources.
+	 */
+	List<Resource> expand(Expansion expansion, List<Resource> resources);
+}
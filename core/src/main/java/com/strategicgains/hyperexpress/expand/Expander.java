@@ -29,6 +29,10 @@ import com.strategicgains.hyperexpress.exception.ExpansionException;
  * callbacks is accomplished by calling the expand() methods, which can be called
  * after {@code HyperExpress.createResource()} or {@code HyperExpress.createCollectionResource()}
  * methods.
+ * <p/>
+ * When expanding a list of resources (e.g. the components of a collection), a
+ * {@link BatchExpansionCallback} is called once with the whole list, instead of once
+ * per resource.
  * 
  * @author toddf
  * @since Aug 8, 2014
@@ -94,6 +98,12 @@ public class Expander
 
 		if (callback == null) return resources;
 
+		if (callback instanceof BatchExpansionCallback)
+		{
+			((BatchExpansionCallback) callback).expand(expansion, resources);
+			return resources;
+		}
+
 		for (Resource resource : resources)
 		{
 			callback.expand(expansion, resource);
@@ -0,0 +1,125 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.expand;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.strategicgains.hyperexpress.domain.Resource;
+
+/**
+ * Groups resources by the key of their related data (e.g. the 'authorId' of blog entries),
+ * so a BatchExpansionCallback can fetch the data for each distinct key once, then embed it
+ * in every resource with that key.
+ * <p/>
+ * Usage:
+ * <code>
+ * ExpansionBatch<String> batch = new ExpansionBatch<String>();
+ * for (Resource r : resources) batch.add((String) r.getProperty("authorId"), r);
+ * Map<String, Resource> authors = ...bulk fetch of batch.keys()...
+ * batch.embed("author", authors);
+ * </code>
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see BatchExpansionCallback
+ */
+public class ExpansionBatch<K>
+{
+	private Map<K, List<Resource>> resourcesByKey = new LinkedHashMap<K, List<Resource>>();
+
+	/**
+	 * Add a resource for the given key. Resources without a key (null) are ignored.
+	 * 
+	 * @param key the key of the resource's related data. Possibly null.
+	 * @param resource a resource to expand.
+	 * @return this ExpansionBatch to facilitate method chaining.
+	 */
+	public ExpansionBatch<K> add(K key, Resource resource)
+	{
+		if (key == null) return this;
+
+		List<Resource> forKey = resourcesByKey.get(key);
+
+		if (forKey == null)
+		{
+			forKey = new ArrayList<Resource>(1);
+			resourcesByKey.put(key, forKey);
+		}
+
+		forKey.add(resource);
+		return this;
+	}
+
+	/**
+	 * Answer the distinct keys, in the order first added.
+	 * 
+	 * @return an unmodifiable set of keys. Possibly empty. Never null.
+	 */
+	public Set<K> keys()
+	{
+		return Collections.unmodifiableSet(resourcesByKey.keySet());
+	}
+
+	/**
+	 * Answer the resources added for a key.
+	 * 
+	 * @param key a key.
+	 * @return an unmodifiable list of resources. Possibly empty. Never null.
+	 */
+	public List<Resource> getResources(K key)
+	{
+		List<Resource> forKey = resourcesByKey.get(key);
+		return (forKey == null ? Collections.<Resource> emptyList() : Collections.unmodifiableList(forKey));
+	}
+
+	public boolean isEmpty()
+	{
+		return resourcesByKey.isEmpty();
+	}
+
+	/**
+	 * Embed the related resource for each key in every resource added with that key. The
+	 * same related resource instance is embedded in each. Keys with no related resource
+	 * are skipped.
+	 * 
+	 * @param rel the relationship name to embed the related resources with.
+	 * @param related the related resources, by key.
+	 * @return this ExpansionBatch to facilitate method chaining.
+	 */
+	public ExpansionBatch<K> embed(String rel, Map<K, ? extends Resource> related)
+	{
+		if (related == null) return this;
+
+		for (Map.Entry<K, List<Resource>> entry : resourcesByKey.entrySet())
+		{
+			Resource resource = related.get(entry.getKey());
+
+			if (resource == null) continue;
+
+			for (Resource to : entry.getValue())
+			{
+				to.addResource(rel, resource);
+			}
+		}
+
+		return this;
+	}
+}
@@ -32,6 +32,9 @@ import com.strategicgains.hyperexpress.domain.Resource;
  * contains any relation names or not. This provides the opportunity to
  * augment the Resource instance in any way, such as adding/removing properties,
  * looking up other resources in a database and embedding them, etc.
+ * <p/>
+ * To expand the resources of a collection with one call (e.g. to fetch related data
+ * in bulk), implement {@link BatchExpansionCallback} instead.
  * 
  * @author toddf
  * @since Aug 8, 2014
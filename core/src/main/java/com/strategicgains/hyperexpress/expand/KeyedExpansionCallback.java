@@ -0,0 +1,105 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.expand;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.strategicgains.hyperexpress.domain.Resource;
+
+/**
+ * A BatchExpansionCallback that, when its relationship name is requested, embeds a related
+ * resource in each resource by key. The keys of all the resources are de-duplicated and
+ * loaded with one call to load(), then each related resource is embedded in every resource
+ * with its key.
+ * <p/>
+ * For example, to expand the 'author' of blog entries with one bulk fetch:
+ * <code>
+ * Expander.registerCallback(Entry.class, new KeyedExpansionCallback<String>("author")
+ * {
+ *     protected String keyOf(Resource entry) { return (String) entry.getProperty("authorId"); }
+ *     protected Map<String, Resource> load(Set<String> authorIds, Expansion expansion) { ... }
+ * });
+ * </code>
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public abstract class KeyedExpansionCallback<K>
+implements BatchExpansionCallback
+{
+	private String rel;
+
+	/**
+	 * @param rel the relationship name that is expanded, and under which related resources are embedded.
+	 */
+	public KeyedExpansionCallback(String rel)
+	{
+		super();
+		this.rel = rel;
+	}
+
+	public String getRel()
+	{
+		return rel;
+	}
+
+	/**
+	 * Answer the key of the related resource for the given resource.
+	 * 
+	 * @param resource a resource being expanded.
+	 * @return the key of its related resource, or null if it has none.
+	 */
+	protected abstract K keyOf(Resource resource);
+
+	/**
+	 * Load the related resources for all the keys at once.
+	 * 
+	 * @param keys the distinct keys. Never empty.
+	 * @param expansion the Expansion, with the media type for the created resources.
+	 * @return the related resources, by key. Keys without related resources may be omitted.
+	 */
+	protected abstract Map<K, ? extends Resource> load(Set<K> keys, Expansion expansion);
+
+	@Override
+	public Resource expand(Expansion expansion, Resource resource)
+	{
+		expand(expansion, Collections.singletonList(resource));
+		return resource;
+	}
+
+	@Override
+	public List<Resource> expand(Expansion expansion, List<Resource> resources)
+	{
+		if (!expansion.contains(rel)) return resources;
+
+		ExpansionBatch<K> batch = new ExpansionBatch<K>();
+
+		for (Resource resource : resources)
+		{
+			batch.add(keyOf(resource), resource);
+		}
+
+		if (!batch.isEmpty())
+		{
+			batch.embed(rel, load(batch.keys(), expansion));
+		}
+
+		return resources;
+	}
+}
@@ -0,0 +1,202 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A parsed media type or media range (e.g. 'application/hal+json; charset=UTF-8' or
+ * 'application/*;q=0.8'), as found in Content-Type and Accept headers.
+ * <p/>
+ * Only the type, sub-type and quality ('q' parameter) are kept. Other parameters, such as
+ * charset, are ignored when matching.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public final class MediaType
+{
+	private static final String WILDCARD = "*";
+
+	// Most preferred first: by quality, then the more specific range.
+	private static final Comparator<MediaType> PREFERENCE = new Comparator<MediaType>()
+	{
+		@Override
+		public int compare(MediaType a, MediaType b)
+		{
+			int byQuality = Float.compare(b.quality, a.quality);
+			return (byQuality != 0 ? byQuality : b.getSpecificity() - a.getSpecificity());
+		}
+	};
+
+	private final String type;
+	private final String subtype;
+	private final float quality;
+
+	private MediaType(String type, String subtype, float quality)
+	{
+		super();
+		this.type = type;
+		this.subtype = subtype;
+		this.quality = quality;
+	}
+
+	/**
+	 * Parse a single media type or range, such as a Content-Type header value. A lone '*'
+	 * is taken to mean '*' + '/*'.
+	 * 
+	 * @param value a media type string, possibly with parameters.
+	 * @return a MediaType, or null if the value is null or malformed.
+	 */
+	public static MediaType parse(String value)
+	{
+		if (value == null) return null;
+
+		String[] segments = value.split(";");
+		String name = segments[0].trim().toLowerCase(Locale.ENGLISH);
+		String type;
+		String subtype;
+
+		if (WILDCARD.equals(name))
+		{
+			type = WILDCARD;
+			subtype = WILDCARD;
+		}
+		else
+		{
+			int slash = name.indexOf('/');
+
+			if (slash <= 0 || slash == name.length() - 1 || name.indexOf('/', slash + 1) >= 0) return null;
+
+			type = name.substring(0, slash).trim();
+			subtype = name.substring(slash + 1).trim();
+
+			if (WILDCARD.equals(type) && !WILDCARD.equals(subtype)) return null;
+		}
+
+		float quality = 1.0f;
+
+		for (int i = 1; i < segments.length; i++)
+		{
+			String parameter = segments[i].trim();
+
+			if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q') && parameter.charAt(1) == '=')
+			{
+				try
+				{
+					quality = Float.parseFloat(parameter.substring(2).trim());
+				}
+				catch (NumberFormatException e)
+				{
+					return null;
+				}
+
+				if (!(quality >= 0.0f && quality <= 1.0f)) return null;
+			}
+		}
+
+		return new MediaType(type, subtype, quality);
+	}
+
+	/**
+	 * Parse a comma-separated list of media ranges, such as an Accept header value, into
+	 * the order of preference: highest quality first and, for the same quality, the more
+	 * specific range first. Otherwise, the order is kept. Malformed ranges are skipped.
+	 * 
+	 * @param value a list of media ranges.
+	 * @return the media ranges in order of preference. Possibly empty. Never null.
+	 */
+	public static List<MediaType> parseList(String value)
+	{
+		if (value == null) return Collections.emptyList();
+
+		List<MediaType> ranges = new ArrayList<MediaType>(2);
+
+		for (String segment : value.split(","))
+		{
+			MediaType range = parse(segment);
+
+			if (range != null)
+			{
+				ranges.add(range);
+			}
+		}
+
+		// Collections.sort() is stable, keeping the order for equal preference.
+		Collections.sort(ranges, PREFERENCE);
+		return ranges;
+	}
+
+	public String getType()
+	{
+		return type;
+	}
+
+	public String getSubtype()
+	{
+		return subtype;
+	}
+
+	public float getQuality()
+	{
+		return quality;
+	}
+
+	/**
+	 * Answer whether this media range is acceptable, that is, has a quality above zero.
+	 */
+	public boolean isAcceptable()
+	{
+		return (quality > 0.0f);
+	}
+
+	/**
+	 * Answer how specific this media range is: 0 for '*' + '/*', 1 for 'type/*', 2 for 'type/subtype'.
+	 */
+	public int getSpecificity()
+	{
+		if (WILDCARD.equals(type)) return 0;
+		if (WILDCARD.equals(subtype)) return 1;
+
+		return 2;
+	}
+
+	/**
+	 * Answer whether this media range includes the given media type, ignoring
+	 * parameters. For example, 'application/*' includes 'application/hal+json'.
+	 * 
+	 * @param that a media type.
+	 * @return true if that media type is in this range. Otherwise, false.
+	 */
+	public boolean includes(MediaType that)
+	{
+		if (that == null) return false;
+		if (WILDCARD.equals(type)) return true;
+		if (!type.equals(that.type)) return false;
+
+		return (WILDCARD.equals(subtype) || subtype.equals(that.subtype));
+	}
+
+	@Override
+	public String toString()
+	{
+		return type + "/" + subtype + (quality < 1.0f ? ";q=" + quality : "");
+	}
+}
@@ -0,0 +1,157 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.exception.ResourceException;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class DefaultResourceFactoryTest
+{
+	private static final String HAL_JSON = "application/hal+json";
+	private static final String JSON = "application/json";
+	private static final String XML = "application/xml";
+
+	private DefaultResourceFactory factory;
+	private ResourceFactoryStrategy hal = new TypedStrategy();
+	private ResourceFactoryStrategy json = new TypedStrategy();
+	private ResourceFactoryStrategy xml = new TypedStrategy();
+
+	@Before
+	public void setup()
+	{
+		factory = new DefaultResourceFactory(2)
+			.addFactoryStrategy(json, JSON)
+			.addFactoryStrategy(hal, HAL_JSON)
+			.addFactoryStrategy(xml, XML);
+	}
+
+	@Test
+	public void shouldMatchExactContentType()
+	{
+		assertStrategy(hal, HAL_JSON);
+		assertEquals(0, factory.getNegotiatedCount());
+	}
+
+	@Test
+	public void shouldIgnoreParameters()
+	{
+		assertStrategy(hal, "application/hal+json; charset=UTF-8");
+		assertStrategy(xml, "Application/XML;charset=ISO-8859-1");
+	}
+
+	@Test
+	public void shouldNegotiateByQuality()
+	{
+		assertStrategy(hal, "application/json;q=0.5, application/hal+json");
+		assertStrategy(xml, "text/html, application/json;q=0.8, application/xml;q=0.9");
+		assertStrategy(hal, "application/*;q=0.9, application/hal+json");
+	}
+
+	@Test
+	public void shouldMatchWildcardsInRegistrationOrder()
+	{
+		assertStrategy(json, "*/*");
+		assertStrategy(json, "application/*");
+		assertStrategy(hal, "application/*, application/json;q=0");
+	}
+
+	@Test
+	public void shouldFailWhenNoneAcceptable()
+	{
+		try
+		{
+			factory.createResource(null, "text/html, application/json;q=0");
+			fail("Should not create a resource for unacceptable types");
+		}
+		catch (ResourceException e)
+		{
+			// expected
+		}
+	}
+
+	@Test
+	public void shouldBoundNegotiationCache()
+	{
+		for (int i = 0; i < 10; i++)
+		{
+			assertStrategy(json, "application/json; v=" + i);
+		}
+
+		assertEquals(2, factory.getNegotiatedCount());
+
+		factory.addFactoryStrategy(new TypedStrategy(), "text/html");
+		assertEquals(0, factory.getNegotiatedCount());
+	}
+
+	@Test
+	public void shouldRenegotiateAfterAddingStrategy()
+	{
+		try
+		{
+			factory.createResource(null, "text/*");
+			fail("Expected no match for text/*");
+		}
+		catch (ResourceException e)
+		{
+			// expected
+		}
+
+		TypedStrategy html = new TypedStrategy();
+		factory.addFactoryStrategy(html, "text/html");
+		assertStrategy(html, "text/*");
+	}
+
+	private void assertStrategy(ResourceFactoryStrategy expected, String contentType)
+	{
+		Resource r = factory.createResource(null, contentType);
+		assertSame(expected, ((StrategyResource) r).strategy);
+	}
+
+	private static class StrategyResource
+	extends AgnosticResource
+	{
+		private ResourceFactoryStrategy strategy;
+	}
+
+	private static class TypedStrategy
+	implements ResourceFactoryStrategy
+	{
+		@Override
+		public Resource createResource(Object object)
+		{
+			StrategyResource r = new StrategyResource();
+			r.strategy = this;
+			return r;
+		}
+
+		@Override
+		public Class<? extends Resource> getResourceType()
+		{
+			return StrategyResource.class;
+		}
+	}
+}
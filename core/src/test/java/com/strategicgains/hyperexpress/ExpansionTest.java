@@ -2,9 +2,18 @@ package com.strategicgains.hyperexpress;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.junit.Test;
 
+import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.expand.Expander;
 import com.strategicgains.hyperexpress.expand.Expansion;
+import com.strategicgains.hyperexpress.expand.KeyedExpansionCallback;
 
 public class ExpansionTest
 {
@@ -16,4 +25,51 @@ public class ExpansionTest
 		assertFalse(expansion.contains("anything"));
 	}
 
+	@Test
+	public void shouldExpandCollectionInOneBatch()
+	{
+		final List<Set<String>> loads = new ArrayList<Set<String>>();
+		Expander.registerCallback(Authored.class, new KeyedExpansionCallback<String>("author")
+		{
+			@Override
+			protected String keyOf(Resource resource)
+			{
+				return (String) resource.getProperty("authorId");
+			}
+
+			@Override
+			protected Map<String, Resource> load(Set<String> keys, Expansion expansion)
+			{
+				loads.add(keys);
+				Map<String, Resource> authors = new HashMap<String, Resource>();
+
+				for (String key : keys)
+				{
+					authors.put(key, new AgnosticResource().addProperty("id", key));
+				}
+
+				return authors;
+			}
+		});
+
+		List<Resource> resources = new ArrayList<Resource>();
+		resources.add(new AgnosticResource().addProperty("authorId", "a"));
+		resources.add(new AgnosticResource().addProperty("authorId", "b"));
+		resources.add(new AgnosticResource().addProperty("authorId", "a"));
+		resources.add(new AgnosticResource());
+
+		Expander.expand(new Expansion("*").addExpansion("other"), Authored.class, resources);
+		assertTrue(loads.isEmpty());
+
+		Expander.expand(new Expansion("*").addExpansion("author"), Authored.class, resources);
+		assertEquals(1, loads.size());
+		assertEquals(2, loads.get(0).size());
+		assertSame(resources.get(0).getResources("author").get(0), resources.get(2).getResources("author").get(0));
+		assertEquals("b", resources.get(1).getResources("author").get(0).getProperty("id"));
+		assertFalse(resources.get(3).hasResources());
+	}
+
+	private static class Authored
+	{
+	}
 }
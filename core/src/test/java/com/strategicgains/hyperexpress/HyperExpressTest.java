@@ -4,28 +4,38 @@ import static com.strategicgains.hyperexpress.RelTypes.ALTERNATE;
 import static com.strategicgains.hyperexpress.RelTypes.NEXT;
 import static com.strategicgains.hyperexpress.RelTypes.PREV;
 import static com.strategicgains.hyperexpress.RelTypes.SELF;
+import static com.strategicgains.hyperexpress.RelTypes.UP;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.strategicgains.hyperexpress.builder.LinkCache;
+import com.strategicgains.hyperexpress.builder.RelationshipDefinition;
+import com.strategicgains.hyperexpress.builder.TokenBinder;
+import com.strategicgains.hyperexpress.builder.TokenResolver;
 import com.strategicgains.hyperexpress.domain.Blog;
 import com.strategicgains.hyperexpress.domain.Comment;
 import com.strategicgains.hyperexpress.domain.Entry;
 import com.strategicgains.hyperexpress.domain.Link;
 import com.strategicgains.hyperexpress.domain.Namespace;
 import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.exception.ResourceException;
 
 public class HyperExpressTest
 {
@@ -327,6 +337,33 @@ public class HyperExpressTest
 		assertEmptyResource(r.getResources("blogs").get(0));
 	}
 
+	@Test
+	public void shouldCallTokenBinderOncePerObject()
+	{
+		final int[] calls = new int[1];
+		HyperExpress.tokenBinder(new TokenBinder<Entry>()
+		{
+			@Override
+			public void bind(Entry object, TokenResolver resolver)
+			{
+				calls[0]++;
+				resolver.bind("entryId", "42");
+			}
+		});
+		HyperExpress.tokenBinder(new TokenBinder<Blog>()
+		{
+			@Override
+			public void bind(Blog object, TokenResolver resolver)
+			{
+				fail("Blog binder called for an Entry");
+			}
+		});
+
+		Resource r = HyperExpress.createResource(new Entry(), "*");
+		assertEquals(1, calls[0]);
+		assertEquals("/entries/42", r.getLinks().iterator().next().getHref());
+	}
+
 	@Test
 	public void shouldReturnResourceClass()
 	{
@@ -344,6 +381,290 @@ public class HyperExpressTest
 		assertTrue(r.hasLinks());
 		assertEquals(2, r.getLinks().size());
 	}
+
+	@Test
+	public void shouldCreateLazyCollectionChildrenAsIterated()
+	{
+		TokenResolver resolver = new TokenResolver();
+		resolver.bind("entryId", "42");
+		final Iterator<Entry> entries = Arrays.asList(new Entry(), new Entry()).iterator();
+		final int[] consumed = {0};
+		Iterator<Entry> counting = new Iterator<Entry>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return entries.hasNext();
+			}
+
+			@Override
+			public Entry next()
+			{
+				consumed[0]++;
+				return entries.next();
+			}
+
+			@Override
+			public void remove()
+			{
+			}
+		};
+
+		Resource r = HyperExpress.createLazyCollectionResource(counting, Entry.class, "entries", "*", resolver);
+		assertEquals(0, consumed[0]);
+		assertTrue(r.isMultipleResources("entries"));
+		assertTrue(r.hasNamespaces());
+
+		int count = 0;
+
+		for (Resource child : r.getResources("entries"))
+		{
+			assertEquals(++count, consumed[0]);
+			assertEquals("/entries/42", child.getLinks().get(0).getHref());
+		}
+
+		assertEquals(2, count);
+	}
+
+	@Test(expected=ResourceException.class)
+	public void shouldOnlyIterateLazyCollectionOnce()
+	{
+		Resource r = HyperExpress.createLazyCollectionResource(new ArrayList<Entry>().iterator(), Entry.class, "entries", "*", new TokenResolver());
+		r.getResources("entries").iterator();
+		r.getResources("entries").iterator();
+	}
+
+	@Test
+	public void shouldSwapRelationships()
+	{
+		RelationshipDefinition original = HyperExpress.relationships();
+
+		try
+		{
+			HyperExpress.relationships(new RelationshipDefinition()
+				.forClass(Entry.class)
+					.rel(SELF, "/v2/entries/{entryId}"));
+			assertEquals("/v2/entries/{entryId}", HyperExpress.createResource(new Entry(), "*").getLinks().get(0).getHref());
+
+			HyperExpress.relationships().forClass(Entry.class).rel("edit", "/v2/entries/{entryId}/edit");
+			assertEquals(2, HyperExpress.createResource(new Entry(), "*").getLinks().size());
+		}
+		finally
+		{
+			HyperExpress.relationships(original);
+		}
+
+		assertEquals("/entries/{entryId}", HyperExpress.createResource(new Entry(), "*").getLinks().get(0).getHref());
+	}
+
+	@Test
+	public void shouldUseExplicitTokenResolver()
+	{
+		HyperExpress.bind("entryId", "thread");
+		TokenResolver resolver = new TokenResolver().bind("entryId", "explicit");
+
+		Resource r = HyperExpress.createResource(new Entry(), "*", resolver);
+		assertEquals("/entries/explicit", r.getLinks().get(0).getHref());
+
+		r = HyperExpress.createCollectionResource(Arrays.asList(new Entry()), Entry.class, "entries", "*", resolver);
+		assertEquals("/entries/explicit", r.getResources("entries").get(0).getLinks().get(0).getHref());
+
+		r = HyperExpress.createResource(new Entry(), "*");
+		assertEquals("/entries/thread", r.getLinks().get(0).getHref());
+	}
+
+	@Test
+	public void shouldReuseClearedThreadTokenResolver()
+	{
+		TokenResolver resolver = HyperExpress.bind("entryId", "42");
+		HyperExpress.clearTokenBindings();
+		assertEquals("/entries/{entryId}", resolver.resolve("/entries/{entryId}"));
+		assertSame(resolver, HyperExpress.bind("entryId", "13"));
+	}
+
+	@Test
+	public void shouldNotLeakComponentBindingsIntoNextComponent()
+	{
+		Entry bound = new Entry();
+		bound.setTitle("42");
+		HyperExpress.tokenBinder(new TokenBinder<Entry>()
+		{
+			@Override
+			public void bind(Entry object, TokenResolver resolver)
+			{
+				if (object.getTitle() != null)
+				{
+					resolver.bind("entryId", object.getTitle());
+				}
+			}
+		});
+
+		Resource r = HyperExpress.createCollectionResource(Arrays.asList(bound, new Entry()), Entry.class, "entries", "*");
+		assertEquals("/entries/42", r.getResources("entries").get(0).getLinks().get(0).getHref());
+		assertEquals("/entries/{entryId}", r.getResources("entries").get(1).getLinks().get(0).getHref());
+		assertEquals("/entries/{entryId}", HyperExpress.bind("unused", null).resolve("/entries/{entryId}"));
+	}
+
+	@Test
+	public void shouldCreateSameCollectionInParallel()
+	{
+		List<Entry> entries = new ArrayList<Entry>();
+
+		for (int i = 0; i < 200; i++)
+		{
+			Entry entry = new Entry();
+			entry.setTitle(String.valueOf(i));
+			entries.add(entry);
+		}
+
+		HyperExpress.bind("adminRole", "true");
+		HyperExpress.tokenBinder(new TokenBinder<Entry>()
+		{
+			@Override
+			public void bind(Entry object, TokenResolver resolver)
+			{
+				resolver.bind("entryId", object.getTitle());
+			}
+		});
+
+		Resource serial = HyperExpress.createCollectionResource(entries, Entry.class, "entries", "*");
+		ForkJoinPool pool = new ForkJoinPool(4);
+		HyperExpress.enableParallelCollections(pool, 10);
+
+		try
+		{
+			Resource parallel = HyperExpress.createCollectionResource(entries, Entry.class, "entries", "*");
+			List<Resource> expected = serial.getResources("entries");
+			List<Resource> actual = parallel.getResources("entries");
+			assertEquals(200, actual.size());
+
+			for (int i = 0; i < expected.size(); i++)
+			{
+				assertEquals("/entries/" + i, actual.get(i).getLinks().get(0).getHref());
+				assertEquals(expected.get(i).getLinks(), actual.get(i).getLinks());
+			}
+		}
+		finally
+		{
+			HyperExpress.disableParallelCollections();
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldShareCachedLinks()
+	{
+		List<Entry> entries = new ArrayList<Entry>();
+
+		for (String id : new String[] {"1", "2", "1"})
+		{
+			Entry entry = new Entry();
+			entry.setTitle(id);
+			entries.add(entry);
+		}
+
+		HyperExpress.bind("adminRole", "true");
+		HyperExpress.tokenBinder(new TokenBinder<Entry>()
+		{
+			@Override
+			public void bind(Entry object, TokenResolver resolver)
+			{
+				resolver.bind("entryId", object.getTitle());
+			}
+		});
+
+		HyperExpress.enableLinkCache(100);
+
+		try
+		{
+			LinkCache cache = HyperExpress.linkCache();
+			List<Resource> children = HyperExpress.createCollectionResource(entries, Entry.class, "entries", "*").getResources("entries");
+			assertEquals("/entries/1", children.get(0).getLinks().get(0).getHref());
+			assertEquals("/entries/2", children.get(1).getLinks().get(0).getHref());
+			assertEquals("/entries/1/edit", children.get(2).getLinks().get(1).getHref());
+			assertSame(children.get(0).getLinks().get(0), children.get(2).getLinks().get(0));
+			assertSame(children.get(0).getLinks().get(1), children.get(2).getLinks().get(1));
+			assertEquals(4, cache.getMisses());
+			assertEquals(2, cache.getHits());
+			assertEquals(4, cache.size());
+
+			// Conditions are still checked for every object.
+			HyperExpress.bind("adminRole", null);
+			Resource r = HyperExpress.createResource(entries.get(1), "*");
+			assertEquals(1, r.getLinks().size());
+			assertSame(children.get(1).getLinks().get(0), r.getLinks().get(0));
+			assertEquals(3, cache.getHits());
+		}
+		finally
+		{
+			HyperExpress.disableLinkCache();
+		}
+	}
+
+	@Test
+	public void shouldShareRequestScopedLinksWithinCollection()
+	{
+		RelationshipDefinition original = HyperExpress.relationships();
+		List<Entry> entries = new ArrayList<Entry>();
+
+		for (String id : new String[] {"1", "2", "moved"})
+		{
+			Entry entry = new Entry();
+			entry.setTitle(id);
+			entries.add(entry);
+		}
+
+		HyperExpress.bind("blogId", "42");
+		HyperExpress.tokenBinder(new TokenBinder<Entry>()
+		{
+			@Override
+			public void bind(Entry object, TokenResolver resolver)
+			{
+				resolver.bind("entryId", object.getTitle());
+
+				if ("moved".equals(object.getTitle()))
+				{
+					resolver.bind("blogId", "13");
+				}
+			}
+		});
+
+		try
+		{
+			HyperExpress.relationships(new RelationshipDefinition()
+				.forClass(Entry.class)
+					.rel(SELF, "/entries/{entryId}")
+					.rel(UP, "/blogs/{blogId}"));
+
+			List<Resource> children = HyperExpress.createCollectionResource(entries, Entry.class, "entries", "*").getResources("entries");
+			assertEquals("/entries/1", children.get(0).getLinks().get(0).getHref());
+			assertEquals("/entries/2", children.get(1).getLinks().get(0).getHref());
+			assertEquals("/blogs/42", children.get(0).getLinks().get(1).getHref());
+			assertSame(children.get(0).getLinks().get(1), children.get(1).getLinks().get(1));
+			assertEquals("/blogs/13", children.get(2).getLinks().get(1).getHref());
+		}
+		finally
+		{
+			HyperExpress.relationships(original);
+		}
+	}
+
+	@Test
+	public void shouldShareNamespaces()
+	{
+		Resource first = HyperExpress.createResource(new Entry(), "*");
+		Resource second = HyperExpress.createResource(new Comment(), "*");
+		assertSame(first.getNamespaces(), second.getNamespaces());
+		assertEquals(2, first.getNamespaces().size());
+
+		first.addNamespace(new Namespace("ea", "http://namespaces.example.com/{rel}"));
+		assertSame(first.getNamespaces(), second.getNamespaces());
+
+		first.addNamespace(new Namespace("other", "http://namespaces.example.com/other/{rel}"));
+		assertEquals(3, first.getNamespaces().size());
+		assertEquals(2, second.getNamespaces().size());
+	}
+
 	private void assertEmptyResource(Resource r)
 	{
 		assertNotNull(r);
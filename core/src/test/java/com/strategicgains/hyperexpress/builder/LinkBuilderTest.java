@@ -16,6 +16,8 @@
 package com.strategicgains.hyperexpress.builder;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -132,4 +134,87 @@ public class LinkBuilderTest
 	{
 		new LinkBuilder(URL_PATTERN).build(new TokenResolver());
 	}
+
+	@Test
+	public void shouldTestPredicatesBeforeBuildingUrl()
+	{
+		// No URL pattern, so building the URL would throw.
+		ConditionalLinkBuilder builder = new ConditionalLinkBuilder();
+		builder.when(new LinkPredicate<String>()
+		{
+			@Override
+			public boolean test(String object, TokenResolver resolver)
+			{
+				return "admin".equals(object);
+			}
+		});
+
+		assertNull(builder.buildFor("guest", new TokenResolver()));
+
+		builder = new ConditionalLinkBuilder();
+		builder.ifBound("{role}");
+		assertNull(builder.build(new TokenResolver().bind("role", "false")));
+	}
+
+	@Test
+	public void shouldBuildConditionalLinks()
+	{
+		ConditionalLinkBuilder builder = new ConditionalLinkBuilder(URL_PATTERN);
+		builder.ifNotBound("guest");
+		builder.when(new LinkPredicate<String>()
+		{
+			@Override
+			public boolean test(String object, TokenResolver resolver)
+			{
+				return "admin".equals(object);
+			}
+		});
+
+		assertEquals("/42", builder.buildFor("admin", new TokenResolver().bind("id", "42")).getHref());
+		assertNull(builder.buildFor("admin", new TokenResolver().bind("guest", "true")));
+
+		builder = new ConditionalLinkBuilder(URL_PATTERN);
+		builder.withQuery("limit={limit}");
+		builder.optional();
+		assertNull(builder.build(new TokenResolver().bind("limit", "10")));
+		assertEquals("/42", builder.build(new TokenResolver().bind("id", "42")).getHref());
+	}
+
+	@Test
+	public void shouldCheckOptionalHrefAttribute()
+	{
+		ConditionalLinkBuilder builder = new ConditionalLinkBuilder(URL_PATTERN);
+		builder.optional();
+		builder.set("href", "/static/{token}");
+		assertNull(builder.build(new TokenResolver().bind("id", "42")));
+
+		builder.set("href", "/static");
+		assertEquals("/static", builder.build(new TokenResolver()).getHref());
+	}
+
+	@Test
+	public void shouldCacheLinksByTokenValues()
+	{
+		LinkCache cache = new LinkCache(2);
+		LinkBuilder builder = new LinkBuilder(URL_PATTERN).rel("self").withQuery("limit={limit}");
+		Link link = builder.buildFor(null, new TokenResolver().bind("id", "42").bind("unused", "x"), cache);
+		assertEquals("/42", link.getHref());
+		assertSame(link, builder.buildFor(null, new TokenResolver().bind("id", "42"), cache));
+		assertEquals("/42?limit=10", builder.buildFor(null, new TokenResolver().bind("id", "42").bind("limit", "10"), cache).getHref());
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.getMisses());
+
+		// Evicts approximately, but stays bounded.
+		builder.buildFor(null, new TokenResolver().bind("id", "13"), cache);
+		assertEquals(2, cache.size());
+
+		for (int i = 0; i < 100; i++)
+		{
+			builder.buildFor(null, new TokenResolver().bind("id", String.valueOf(i)), cache);
+			assertEquals(2, cache.size());
+		}
+
+		assertEquals(link, builder.buildFor(null, new TokenResolver().bind("id", "42"), cache));
+		assertEquals(105, cache.getHits() + cache.getMisses());
+	}
 }
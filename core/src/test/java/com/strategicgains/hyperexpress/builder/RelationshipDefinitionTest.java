@@ -3,7 +3,11 @@ package com.strategicgains.hyperexpress.builder;
 import static com.strategicgains.hyperexpress.RelTypes.SELF;
 import static com.strategicgains.hyperexpress.RelTypes.UP;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
 
@@ -155,4 +159,140 @@ public class RelationshipDefinitionTest
 		assertNotNull(links);
 		assertEquals(3, links.size());
 	}
+
+	@Test
+	public void shouldCompileImmutableSnapshot()
+	{
+		RelationshipDefinition rdef = new RelationshipDefinition()
+			.addNamespace(new Namespace("ea", "http://namespaces.example.com/{rel}"))
+			.forCollectionOf(Blog.class)
+				.asRel("weblogs")
+				.rels(SELF, "/blogs")
+			.forClass(Blog.class)
+				.rel(SELF, "/blogs/{blogId}")
+				.rels("ea:author", "/users/{userId}").optional();
+
+		CompiledRelationships compiled = rdef.compile();
+		assertTrue(compiled.isCurrent());
+		assertSame(rdef, compiled.getDefinition());
+		assertEquals("weblogs", compiled.getCollectionRelFor(Blog.class));
+		assertEquals("entries", compiled.getCollectionRelFor(Entry.class));
+		assertEquals(1, compiled.getNamespaces().size());
+		assertTrue(compiled.isCollectionArrayRel(Blog.class, SELF));
+		assertFalse(compiled.isArrayRel(Blog.class, SELF));
+
+		CompiledRelationships.LinkPlan plan = compiled.getLinkPlan(Blog.class);
+		assertEquals(2, plan.size());
+		assertFalse(plan.isArrayRel(0));
+		assertTrue(plan.isArrayRel(1));
+		assertEquals("ea:author", plan.getLinkBuilder(1).rel());
+		assertNull("optional link should be copied as optional", plan.getLinkBuilder(1).build(new TokenResolver()));
+		assertTrue(compiled.getLinkPlan(Comment.class).isEmpty());
+
+		rdef.forClass(Blog.class).rel(UP, "/blogs");
+		assertFalse(compiled.isCurrent());
+		assertEquals(2, compiled.getLinkBuilders(Blog.class).size());
+		assertEquals(3, rdef.compile().getLinkBuilders(Blog.class).size());
+	}
+
+	@Test
+	public void shouldResolveRelationshipsThroughHierarchy()
+	{
+		CompiledRelationships compiled = new RelationshipDefinition()
+			.forCollectionOf(Blog.class)
+				.rels(SELF, "/blogs")
+			.forClass(Blog.class)
+				.rel(SELF, "/blogs/{blogId}")
+			.forClass(Auditable.class)
+				.rel("audit", "/audits/{auditId}")
+			.forCollectionOf(Auditable.class)
+				.asRel("audits")
+			.compile();
+
+		assertEquals("/blogs/{blogId}", compiled.getLinkBuilders(BlogProxy.class).get(0).urlPattern());
+		assertTrue(compiled.isCollectionArrayRel(BlogProxy.class, SELF));
+		assertEquals("blogs", compiled.getCollectionRelFor(BlogProxy.class));
+		assertEquals("/blogs", compiled.getLinkBuilders(BlogProxy[].class).get(0).urlPattern());
+
+		assertEquals("/audits/{auditId}", compiled.getLinkBuilders(AuditedComment.class).get(0).urlPattern());
+		assertEquals("audits", compiled.getCollectionRelFor(AuditedComment.class));
+		assertSame(compiled.getLinkPlan(BlogProxy.class), compiled.getLinkPlan(Blog.class));
+	}
+
+	@Test
+	public void shouldInheritCollectionRelationshipsSeparately()
+	{
+		CompiledRelationships compiled = new RelationshipDefinition()
+			.forCollectionOf(Blog.class)
+				.rel(SELF, "/blogs")
+				.asRel("weblogs")
+			.forClass(Blog.class)
+				.rel(SELF, "/blogs/{blogId}")
+			.forClass(BlogProxy.class)
+				.rel(SELF, "/proxies/{blogId}")
+			.forCollectionOf(Entry.class)
+				.rel(SELF, "/entries")
+			.forCollectionOf(EntrySubclass.class)
+				.rel(SELF, "/entry-subclasses")
+			.compile();
+
+		// Own object links, but inherited collection links and rel name.
+		assertEquals("/proxies/{blogId}", compiled.getLinkBuilders(BlogProxy.class).get(0).urlPattern());
+		assertEquals("/blogs", compiled.getCollectionLinkBuilders(BlogProxy.class).get(0).urlPattern());
+		assertEquals("weblogs", compiled.getCollectionRelFor(BlogProxy.class));
+
+		// Own collection links and default rel name.
+		assertEquals("/entry-subclasses", compiled.getCollectionLinkBuilders(EntrySubclass.class).get(0).urlPattern());
+		assertEquals("entrysubclasses", compiled.getCollectionRelFor(EntrySubclass.class));
+		assertEquals("entries", compiled.getCollectionRelFor(Entry.class));
+	}
+
+	@Test
+	public void shouldNotCompileDuringChange()
+	throws Exception
+	{
+		final RelationshipDefinition rdef = new RelationshipDefinition().forClass(Blog.class).rel(SELF, "/blogs/{blogId}");
+		final CompiledRelationships[] compiled = new CompiledRelationships[1];
+		Thread compiler = new Thread()
+		{
+			@Override
+			public void run()
+			{
+				compiled[0] = rdef.compile();
+			}
+		};
+
+		// Mutators hold the definition's lock, so compile() waits for the change to finish.
+		synchronized (rdef)
+		{
+			compiler.start();
+			compiler.join(200);
+			assertTrue(compiler.isAlive());
+			rdef.rel(UP, "/blogs");
+		}
+
+		compiler.join();
+		assertTrue(compiled[0].isCurrent());
+		assertEquals(2, compiled[0].getLinkBuilders(Blog.class).size());
+	}
+
+	private interface Auditable
+	{
+	}
+
+	private static class BlogProxy
+	extends Blog
+	{
+	}
+
+	private static class EntrySubclass
+	extends Entry
+	{
+	}
+
+	private static class AuditedComment
+	extends Comment
+	implements Auditable
+	{
+	}
 }
@@ -62,6 +62,48 @@ public class TokenResolverTest
 		verifyUrls(urls, "/a/a/b/b", "/c/c/d/d/e/13", "{f}");
 	}
 
+	@Test
+	public void shouldOnlyCallBindersForAssignableTypes()
+	{
+		final StringBuilder calls = new StringBuilder();
+		TokenResolver r = new TokenResolver()
+			.binder(new TokenBinder<Number>()
+			{
+				@Override
+				public void bind(Number object, TokenResolver resolver)
+				{
+					calls.append("number,");
+				}
+			})
+			.binder(new TokenBinder<String>()
+			{
+				@Override
+				public void bind(String object, TokenResolver resolver)
+				{
+					calls.append("string,");
+				}
+			})
+			.binder(new TokenBinder<Object>()
+			{
+				@Override
+				public void bind(Object object, TokenResolver resolver)
+				{
+					calls.append("object,");
+				}
+			});
+
+		r.callTokenBinders(Integer.valueOf(1));
+		assertEquals("number,object,", calls.toString());
+
+		calls.setLength(0);
+		r.callTokenBinders("one");
+		assertEquals("string,object,", calls.toString());
+
+		calls.setLength(0);
+		r.callTokenBinders(null);
+		assertEquals("", calls.toString());
+	}
+
 	private void verifyUrls(Collection<String> actual, String... expected)
     {
 		assertEquals(expected.length, actual.size());
@@ -73,6 +115,46 @@ public class TokenResolverTest
 		}
     }
 
+	@Test
+	public void shouldKeepScopeBindingsOutOfParent()
+	{
+		Resolvable r = new Resolvable();
+		r.e = 7;
+		TokenResolver scope = resolver.newScope();
+		Collection<String> urls = scope.bind("f", "eff").resolve(Arrays.asList(URLS), r);
+		verifyUrls(urls, "/a/a/b/b", "/c/c/d/d/e/7", "eff");
+		verifyUrls(resolver.resolve(Arrays.asList(URLS)), "/a/a/b/b", "/c/c/d/d/e/{e}", "{f}");
+	}
+
+	@Test
+	public void shouldMaskParentBindingInScope()
+	{
+		TokenResolver scope = resolver.newScope();
+		scope.bind("a", null);
+		scope.bind("b", "bee");
+		assertEquals("/a/{a}/b/bee", scope.resolve(URLS[0]));
+		assertEquals("/a/a/b/b", resolver.resolve(URLS[0]));
+		assertEquals("{b=bee, c=c, d=d}", sorted(scope.toString()));
+
+		scope.clear();
+		assertEquals("/a/a/b/b", scope.resolve(URLS[0]));
+	}
+
+	private String sorted(String s)
+	{
+		String[] entries = s.substring(1, s.length() - 1).split(", ");
+		Arrays.sort(entries);
+		StringBuilder sb = new StringBuilder("{");
+
+		for (int i = 0; i < entries.length; i++)
+		{
+			if (i > 0) sb.append(", ");
+			sb.append(entries[i]);
+		}
+
+		return sb.append("}").toString();
+	}
+
 	private class Resolvable
 	{
 		public int e;
@@ -0,0 +1,116 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class ArrayMapTest
+{
+	@Test
+	public void shouldBehaveLikeLinkedHashMap()
+	{
+		ArrayMap<Integer> map = new ArrayMap<Integer>();
+		Map<String, Integer> expected = new LinkedHashMap<String, Integer>();
+
+		for (int i = 0; i < 10; i++)
+		{
+			map.put("key" + i, i);
+			expected.put("key" + i, i);
+		}
+
+		assertEquals(Integer.valueOf(3), map.put("key3", 33));
+		expected.put("key3", 33);
+		assertEquals(Integer.valueOf(0), map.remove("key0"));
+		expected.remove("key0");
+		assertNull(map.remove("missing"));
+
+		assertEquals(expected, map);
+		assertEquals(expected.hashCode(), map.hashCode());
+		assertEquals(new ArrayList<String>(expected.keySet()), new ArrayList<String>(map.keySet()));
+		assertEquals(Integer.valueOf(33), map.get("key3"));
+		assertNull(map.get(null));
+	}
+
+	@Test
+	public void shouldHashWideMaps()
+	{
+		ArrayMap<Integer> map = new ArrayMap<Integer>();
+		Map<String, Integer> expected = new LinkedHashMap<String, Integer>();
+		int count = ArrayMap.HASHED_SIZE * 10;
+
+		for (int i = 0; i < count; i++)
+		{
+			map.put("key" + i, i);
+			expected.put("key" + i, i);
+		}
+
+		map.flag("key51");
+
+		for (int i = 0; i < count; i += 2)
+		{
+			assertEquals(Integer.valueOf(i), map.remove("key" + i));
+			expected.remove("key" + i);
+		}
+
+		assertEquals(expected, map);
+		assertEquals(new ArrayList<String>(expected.keySet()), new ArrayList<String>(map.keySet()));
+		assertTrue(map.isFlagged("key51"));
+		assertFalse(map.isFlagged("key53"));
+		assertFalse(map.containsKey("key0"));
+		assertTrue(map.containsKey("key79"));
+		assertNull(map.put("key0", 0));
+		assertEquals(Integer.valueOf(0), map.get("key0"));
+
+		// Shrinks back to a linear search.
+		map.clear();
+		map.put("a", 1);
+		assertEquals(Integer.valueOf(1), map.get("a"));
+		assertFalse(map.containsKey("key79"));
+	}
+
+	@Test
+	public void shouldKeepFlagsWithEntries()
+	{
+		ArrayMap<String> map = new ArrayMap<String>();
+		map.put("a", "1");
+		map.put("b", "2");
+		map.put("c", "3");
+		map.flag("c");
+		map.flag("missing");
+		assertFalse(map.isFlagged("a"));
+		assertTrue(map.isFlagged("c"));
+
+		map.remove("a");
+		assertEquals(Arrays.asList("b", "c"), new ArrayList<String>(map.keySet()));
+		assertFalse(map.isFlagged("b"));
+		assertTrue(map.isFlagged("c"));
+		assertFalse(map.isFlagged("missing"));
+	}
+}
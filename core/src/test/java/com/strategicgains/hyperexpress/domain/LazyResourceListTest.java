@@ -0,0 +1,69 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class LazyResourceListTest
+{
+	@Test
+	public void shouldNotIterateToInspect()
+	{
+		LazyResourceList lazy = new LazyResourceList(Arrays.asList("a", "b").iterator(), new LazyResourceList.Creator()
+		{
+			@Override
+			public Resource create(Object component)
+			{
+				return new TestResource().addProperty("name", component);
+			}
+		});
+
+		Resource r = new TestResource();
+		r.addResources("items", lazy);
+		assertEquals("LazyResourceList{not iterated}", r.getResources("items").toString());
+		assertTrue(r.getResources().toString().contains("items"));
+		assertEquals(System.identityHashCode(lazy), r.getResources("items").hashCode());
+		assertFalse(lazy.equals(new ArrayList<Resource>()));
+		assertFalse(lazy.isIterated());
+
+		List<Object> names = new ArrayList<Object>();
+
+		for (Resource item : lazy)
+		{
+			names.add(item.getProperty("name"));
+		}
+
+		assertEquals(Arrays.<Object> asList("a", "b"), names);
+		assertEquals("LazyResourceList{iterated}", lazy.toString());
+	}
+
+	private static class TestResource
+	extends AbstractResource
+	{
+	}
+}
@@ -2,8 +2,14 @@ package com.strategicgains.hyperexpress.domain;
 
 import static org.junit.Assert.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.Test;
 
+import com.strategicgains.hyperexpress.builder.LinkBuilder;
+import com.strategicgains.hyperexpress.builder.TokenResolver;
+
 public class LinkDefinitionTest
 {
 	@Test
@@ -25,4 +31,74 @@ public class LinkDefinitionTest
 		assertEquals("value", link.get("arbitrary"));
 		assertFalse(link.hasToken());
 	}
+
+	@Test
+	public void shouldNotChangeFrozenLink()
+	{
+		LinkDefinition link = new LinkDefinition("rel", "href").set("title", "a title").freeze();
+		assertTrue(link.isFrozen());
+
+		try
+		{
+			link.setHref("changed");
+			fail("Frozen link should not change");
+		}
+		catch (UnsupportedOperationException e)
+		{
+			// expected
+		}
+
+		LinkDefinition copy = link.clone();
+		assertFalse(copy.isFrozen());
+		assertEquals(link, copy);
+		copy.setHref("changed");
+		assertEquals("href", link.getHref());
+		assertEquals("changed", copy.getHref());
+	}
+
+	@Test
+	public void shouldIgnoreNullAttributeName()
+	{
+		LinkDefinition link = new LinkDefinition("rel", "href").set("title", "a title");
+		assertNull(link.get(null));
+		assertFalse(link.has(null));
+
+		link.set(null, "ignored");
+		assertNull(link.get(null));
+		assertEquals("a title", link.get("title"));
+	}
+
+	@Test
+	public void shouldKeepMapEqualityAndHashCode()
+	{
+		LinkDefinition link = new LinkDefinition("rel", "href").set("title", "a title").set("custom", "value");
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("rel", "rel");
+		map.put("href", "href");
+		map.put("title", "a title");
+		map.put("custom", "value");
+		assertEquals(31 + map.hashCode(), link.hashCode());
+
+		LinkDefinition other = new LinkDefinition("rel", "href").set("custom", "value").set("title", "a title");
+		assertEquals(link, other);
+		assertEquals(link.hashCode(), other.hashCode());
+		other.set("custom", null);
+		assertFalse(link.equals(other));
+		assertNull(other.get("custom"));
+	}
+
+	@Test
+	public void shouldShareBuilderAttributes()
+	{
+		LinkBuilder builder = new LinkBuilder("/things/{id}").rel("self").title("a thing").set("custom", "value");
+		LinkDefinition one = (LinkDefinition) builder.build(new TokenResolver().bind("id", "1"));
+		LinkDefinition two = (LinkDefinition) builder.build(new TokenResolver().bind("id", "2"));
+		assertSame(one.getAttributes(), two.getAttributes());
+		assertEquals("/things/2", two.getHref());
+		assertEquals("a thing", two.get("title"));
+		assertEquals("value", two.get("custom"));
+
+		two.set("title", "changed");
+		assertEquals("a thing", one.get("title"));
+	}
 }
@@ -0,0 +1,179 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class ResourceArenaTest
+{
+	private static final ResourcePool<TestResource> POOL = new ResourcePool<TestResource>(2)
+	{
+		@Override
+		protected TestResource create()
+		{
+			return new TestResource();
+		}
+	};
+
+	@Test
+	public void shouldNotPoolOutsideArena()
+	{
+		assertNull(ResourceArena.current());
+		assertNotSame(POOL.acquire(), POOL.acquire());
+	}
+
+	@Test
+	public void shouldRecycleReleasedResources()
+	{
+		ResourceArena arena = new ResourceArena().enter();
+		TestResource r;
+
+		try
+		{
+			assertSame(arena, ResourceArena.current());
+			r = POOL.acquire();
+			r.addProperty("id", "1");
+			r.addLink("self", "/things/1");
+			r.addResource("child", new TestResource());
+			assertEquals(1, arena.size());
+		}
+		finally
+		{
+			arena.exit();
+		}
+
+		assertNull(ResourceArena.current());
+		assertEquals("1", r.getProperty("id"));
+		int available = POOL.available();
+		arena.release();
+		assertEquals(available + 1, POOL.available());
+		assertTrue(r.isReleased());
+
+		assertReleased(r);
+
+		ResourceArena next = new ResourceArena().enter();
+
+		try
+		{
+			TestResource reused = POOL.acquire();
+			assertSame(r, reused);
+			assertFalse(reused.hasProperties());
+			assertFalse(reused.hasLinks());
+			assertFalse(reused.hasResources());
+		}
+		finally
+		{
+			next.release();
+		}
+	}
+
+	@Test
+	public void shouldNotReuseInDebugMode()
+	{
+		ResourceArena arena = new ResourceArena(true).enter();
+		TestResource r = POOL.acquire();
+		int available = POOL.available();
+		arena.release();
+		assertEquals(available, POOL.available());
+		assertTrue(r.isReleased());
+
+		try
+		{
+			r.addProperty("id", "1");
+			fail("Released resource should not be usable");
+		}
+		catch (IllegalStateException e)
+		{
+			// expected
+		}
+
+		try
+		{
+			arena.release();
+			fail("Arena should not be released twice in debug mode");
+		}
+		catch (IllegalStateException e)
+		{
+			// expected
+		}
+	}
+
+	@Test
+	public void shouldGuardEveryAccessorOfReleasedResource()
+	{
+		ResourceArena arena = new ResourceArena(true).enter();
+		TestResource r = POOL.acquire();
+		r.addLink("self", "/things/1", true);
+		arena.release();
+		assertReleased(r);
+	}
+
+	private static void assertReleased(final TestResource r)
+	{
+		Runnable[] accessors =
+		{
+			new Runnable() { @Override public void run() { r.hasNamespaces(); } },
+			new Runnable() { @Override public void run() { r.getNamespaces(); } },
+			new Runnable() { @Override public void run() { r.hasProperties(); } },
+			new Runnable() { @Override public void run() { r.hasProperty("id"); } },
+			new Runnable() { @Override public void run() { r.getProperties(); } },
+			new Runnable() { @Override public void run() { r.getProperty("id"); } },
+			new Runnable() { @Override public void run() { r.hasLinks(); } },
+			new Runnable() { @Override public void run() { r.getLinks(); } },
+			new Runnable() { @Override public void run() { r.getLinksByRel(); } },
+			new Runnable() { @Override public void run() { r.isMultipleLinks("self"); } },
+			new Runnable() { @Override public void run() { r.firstLinkIndex("self"); } },
+			new Runnable() { @Override public void run() { r.hasResources(); } },
+			new Runnable() { @Override public void run() { r.hasResources("child"); } },
+			new Runnable() { @Override public void run() { r.getResources(); } },
+			new Runnable() { @Override public void run() { r.getResources("child"); } },
+			new Runnable() { @Override public void run() { r.isMultipleResources("child"); } },
+			new Runnable() { @Override public void run() { r.addLinks(Collections.<Link> emptyList()); } }
+		};
+
+		for (int i = 0; i < accessors.length; i++)
+		{
+			try
+			{
+				accessors[i].run();
+				fail("Released resource should not be usable, accessor " + i);
+			}
+			catch (IllegalStateException e)
+			{
+				// expected
+			}
+		}
+	}
+
+	private static class TestResource
+	extends AbstractResource
+	{
+	}
+}
@@ -0,0 +1,72 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class MediaTypeTest
+{
+	@Test
+	public void shouldParseMediaType()
+	{
+		MediaType t = MediaType.parse(" Application/HAL+JSON ; charset=UTF-8");
+		assertEquals("application", t.getType());
+		assertEquals("hal+json", t.getSubtype());
+		assertEquals(1.0f, t.getQuality(), 0.0f);
+		assertEquals(2, t.getSpecificity());
+	}
+
+	@Test
+	public void shouldNotParseMalformed()
+	{
+		assertNull(MediaType.parse("application"));
+		assertNull(MediaType.parse("application/"));
+		assertNull(MediaType.parse("*/json"));
+		assertNull(MediaType.parse("a/b/c"));
+		assertNull(MediaType.parse("application/json;q=x"));
+		assertNull(MediaType.parse("application/json;q=2"));
+	}
+
+	@Test
+	public void shouldOrderByPreference()
+	{
+		List<MediaType> ranges = MediaType.parseList("*/*;q=0.1, text/*, application/json;q=0.5, text/html, bad");
+		assertEquals("[text/html, text/*, application/json;q=0.5, */*;q=0.1]", ranges.toString());
+	}
+
+	@Test
+	public void shouldIncludeMatchingTypes()
+	{
+		MediaType json = MediaType.parse("application/json");
+		assertTrue(MediaType.parse("*").includes(json));
+		assertTrue(MediaType.parse("application/*").includes(json));
+		assertTrue(MediaType.parse("application/json;q=0.2").includes(json));
+		assertFalse(MediaType.parse("text/*").includes(json));
+		assertFalse(MediaType.parse("application/xml").includes(json));
+		assertFalse(MediaType.parse("application/json;q=0").isAcceptable());
+	}
+}
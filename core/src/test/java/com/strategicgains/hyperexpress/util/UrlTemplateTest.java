@@ -0,0 +1,87 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class UrlTemplateTest
+{
+	@Test
+	public void shouldResolveTokens()
+	{
+		UrlTemplate t = UrlTemplate.compile("/blogs/{blogId}/entries/{entryId}");
+		Map<String, String> values = MapStringFormat.toMap("blogId", "42", "entryId", "13", "unused", "x");
+		assertEquals("/blogs/42/entries/13", t.resolve(values));
+		assertEquals(Arrays.asList("blogId", "entryId"), t.getTokens());
+		assertTrue(t.isFullyBound(values));
+	}
+
+	@Test
+	public void shouldLeaveUnboundTokens()
+	{
+		UrlTemplate t = UrlTemplate.compile("{a}/{b}?c={c}");
+		Map<String, String> values = MapStringFormat.toMap("b", "bee");
+		assertEquals("{a}/bee?c={c}", t.resolve(values));
+		assertFalse(t.isFullyBound(values));
+
+		StringBuilder sb = new StringBuilder("prefix:");
+		assertFalse(t.appendTo(sb, values));
+		assertEquals("prefix:{a}/bee?c={c}", sb.toString());
+	}
+
+	@Test
+	public void shouldReturnPatternWithoutTokens()
+	{
+		String pattern = "/blogs";
+		UrlTemplate t = UrlTemplate.compile(pattern);
+		assertFalse(t.hasTokens());
+		assertSame(pattern, t.resolve(MapStringFormat.toMap("blogs", "nope")));
+	}
+
+	@Test
+	public void shouldHandleUnbalancedDelimiters()
+	{
+		Map<String, String> values = MapStringFormat.toMap("id", "1");
+		assertEquals("/a/{id", UrlTemplate.compile("/a/{id").resolve(values));
+		assertEquals("/a/id}/1", UrlTemplate.compile("/a/id}/{id}").resolve(values));
+		assertEquals("/a/{1}", UrlTemplate.compile("/a/{{id}}").resolve(values));
+	}
+
+	@Test
+	public void shouldInsertValuesVerbatim()
+	{
+		UrlTemplate t = UrlTemplate.compile("/{a}/{b}");
+		assertEquals("/$1\\/{a}", t.resolve(MapStringFormat.toMap("a", "$1\\", "b", "{a}")));
+	}
+
+	@Test
+	public void shouldCacheCompiledTemplates()
+	{
+		assertSame(UrlTemplate.compile("/cached/{id}"), UrlTemplate.compile("/cached/{id}"));
+	}
+}
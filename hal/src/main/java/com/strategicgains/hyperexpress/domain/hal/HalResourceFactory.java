@@ -17,6 +17,7 @@ package com.strategicgains.hyperexpress.domain.hal;
 
 import com.strategicgains.hyperexpress.AbstractResourceFactoryStrategy;
 import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.ResourcePool;
 
 /**
  * HalResourceFactory is a ResourceFactoryStrategy implementation that creates
@@ -24,6 +25,8 @@ import com.strategicgains.hyperexpress.domain.Resource;
  * <p/>
  * It can be used by itself or added to a ResourceFactory impelemenation, such as
  * DefaultResourceFactory, with a given content type.
+ * <p/>
+ * Resources are acquired from a ResourcePool, so are recycled while a ResourceArena is in use.
  * 
  * @author toddf
  * @since Apr 11, 2014
@@ -31,10 +34,19 @@ import com.strategicgains.hyperexpress.domain.Resource;
 public class HalResourceFactory
 extends AbstractResourceFactoryStrategy
 {
+	private static final ResourcePool<HalResource> POOL = new ResourcePool<HalResource>()
+	{
+		@Override
+		protected HalResource create()
+		{
+			return new HalResource();
+		}
+	};
+
 	@Override
 	public Resource createResource(Object object)
 	{
-		Resource r = new HalResource();
+		Resource r = POOL.acquire();
 
 		if (object != null)
 		{
@@ -0,0 +1,102 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.domain.hal;
+
+import java.util.Collection;
+
+import com.strategicgains.hyperexpress.builder.TokenResolver;
+
+/**
+ * A domain object (or collection of them) to be rendered as HAL directly by the
+ * StreamingHalResourceSerializer, instead of first being converted into a HalResource.
+ * Links are created from the current HyperExpress relationship definitions during
+ * serialization, using the captured TokenResolver.
+ * <p/>
+ * The output is the same as serializing the HalResource that HyperExpress.createResource()
+ * or HyperExpress.createCollectionResource() would create. Expansion callbacks are not
+ * supported, as there is no Resource for them to modify.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see com.strategicgains.hyperexpress.serialization.jackson.StreamingHalResourceSerializer
+ */
+public final class StreamingHalResource
+{
+	private final Object body;
+	private final Class<?> componentType;
+	private final String componentRel;
+	private final TokenResolver tokenResolver;
+
+	private StreamingHalResource(Object body, Class<?> componentType, String componentRel, TokenResolver tokenResolver)
+	{
+		super();
+		this.body = body;
+		this.componentType = componentType;
+		this.componentRel = componentRel;
+		this.tokenResolver = (tokenResolver == null ? new TokenResolver() : tokenResolver);
+	}
+
+	/**
+	 * Stream a single domain object.
+	 * 
+	 * @param object a domain object. May be null.
+	 * @param tokenResolver the TokenResolver to use when creating links (e.g. from HyperExpress.detachTokenResolver()).
+	 * @return a new StreamingHalResource.
+	 */
+	public static StreamingHalResource of(Object object, TokenResolver tokenResolver)
+	{
+		return new StreamingHalResource(object, null, null, tokenResolver);
+	}
+
+	/**
+	 * Stream a collection of domain objects, embedded in the given rel.
+	 * 
+	 * @param components the domain objects. May be null or empty.
+	 * @param componentType the type of the components, which determines the collection links.
+	 * @param componentRel the 'rel' name under which to embed the components.
+	 * @param tokenResolver the TokenResolver to use when creating links (e.g. from HyperExpress.detachTokenResolver()).
+	 * @return a new StreamingHalResource.
+	 */
+	public static StreamingHalResource ofCollection(Collection<?> components, Class<?> componentType, String componentRel, TokenResolver tokenResolver)
+	{
+		return new StreamingHalResource(components, componentType, componentRel, tokenResolver);
+	}
+
+	public boolean isCollection()
+	{
+		return (componentType != null);
+	}
+
+	public Object getBody()
+	{
+		return body;
+	}
+
+	public Class<?> getComponentType()
+	{
+		return componentType;
+	}
+
+	public String getComponentRel()
+	{
+		return componentRel;
+	}
+
+	public TokenResolver getTokenResolver()
+	{
+		return tokenResolver;
+	}
+}
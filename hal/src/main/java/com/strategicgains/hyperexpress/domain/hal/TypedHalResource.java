@@ -0,0 +1,40 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.domain.hal;
+
+/**
+ * A HAL resource whose properties have been bound into an instance of a domain
+ * class (the content), rather than held in the resource's property map.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see com.strategicgains.hyperexpress.serialization.jackson.HalReader
+ */
+public class TypedHalResource<T>
+extends HalResource
+{
+	private T content;
+
+	public T getContent()
+	{
+		return content;
+	}
+
+	public void setContent(T content)
+	{
+		this.content = content;
+	}
+}
@@ -0,0 +1,143 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.strategicgains.hyperexpress.domain.LinkDefinition;
+import com.strategicgains.hyperexpress.domain.Namespace;
+import com.strategicgains.hyperexpress.domain.Resource;
+
+/**
+ * Reads the HAL _links object (links and CURIEs) from the parser's tokens into
+ * a Resource. Shared by the HAL deserializer and HalReader.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+class HalLinkReader
+{
+	static final String HREF = "href";
+
+	private HalLinkReader()
+	{
+		// prevents instantiation.
+	}
+
+	/**
+	 * Read the _links object at the parser's current token into the resource, leaving
+	 * the parser on its END_OBJECT token. Link relations rendered as arrays are added
+	 * as 'multiple' relations.
+	 */
+	static void readLinks(JsonParser jp, Resource resource)
+	throws IOException
+	{
+		if (jp.getCurrentToken() != JsonToken.START_OBJECT)
+		{
+			jp.skipChildren();
+			return;
+		}
+
+		while (jp.nextToken() == JsonToken.FIELD_NAME)
+		{
+			String rel = jp.getCurrentName();
+			JsonToken t = jp.nextToken();
+
+			if (HalLinkWriter.CURIES.equals(rel))
+			{
+				readCuries(jp, resource);
+			}
+			else if (t == JsonToken.START_ARRAY)
+			{
+				while (jp.nextToken() != JsonToken.END_ARRAY)
+				{
+					if (jp.getCurrentToken() == JsonToken.START_OBJECT)
+					{
+						resource.addLink(readLink(jp, rel), true);
+					}
+					else
+					{
+						jp.skipChildren();
+					}
+				}
+			}
+			else if (t == JsonToken.START_OBJECT)
+			{
+				resource.addLink(readLink(jp, rel));
+			}
+		}
+	}
+
+	private static void readCuries(JsonParser jp, Resource resource)
+	throws IOException
+	{
+		if (jp.getCurrentToken() == JsonToken.START_ARRAY)
+		{
+			while (jp.nextToken() != JsonToken.END_ARRAY)
+			{
+				resource.addNamespace(jp.readValueAs(Namespace.class));
+			}
+		}
+		else if (jp.getCurrentToken() == JsonToken.START_OBJECT)
+		{
+			resource.addNamespace(jp.readValueAs(Namespace.class));
+		}
+	}
+
+	private static LinkDefinition readLink(JsonParser jp, String rel)
+	throws IOException
+	{
+		LinkDefinition link = new LinkDefinition(rel, null);
+
+		while (jp.nextToken() == JsonToken.FIELD_NAME)
+		{
+			String name = jp.getCurrentName();
+			jp.nextToken();
+			String value = readText(jp);
+
+			if (HREF.equals(name))
+			{
+				link.setHref(value);
+			}
+			else
+			{
+				link.set(name, value);
+			}
+		}
+
+		return link;
+	}
+
+	/**
+	 * Answer the current value as text. Nested objects and arrays are skipped
+	 * and read as an empty string.
+	 */
+	static String readText(JsonParser jp)
+	throws IOException
+	{
+		JsonToken t = jp.getCurrentToken();
+
+		if (t == JsonToken.START_OBJECT || t == JsonToken.START_ARRAY)
+		{
+			jp.skipChildren();
+			return "";
+		}
+
+		return jp.getText();
+	}
+}
@@ -0,0 +1,432 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.jackson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.strategicgains.hyperexpress.domain.LazyResourceList;
+import com.strategicgains.hyperexpress.domain.Link;
+import com.strategicgains.hyperexpress.domain.Namespace;
+import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.hal.HalLink;
+import com.strategicgains.hyperexpress.domain.hal.HalResource;
+
+/**
+ * Writes the HAL '_links' object (including CURIEs). Shared by the HAL serializers so
+ * that they render links identically.
+ * <p/>
+ * Links are written field-by-field, straight from the Link instances, using pre-encoded
+ * field names. There are no intermediate HalLink instances and no per-link allocation.
+ * Null attributes are omitted. Rels are written in the order they were first added, grouped
+ * in one pass over a LinkIndex that chains the links of each rel.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+final class HalLinkWriter
+{
+	static final String CURIES = "curies";
+	static final String EMBEDDED = "_embedded";
+	static final String LINKS = "_links";
+
+	private static final SerializableString CURIES_NAME = new SerializedString(CURIES);
+	private static final SerializableString LINKS_NAME = new SerializedString(LINKS);
+	private static final SerializableString HREF_NAME = new SerializedString(HalLink.HREF);
+	private static final SerializableString NAME_NAME = new SerializedString(HalLink.NAME);
+	private static final SerializableString HREFLANG_NAME = new SerializedString(HalLink.HREFLANG);
+	private static final SerializableString TITLE_NAME = new SerializedString(HalLink.TITLE);
+	private static final SerializableString TEMPLATED_NAME = new SerializedString(HalLink.TEMPLATED);
+	private static final SerializableString TYPE_NAME = new SerializedString(HalLink.TYPE);
+	private static final SerializableString DEPRECATION_NAME = new SerializedString(HalLink.DEPRECATION);
+	private static final SerializableString PROFILE_NAME = new SerializedString(HalLink.PROFILE);
+
+	// Link lists up to this size are grouped by scanning, without building an index.
+	static final int SCANNED_SIZE = 8;
+
+	/**
+	 * Answers whether a rel is always rendered as an array, even with a single link.
+	 */
+	interface ArrayRels
+	{
+		boolean isArrayRel(String rel);
+	}
+
+	/**
+	 * Chains the links of each rel, by their index in the list of links.
+	 */
+	interface LinkIndex
+	extends ArrayRels
+	{
+		/**
+		 * Answers whether the link at index is the first with its rel.
+		 */
+		boolean isFirst(int index);
+
+		/**
+		 * Answers the index of the next link with the same rel as the one at index, or -1.
+		 */
+		int next(int index);
+	}
+
+	private HalLinkWriter()
+	{
+		// prevents instantiation.
+	}
+
+	/**
+	 * Write the '_links' field from a list of links that has no index of its own, if there are
+	 * any links or CURIEs. Small lists are grouped by scanning them; larger ones are indexed first.
+	 * 
+	 * @param links the links to write.
+	 * @param namespaces the CURIEs to write. Empty for embedded resources.
+	 * @param arrayRels determines which rels are rendered as arrays.
+	 * @param jgen the JsonGenerator.
+	 */
+	static void writeLinks(List<Link> links, Collection<Namespace> namespaces, ArrayRels arrayRels, JsonGenerator jgen)
+	throws IOException
+	{
+		LinkIndex index = (links.size() <= SCANNED_SIZE ? new ScannedLinks(links, arrayRels) : new IndexedLinks(links, arrayRels));
+		writeLinks(links, namespaces, index, jgen);
+	}
+
+	/**
+	 * Write the '_links' field, if there are any links or CURIEs. Links are grouped by rel, in
+	 * the order each rel first appears, following the index.
+	 * 
+	 * @param links the links to write.
+	 * @param namespaces the CURIEs to write. Empty for embedded resources.
+	 * @param index chains the links of each rel and determines which rels are rendered as arrays.
+	 * @param jgen the JsonGenerator.
+	 */
+	static void writeLinks(List<Link> links, Collection<Namespace> namespaces, LinkIndex index, JsonGenerator jgen)
+	throws IOException
+	{
+		if (links.isEmpty() && namespaces.isEmpty()) return;
+
+		jgen.writeFieldName(LINKS_NAME);
+		jgen.writeStartObject();
+		writeCuries(namespaces, jgen);
+		int size = links.size();
+
+		for (int i = 0; i < size; i++)
+		{
+			if (!index.isFirst(i)) continue; // already written
+
+			String rel = links.get(i).getRel();
+
+			if (index.next(i) < 0 && !index.isArrayRel(rel)) // Write single link
+			{
+				jgen.writeFieldName(rel);
+				writeLink(links.get(i), jgen);
+			}
+			else // Write link array
+			{
+				jgen.writeArrayFieldStart(rel);
+
+				for (int j = i; j >= 0; j = index.next(j))
+				{
+					writeLink(links.get(j), jgen);
+				}
+
+				jgen.writeEndArray();
+			}
+		}
+
+		jgen.writeEndObject();
+	}
+
+	/**
+	 * Answer the namespaces that are used as a CURIE prefix (e.g. 'blog' in 'blog:author') by a
+	 * link or embedded resource rel of the resource or, recursively, its embedded resources.
+	 * Lazily-embedded resources can only be iterated once, so if there are any, all of the
+	 * namespaces are answered.
+	 * 
+	 * @param namespaces the candidate namespaces.
+	 * @param resource the resource to be written.
+	 * @return the used namespaces, in their original order.
+	 */
+	static Collection<Namespace> usedNamespaces(Collection<Namespace> namespaces, HalResource resource)
+	{
+		if (namespaces.isEmpty()) return namespaces;
+
+		Namespace[] candidates = namespaces.toArray(new Namespace[namespaces.size()]);
+		boolean[] isUsed = new boolean[candidates.length];
+		int unused = markUsed(resource, candidates, isUsed, candidates.length);
+
+		if (unused <= 0) return namespaces;
+
+		List<Namespace> used = new ArrayList<Namespace>(candidates.length - unused);
+
+		for (int i = 0; i < candidates.length; i++)
+		{
+			if (isUsed[i]) used.add(candidates[i]);
+		}
+
+		return used;
+	}
+
+	/**
+	 * Marks the namespaces used by the resource's rels, answering how many remain unused. Answers
+	 * -1 if there are lazily-embedded resources.
+	 */
+	private static int markUsed(HalResource resource, Namespace[] candidates, boolean[] isUsed, int unused)
+	{
+		for (Link link : resource.getLinks())
+		{
+			unused = markUsed(link.getRel(), candidates, isUsed, unused);
+
+			if (unused == 0) return 0;
+		}
+
+		for (Entry<String, List<Resource>> entry : resource.getResources().entrySet())
+		{
+			if (entry.getValue() instanceof LazyResourceList) return -1;
+
+			unused = markUsed(entry.getKey(), candidates, isUsed, unused);
+
+			for (Resource embedded : entry.getValue())
+			{
+				if (unused <= 0) return unused;
+
+				unused = markUsed((HalResource) embedded, candidates, isUsed, unused);
+			}
+
+			if (unused <= 0) return unused;
+		}
+
+		return unused;
+	}
+
+	private static int markUsed(String rel, Namespace[] candidates, boolean[] isUsed, int unused)
+	{
+		for (int i = 0; i < candidates.length; i++)
+		{
+			if (!isUsed[i] && isCuriePrefix(candidates[i].name(), rel))
+			{
+				isUsed[i] = true;
+				unused--;
+			}
+		}
+
+		return unused;
+	}
+
+	private static boolean isCuriePrefix(String name, String rel)
+	{
+		int length = name.length();
+		return (rel.length() > length && rel.charAt(length) == ':' && rel.startsWith(name));
+	}
+
+	private static int indexOfRel(List<Link> links, String rel, int from, int to)
+	{
+		for (int i = from; i < to; i++)
+		{
+			if (rel.equals(links.get(i).getRel())) return i;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Groups a small list of links by scanning it, without allocating.
+	 */
+	private static final class ScannedLinks
+	implements LinkIndex
+	{
+		private final List<Link> links;
+		private final ArrayRels arrayRels;
+
+		ScannedLinks(List<Link> links, ArrayRels arrayRels)
+		{
+			super();
+			this.links = links;
+			this.arrayRels = arrayRels;
+		}
+
+		@Override
+		public boolean isFirst(int index)
+		{
+			return (indexOfRel(links, links.get(index).getRel(), 0, index) < 0);
+		}
+
+		@Override
+		public int next(int index)
+		{
+			return indexOfRel(links, links.get(index).getRel(), index + 1, links.size());
+		}
+
+		@Override
+		public boolean isArrayRel(String rel)
+		{
+			return arrayRels.isArrayRel(rel);
+		}
+	}
+
+	/**
+	 * Chains the links of each rel in one pass over a list of links.
+	 */
+	private static final class IndexedLinks
+	implements LinkIndex
+	{
+		private final int[] next;
+		private final boolean[] isFollower;
+		private final ArrayRels arrayRels;
+
+		IndexedLinks(List<Link> links, ArrayRels arrayRels)
+		{
+			super();
+			this.arrayRels = arrayRels;
+			int size = links.size();
+			next = new int[size];
+			isFollower = new boolean[size];
+			Map<String, Integer> lastByRel = new HashMap<String, Integer>();
+
+			for (int i = 0; i < size; i++)
+			{
+				next[i] = -1;
+				Integer last = lastByRel.put(links.get(i).getRel(), i);
+
+				if (last != null)
+				{
+					next[last] = i;
+					isFollower[i] = true;
+				}
+			}
+		}
+
+		@Override
+		public boolean isFirst(int index)
+		{
+			return !isFollower[index];
+		}
+
+		@Override
+		public int next(int index)
+		{
+			return next[index];
+		}
+
+		@Override
+		public boolean isArrayRel(String rel)
+		{
+			return arrayRels.isArrayRel(rel);
+		}
+	}
+
+	/**
+	 * Writes a single HAL link object, with its attributes in the same order as HalLink.
+	 */
+	private static void writeLink(Link link, JsonGenerator jgen)
+	throws IOException
+	{
+		String href = link.getHref();
+		String templated = link.get(HalLink.TEMPLATED);
+		jgen.writeStartObject();
+		writeField(HREF_NAME, href, jgen);
+		writeField(NAME_NAME, link.get(HalLink.NAME), jgen);
+		writeField(HREFLANG_NAME, link.get(HalLink.HREFLANG), jgen);
+		writeField(TITLE_NAME, link.get(HalLink.TITLE), jgen);
+
+		if (templated != null)
+		{
+			jgen.writeFieldName(TEMPLATED_NAME);
+			jgen.writeBoolean(Boolean.parseBoolean(templated));
+		}
+		else if (isTemplated(href))
+		{
+			jgen.writeFieldName(TEMPLATED_NAME);
+			jgen.writeBoolean(true);
+		}
+
+		writeField(TYPE_NAME, link.get(HalLink.TYPE), jgen);
+		writeField(DEPRECATION_NAME, link.get(HalLink.DEPRECATION), jgen);
+		writeField(PROFILE_NAME, link.get(HalLink.PROFILE), jgen);
+		jgen.writeEndObject();
+	}
+
+	private static void writeField(SerializableString name, String value, JsonGenerator jgen)
+	throws IOException
+	{
+		if (value == null) return;
+
+		jgen.writeFieldName(name);
+		jgen.writeString(value);
+	}
+
+	/**
+	 * Answers whether the href contains a URI template token (e.g. '{id}'): an opening
+	 * brace, zero or more word characters, then a closing brace. Equivalent to
+	 * HalLink.hasTemplate(), without the regular expression.
+	 */
+	static boolean isTemplated(String href)
+	{
+		if (href == null) return false;
+
+		int length = href.length();
+
+		for (int i = href.indexOf('{'); i >= 0; i = href.indexOf('{', i + 1))
+		{
+			int j = i + 1;
+
+			while (j < length && isWordChar(href.charAt(j)))
+			{
+				j++;
+			}
+
+			if (j < length && href.charAt(j) == '}') return true;
+		}
+
+		return false;
+	}
+
+	private static boolean isWordChar(char c)
+	{
+		return ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_');
+	}
+
+	private static void writeCuries(Collection<Namespace> namespaces, JsonGenerator jgen)
+	throws IOException
+	{
+		if (namespaces.isEmpty()) return;
+
+		jgen.writeFieldName(CURIES_NAME);
+
+		if (namespaces.size() == 1) // Write single namespace
+		{
+			jgen.writeObject(namespaces.iterator().next());
+		}
+		else // Write namespace array
+		{
+			jgen.writeStartArray();
+
+			for (Namespace ns : namespaces)
+			{
+				jgen.writeObject(ns);
+			}
+
+			jgen.writeEndArray();
+		}
+	}
+}
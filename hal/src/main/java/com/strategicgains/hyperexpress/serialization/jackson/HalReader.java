@@ -0,0 +1,245 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.strategicgains.hyperexpress.domain.hal.HalResource;
+import com.strategicgains.hyperexpress.domain.hal.TypedHalResource;
+
+/**
+ * Reads HAL documents in a single forward pass over the parser's tokens. The
+ * properties of a resource are bound directly into a domain class by the codec
+ * (e.g. an ObjectMapper), keeping their JSON types, while its links, CURIEs and
+ * embedded resources are read into the returned TypedHalResource.
+ * <p/>
+ * Embedded resources are bound into the type registered for their rel with
+ * embedded(). Those without a registered type are read as a plain HalResource,
+ * with their properties as text.
+ * <p/>
+ * Usage:
+ * <pre>
+ * HalReader reader = new HalReader(objectMapper).embedded("comments", Comment.class);
+ * TypedHalResource&lt;Blog&gt; blog = reader.read(inputStream, Blog.class);
+ * </pre>
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class HalReader
+{
+	private static final String LINKS = HalLinkWriter.LINKS;
+	private static final String EMBEDDED = HalLinkWriter.EMBEDDED;
+
+	private ObjectCodec codec;
+	private JsonFactory factory;
+	private Map<String, Class<?>> embeddedTypes = new HashMap<String, Class<?>>();
+
+	/**
+	 * Create a HalReader for untyped resources only.
+	 */
+	HalReader()
+	{
+		super();
+	}
+
+	/**
+	 * Create a HalReader that binds properties with the given codec.
+	 * 
+	 * @param codec an ObjectCodec, such as an ObjectMapper.
+	 */
+	public HalReader(ObjectCodec codec)
+	{
+		super();
+		this.codec = codec;
+		this.factory = codec.getFactory();
+	}
+
+	/**
+	 * Bind resources embedded with the given rel into the given type.
+	 * 
+	 * @param rel an embedded relation type.
+	 * @param type the type to bind those resources' properties into.
+	 * @return this HalReader to facilitate method chaining.
+	 */
+	public HalReader embedded(String rel, Class<?> type)
+	{
+		embeddedTypes.put(rel, type);
+		return this;
+	}
+
+	public <T> TypedHalResource<T> read(String json, Class<T> type)
+	throws IOException
+	{
+		try (JsonParser jp = factory.createParser(json))
+		{
+			return read(jp, type);
+		}
+	}
+
+	public <T> TypedHalResource<T> read(InputStream in, Class<T> type)
+	throws IOException
+	{
+		try (JsonParser jp = factory.createParser(in))
+		{
+			return read(jp, type);
+		}
+	}
+
+	/**
+	 * Read the HAL resource at the parser's current position (or its next token, if
+	 * it has none), leaving the parser on the resource's END_OBJECT token.
+	 * 
+	 * @param jp a JsonParser.
+	 * @param type the type to bind the resource's properties into.
+	 * @return a TypedHalResource containing the bound properties.
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> TypedHalResource<T> read(JsonParser jp, Class<T> type)
+	throws IOException
+	{
+		if (jp.getCodec() == null)
+		{
+			jp.setCodec(codec);
+		}
+
+		if (jp.getCurrentToken() == null)
+		{
+			jp.nextToken();
+		}
+
+		return (TypedHalResource<T>) readResource(jp, type);
+	}
+
+	/**
+	 * Read a resource, starting at either its START_OBJECT or its first FIELD_NAME
+	 * token and ending on its END_OBJECT token. If type is null, a HalResource
+	 * is returned with its properties as text. Otherwise, the properties are
+	 * collected as tokens and bound into a type instance when the resource ends.
+	 */
+	@SuppressWarnings("unchecked")
+	HalResource readResource(JsonParser jp, Class<?> type)
+	throws IOException
+	{
+		HalResource resource = (type == null ? new HalResource() : new TypedHalResource<Object>());
+		TokenBuffer properties = null;
+		JsonToken t = jp.getCurrentToken();
+
+		if (t == JsonToken.START_OBJECT)
+		{
+			t = jp.nextToken();
+		}
+
+		if (type != null)
+		{
+			properties = new TokenBuffer(jp);
+			properties.writeStartObject();
+		}
+
+		for (; t == JsonToken.FIELD_NAME; t = jp.nextToken())
+		{
+			String name = jp.getCurrentName();
+			jp.nextToken();
+
+			if (LINKS.equals(name))
+			{
+				HalLinkReader.readLinks(jp, resource);
+			}
+			else if (EMBEDDED.equals(name))
+			{
+				readEmbedded(jp, resource);
+			}
+			else if (properties != null)
+			{
+				properties.writeFieldName(name);
+				properties.copyCurrentStructure(jp);
+			}
+			else
+			{
+				resource.setProperty(name, HalLinkReader.readText(jp));
+			}
+		}
+
+		if (t != JsonToken.END_OBJECT)
+		{
+			throw new JsonMappingException("Expected a HAL resource object but found " + t, jp.getCurrentLocation());
+		}
+
+		if (properties != null)
+		{
+			properties.writeEndObject();
+			bind(properties, jp, type, (TypedHalResource<Object>) resource);
+		}
+
+		return resource;
+	}
+
+	private void bind(TokenBuffer properties, JsonParser jp, Class<?> type, TypedHalResource<Object> resource)
+	throws IOException
+	{
+		try (JsonParser bp = properties.asParser(jp))
+		{
+			bp.nextToken();
+			resource.setContent(bp.readValueAs(type));
+		}
+	}
+
+	private void readEmbedded(JsonParser jp, HalResource resource)
+	throws IOException
+	{
+		if (jp.getCurrentToken() != JsonToken.START_OBJECT)
+		{
+			jp.skipChildren();
+			return;
+		}
+
+		while (jp.nextToken() == JsonToken.FIELD_NAME)
+		{
+			String rel = jp.getCurrentName();
+			Class<?> type = embeddedTypes.get(rel);
+			JsonToken t = jp.nextToken();
+
+			if (t == JsonToken.START_ARRAY)
+			{
+				while (jp.nextToken() != JsonToken.END_ARRAY)
+				{
+					if (jp.getCurrentToken() == JsonToken.START_OBJECT)
+					{
+						resource.addResource(rel, readResource(jp, type), true);
+					}
+					else
+					{
+						jp.skipChildren();
+					}
+				}
+			}
+			else if (t == JsonToken.START_OBJECT)
+			{
+				resource.addResource(rel, readResource(jp, type));
+			}
+		}
+	}
+}
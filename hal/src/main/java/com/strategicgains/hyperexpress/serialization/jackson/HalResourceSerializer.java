@@ -16,8 +16,8 @@
 package com.strategicgains.hyperexpress.serialization.jackson;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -30,8 +30,8 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 import com.strategicgains.hyperexpress.domain.Link;
 import com.strategicgains.hyperexpress.domain.Namespace;
 import com.strategicgains.hyperexpress.domain.Resource;
-import com.strategicgains.hyperexpress.domain.hal.HalLink;
 import com.strategicgains.hyperexpress.domain.hal.HalResource;
+import com.strategicgains.hyperexpress.serialization.jackson.HalLinkWriter.LinkIndex;
 
 /**
  * @author toddf
@@ -40,16 +40,25 @@ import com.strategicgains.hyperexpress.domain.hal.HalResource;
 public class HalResourceSerializer
 extends JsonSerializer<HalResource>
 {
+	private static final String EMBEDDED = HalLinkWriter.EMBEDDED;
 
-	private static final String CURIES = "curies";
-	private static final String EMBEDDED = "_embedded";
-	private static final String LINKS = "_links";
+	private boolean isUsedCuriesOnly = false;
 
 	public HalResourceSerializer()
 	{
 		super();
 	}
 
+	/**
+	 * @param isUsedCuriesOnly if true, only write the CURIEs whose name prefixes a rel in the
+	 * rendered resource (including its embedded resources), instead of every namespace.
+	 */
+	public HalResourceSerializer(boolean isUsedCuriesOnly)
+	{
+		this();
+		this.isUsedCuriesOnly = isUsedCuriesOnly;
+	}
+
 	@Override
 	public void serialize(HalResource resource, JsonGenerator jgen, SerializerProvider provider)
 	throws IOException, JsonProcessingException
@@ -67,93 +76,37 @@ extends JsonSerializer<HalResource>
 		writeProperties(resource.getProperties(), jgen);
 	}
 
-	private void writeLinks(HalResource resource, boolean isEmbedded, JsonGenerator jgen)
+	private void writeLinks(final HalResource resource, boolean isEmbedded, JsonGenerator jgen)
 	throws JsonGenerationException, IOException
 	{
-		List<Link> links = resource.getLinks();
-		List<Namespace> namespaces = resource.getNamespaces();
-		if (links.isEmpty() && (isEmbedded || namespaces.isEmpty())) return;
-
-		jgen.writeObjectFieldStart(LINKS);
-		writeCuries(namespaces, isEmbedded, jgen);
-
-		Map<String, List<HalLink>> linksByRel = indexLinksByRel(resource.getLinks());
+		Collection<Namespace> namespaces = (isEmbedded ? Collections.<Namespace> emptyList() : resource.getNamespaces());
 
-		for (Entry<String, List<HalLink>> entry : linksByRel.entrySet())
+		if (isUsedCuriesOnly)
 		{
-			if (entry.getValue().size() == 1 && !resource.isMultipleLinks(entry.getKey())) // Write single link
-			{
-				HalLink link = entry.getValue().iterator().next();
-
-				if (null == link.getTemplated())
-				{
-					link.setTemplated(link.hasTemplate() ? true : null);
-				}
-
-				jgen.writeObjectField(entry.getKey(), link);
-			}
-			else // Write link array
-			{
-				jgen.writeArrayFieldStart(entry.getKey());
-
-				for (HalLink link : entry.getValue())
-				{
-					if (null == link.getTemplated())
-					{
-						link.setTemplated(link.hasTemplate() ? true : null);
-					}
-
-					jgen.writeObject(link);
-				}
-
-				jgen.writeEndArray();
-			}
-
+			namespaces = HalLinkWriter.usedNamespaces(namespaces, resource);
 		}
 
-		jgen.writeEndObject();
-	}
-
-	private Map<String, List<HalLink>> indexLinksByRel(List<Link> links)
-	{
-		Map<String, List<HalLink>> linksByRel = new HashMap<String, List<HalLink>>();
-
-		for (Link link : links)
+		final List<Link> links = resource.getLinks();
+		HalLinkWriter.writeLinks(links, namespaces, new LinkIndex()
 		{
-			List<HalLink> linksForRel = linksByRel.get(link.getRel());
-
-			if (linksForRel == null)
+			@Override
+			public boolean isFirst(int index)
 			{
-				linksForRel = new ArrayList<HalLink>();
-				linksByRel.put(link.getRel(), linksForRel);
+				return (resource.firstLinkIndex(links.get(index).getRel()) == index);
 			}
 
-			linksForRel.add(new HalLink(link));
-		}
-
-		return linksByRel;
-	}
-
-	private void writeCuries(List<Namespace> namespaces, boolean isEmbedded, JsonGenerator jgen)
-	throws IOException, JsonGenerationException, JsonProcessingException
-	{
-		if (isEmbedded || namespaces.isEmpty()) return;
-
-		if (namespaces.size() == 1) // Write single namespace
-		{
-			jgen.writeObjectField(CURIES, namespaces.iterator().next());
-		}
-		else // Write namespace array
-		{
-			jgen.writeArrayFieldStart(CURIES);
-
-			for (Namespace ns : namespaces)
+			@Override
+			public int next(int index)
 			{
-				jgen.writeObject(ns);
+				return resource.nextLinkIndex(index);
 			}
 
-			jgen.writeEndArray();
-		}
+			@Override
+			public boolean isArrayRel(String rel)
+			{
+				return resource.isMultipleLinks(rel);
+			}
+		}, jgen);
 	}
 
 	private void writeEmbedded(Resource resource, JsonGenerator jgen)
@@ -167,7 +120,8 @@ extends JsonSerializer<HalResource>
 
 		for (Entry<String, List<Resource>> entry : embedded.entrySet())
 		{
-			if (entry.getValue().size() == 1 && !resource.isMultipleResources(entry.getKey()))
+			// Checks isMultipleResources() first, as lazily-embedded resources have no size.
+			if (!resource.isMultipleResources(entry.getKey()) && entry.getValue().size() == 1)
 			{
 				jgen.writeObjectFieldStart(entry.getKey());
                 renderJson((HalResource) entry.getValue().iterator().next(), jgen, true);
@@ -0,0 +1,224 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.jackson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.strategicgains.hyperexpress.AbstractResourceFactoryStrategy;
+import com.strategicgains.hyperexpress.HyperExpress;
+import com.strategicgains.hyperexpress.PropertyVisitor;
+import com.strategicgains.hyperexpress.builder.CompiledRelationships;
+import com.strategicgains.hyperexpress.builder.LinkBuilder;
+import com.strategicgains.hyperexpress.builder.LinkCache;
+import com.strategicgains.hyperexpress.builder.TokenResolver;
+import com.strategicgains.hyperexpress.domain.Link;
+import com.strategicgains.hyperexpress.domain.Namespace;
+import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.hal.HalResourceFactory;
+import com.strategicgains.hyperexpress.domain.hal.StreamingHalResource;
+import com.strategicgains.hyperexpress.exception.ResourceException;
+import com.strategicgains.hyperexpress.serialization.jackson.HalLinkWriter.ArrayRels;
+
+/**
+ * Renders a StreamingHalResource as HAL, writing links, embedded resources and properties
+ * straight from the domain object(s) to the JsonGenerator, without building a HalResource.
+ * The output is the same as the HalResourceSerializer's for the equivalent HalResource.
+ * <p/>
+ * Properties are determined by the given ResourceFactoryStrategy, which should be configured
+ * the same as the HalResourceFactory registered with HyperExpress (e.g. with the same
+ * excluded annotations). Register it with Jackson alongside the HalResourceSerializer:
+ * <p/>
+ * <code>
+ * module.addSerializer(StreamingHalResource.class, new StreamingHalResourceSerializer(halFactory));
+ * </code>
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class StreamingHalResourceSerializer
+extends JsonSerializer<StreamingHalResource>
+{
+	private AbstractResourceFactoryStrategy factory;
+
+	public StreamingHalResourceSerializer()
+	{
+		this(new HalResourceFactory());
+	}
+
+	/**
+	 * @param factory the ResourceFactoryStrategy that determines which properties are rendered.
+	 */
+	public StreamingHalResourceSerializer(AbstractResourceFactoryStrategy factory)
+	{
+		super();
+		this.factory = factory;
+	}
+
+	@Override
+	public void serialize(StreamingHalResource resource, JsonGenerator jgen, SerializerProvider provider)
+	throws IOException, JsonProcessingException
+	{
+		CompiledRelationships relationships = HyperExpress.compiledRelationships();
+		TokenResolver resolver = resource.getTokenResolver();
+		Collection<Namespace> namespaces = relationships.getNamespaceSet();
+
+		try
+		{
+			jgen.writeStartObject();
+
+			if (resource.isCollection())
+			{
+				writeCollection(resource, relationships, resolver, namespaces, jgen);
+			}
+			else
+			{
+				writeObject(resource.getBody(), relationships, resolver, namespaces, jgen);
+			}
+
+			jgen.writeEndObject();
+		}
+		catch (PropertyWriteException e)
+		{
+			throw e.getCause();
+		}
+	}
+
+	private void writeCollection(StreamingHalResource resource, final CompiledRelationships relationships, TokenResolver resolver, Collection<Namespace> namespaces, JsonGenerator jgen)
+	throws IOException
+	{
+		final Class<?> componentType = resource.getComponentType();
+		List<Link> links = buildLinks(relationships.getCollectionLinkBuilders(componentType), null, resolver);
+		HalLinkWriter.writeLinks(links, namespaces, new ArrayRels()
+		{
+			@Override
+			public boolean isArrayRel(String rel)
+			{
+				return relationships.isCollectionArrayRel(componentType, rel);
+			}
+		}, jgen);
+
+		jgen.writeObjectFieldStart(HalLinkWriter.EMBEDDED);
+		jgen.writeArrayFieldStart(resource.getComponentRel());
+		Collection<?> components = (Collection<?>) resource.getBody();
+
+		if (components != null)
+		{
+			Collection<Namespace> noCuries = Collections.emptyList();
+
+			for (Object component : components)
+			{
+				if (component instanceof Resource)
+				{
+					throw new ResourceException("Cannot stream a collection of Resource instances");
+				}
+
+				jgen.writeStartObject();
+				writeObject(component, relationships, resolver, noCuries, jgen);
+				jgen.writeEndObject();
+			}
+		}
+
+		jgen.writeEndArray();
+		jgen.writeEndObject();
+	}
+
+	private void writeObject(Object object, final CompiledRelationships relationships, TokenResolver resolver, Collection<Namespace> namespaces, final JsonGenerator jgen)
+	throws IOException
+	{
+		if (object == null)
+		{
+			HalLinkWriter.writeLinks(Collections.<Link> emptyList(), namespaces, null, jgen);
+			return;
+		}
+
+		final Class<?> type = object.getClass();
+		List<Link> links = buildLinks(relationships.getLinkBuilders(type), object, resolver);
+		HalLinkWriter.writeLinks(links, namespaces, new ArrayRels()
+		{
+			@Override
+			public boolean isArrayRel(String rel)
+			{
+				return relationships.isArrayRel(type, rel);
+			}
+		}, jgen);
+
+		factory.visitProperties(object, new PropertyVisitor()
+		{
+			@Override
+			public void visit(String name, Object value)
+			{
+				try
+				{
+					jgen.writeObjectField(name, value);
+				}
+				catch (IOException e)
+				{
+					throw new PropertyWriteException(e);
+				}
+			}
+		});
+	}
+
+	private List<Link> buildLinks(Collection<LinkBuilder> builders, Object object, TokenResolver resolver)
+	{
+		if (builders.isEmpty()) return Collections.emptyList();
+
+		List<Link> links = new ArrayList<>(builders.size());
+		TokenResolver scope = resolver.newScope();
+		scope.callTokenBinders(object);
+		LinkCache cache = HyperExpress.linkCache();
+
+		for (LinkBuilder builder : builders)
+		{
+			Link link = builder.buildFor(object, scope, cache);
+
+			if (link != null)
+			{
+				links.add(link);
+			}
+		}
+
+		return links;
+	}
+
+	/**
+	 * Carries an IOException out of a PropertyVisitor.
+	 */
+	private static class PropertyWriteException
+	extends RuntimeException
+	{
+		private static final long serialVersionUID = 4387365027541305315L;
+
+		public PropertyWriteException(IOException cause)
+		{
+			super(cause);
+		}
+
+		@Override
+		public synchronized IOException getCause()
+		{
+			return (IOException) super.getCause();
+		}
+	}
+}
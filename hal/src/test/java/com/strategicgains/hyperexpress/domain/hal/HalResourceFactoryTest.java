@@ -57,6 +57,22 @@ public class HalResourceFactoryTest
 		assertNotNull(r.getProperty("IGNORED"));
 	}
 
+	@Test
+	public void shouldApplyAnnotationsAddedAfterFirstUse()
+	{
+		HalResourceFactory factory = new HalResourceFactory();
+		Blog b = new Blog();
+		b.setName("Blog Name");
+		Resource r = factory.createResource(b);
+		assertEquals("Blog Name", r.getProperty("name"));
+		assertNull(r.getProperty("somethingStatic"));
+
+		factory.includeAnnotations(Include.class).excludeAnnotations(Exclude.class);
+		r = factory.createResource(b);
+		assertNull(r.getProperty("name"));
+		assertNotNull(r.getProperty("somethingStatic"));
+	}
+
 	@Test
 	public void shouldCreateResourceFromNull()
 	{
@@ -0,0 +1,113 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.hal.Blog;
+import com.strategicgains.hyperexpress.domain.hal.Comment;
+import com.strategicgains.hyperexpress.domain.hal.TypedHalResource;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class HalReaderTest
+{
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception
+	{
+		mapper
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+			.setVisibility(PropertyAccessor.FIELD, Visibility.ANY)
+			.setVisibility(PropertyAccessor.GETTER, Visibility.NONE)
+			.setVisibility(PropertyAccessor.SETTER, Visibility.NONE)
+			.setVisibility(PropertyAccessor.IS_GETTER, Visibility.NONE);
+	}
+
+	@Test
+	public void shouldBindTypedProperties()
+	throws IOException
+	{
+		TypedHalResource<Stats> r = new HalReader(mapper).read("{\"count\":42,"
+			+ "\"_links\":{\"self\":{\"href\":\"/stats\"}},"
+			+ "\"active\":true,\"tags\":[\"a\",\"b\"]}", Stats.class);
+		assertEquals(42, r.getContent().count);
+		assertTrue(r.getContent().active);
+		assertEquals(2, r.getContent().tags.size());
+		assertEquals("/stats", r.getLinks().get(0).getHref());
+		assertTrue(r.getProperties().isEmpty());
+	}
+
+	@Test
+	public void shouldBindEmbeddedByRel()
+	throws IOException
+	{
+		UUID ownerId = UUID.randomUUID();
+		TypedHalResource<Blog> r = new HalReader(mapper)
+			.embedded("comments", Comment.class)
+			.read("{\"_embedded\":{"
+				+ "\"comments\":[{\"title\":\"first\",\"_links\":{\"self\":{\"href\":\"/comments/1\"}}},{\"title\":\"second\"}],"
+				+ "\"author\":{\"name\":\"toddf\"}},"
+				+ "\"name\":\"A Blog\",\"ownerId\":\"" + ownerId + "\"}", Blog.class);
+		assertEquals("A Blog", r.getContent().getName());
+		assertEquals(ownerId, r.getContent().getOwnerId());
+
+		List<Resource> comments = r.getResources("comments");
+		assertEquals(2, comments.size());
+		assertTrue(r.isMultipleResources("comments"));
+
+		@SuppressWarnings("unchecked")
+		TypedHalResource<Comment> first = (TypedHalResource<Comment>) comments.get(0);
+		assertEquals("first", first.getContent().getTitle());
+		assertEquals("/comments/1", first.getLinks().get(0).getHref());
+
+		Resource author = r.getResources("author").get(0);
+		assertEquals("toddf", author.getProperty("name"));
+	}
+
+	@Test
+	public void shouldBindEmptyProperties()
+	throws IOException
+	{
+		TypedHalResource<Stats> r = new HalReader(mapper).read("{\"_links\":{\"self\":{\"href\":\"/stats\"}}}", Stats.class);
+		assertEquals(0, r.getContent().count);
+		assertNull(r.getContent().tags);
+	}
+
+	public static class Stats
+	{
+		private int count;
+		private boolean active;
+		private List<String> tags;
+	}
+}
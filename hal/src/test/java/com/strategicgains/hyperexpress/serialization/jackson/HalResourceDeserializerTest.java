@@ -0,0 +1,123 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.strategicgains.hyperexpress.domain.Link;
+import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.hal.HalResource;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class HalResourceDeserializerTest
+{
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception
+	{
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(HalResource.class, new HalResourceSerializer());
+		module.addDeserializer(HalResource.class, new HalResourceDeserializer());
+		mapper.registerModule(module);
+		mapper
+			.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+			.setVisibility(PropertyAccessor.FIELD, Visibility.ANY)
+			.setVisibility(PropertyAccessor.GETTER, Visibility.NONE)
+			.setVisibility(PropertyAccessor.SETTER, Visibility.NONE)
+			.setVisibility(PropertyAccessor.IS_GETTER, Visibility.NONE);
+	}
+
+	@Test
+	public void shouldDeserializeLinksAndProperties()
+	throws IOException
+	{
+		HalResource r = mapper.readValue("{\"name\":\"root\",\"_links\":{"
+			+ "\"curies\":{\"name\":\"ns\",\"href\":\"/ns/{rel}\",\"templated\":true},"
+			+ "\"self\":{\"href\":\"/blogs/1\",\"title\":\"A Blog\"}},"
+			+ "\"count\":42}", HalResource.class);
+		assertEquals("root", r.getProperty("name"));
+		assertEquals("42", r.getProperty("count"));
+		assertEquals(1, r.getNamespaces().size());
+		assertEquals("ns", r.getNamespaces().get(0).name());
+		Link self = r.getLinks().get(0);
+		assertEquals("self", self.getRel());
+		assertEquals("/blogs/1", self.getHref());
+		assertEquals("A Blog", self.get("title"));
+	}
+
+	@Test
+	public void shouldDeserializeLinkArrays()
+	throws IOException
+	{
+		HalResource r = mapper.readValue("{\"_links\":{\"item\":["
+			+ "{\"href\":\"/items/1\"},{\"href\":\"/items/2\",\"name\":\"two\"}]}}", HalResource.class);
+		List<Link> links = r.getLinksByRel().get("item");
+		assertEquals(2, links.size());
+		assertEquals("/items/1", links.get(0).getHref());
+		assertEquals("/items/2", links.get(1).getHref());
+		assertEquals("two", links.get(1).get("name"));
+		assertTrue(r.isMultipleLinks("item"));
+	}
+
+	@Test
+	public void shouldDeserializeEmbeddedResources()
+	throws IOException
+	{
+		HalResource r = mapper.readValue("{\"_embedded\":{"
+			+ "\"author\":{\"name\":\"toddf\",\"nested\":{\"ignored\":[1,2]}},"
+			+ "\"items\":[{\"_links\":{\"self\":{\"href\":\"/items/1\"}},\"id\":1},{\"id\":2}]},"
+			+ "\"total\":2}", HalResource.class);
+		assertEquals("2", r.getProperty("total"));
+		Resource author = r.getResources("author").get(0);
+		assertEquals("toddf", author.getProperty("name"));
+		assertEquals("", author.getProperty("nested"));
+		List<Resource> items = r.getResources("items");
+		assertEquals(2, items.size());
+		assertTrue(r.isMultipleResources("items"));
+		assertEquals("/items/1", items.get(0).getLinks().get(0).getHref());
+		assertEquals("2", items.get(1).getProperty("id"));
+	}
+
+	@Test
+	public void shouldRoundTrip()
+	throws IOException
+	{
+		String json = "{\"_links\":{\"self\":{\"href\":\"/blogs\"},\"item\":[{\"href\":\"/blogs/1\"}]},"
+			+ "\"_embedded\":{\"blogs\":[{\"_links\":{\"self\":{\"href\":\"/blogs/1\"}},\"name\":\"one\"}]},"
+			+ "\"count\":\"1\"}";
+		assertEquals(json, mapper.writeValueAsString(mapper.readValue(json, HalResource.class)));
+	}
+}
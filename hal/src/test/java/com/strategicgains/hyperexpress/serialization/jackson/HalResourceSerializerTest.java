@@ -16,8 +16,16 @@
 package com.strategicgains.hyperexpress.serialization.jackson;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -25,13 +33,17 @@ import org.junit.Test;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.strategicgains.hyperexpress.builder.LinkBuilder;
+import com.strategicgains.hyperexpress.domain.Link;
+import com.strategicgains.hyperexpress.domain.Namespace;
 import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.hal.HalLink;
 import com.strategicgains.hyperexpress.domain.hal.HalResource;
 
 /**
@@ -137,6 +149,96 @@ public class HalResourceSerializerTest
 		assertEquals("{\"_links\":{\"self\":[{\"href\":\"/something\"}]}}", json);
 	}
 
+	@Test
+	public void shouldPreserveRelOrder()
+	throws JsonProcessingException
+	{
+		Resource r = new HalResource();
+		LinkBuilder l = new LinkBuilder();
+		r.addLink(l.rel("self").urlPattern("/z").build());
+		r.addLink(l.rel("ea:zebra").urlPattern("/zebra").build());
+		r.addLink(l.rel("alpha").urlPattern("/alpha").build());
+		r.addLink(l.rel("ea:zebra").urlPattern("/zebra/2").build());
+		String json = mapper.writeValueAsString(r);
+		assertEquals("{\"_links\":{\"self\":{\"href\":\"/z\"},\"ea:zebra\":[{\"href\":\"/zebra\"},{\"href\":\"/zebra/2\"}],\"alpha\":{\"href\":\"/alpha\"}}}", json);
+	}
+
+	@Test
+	public void shouldGroupInterleavedRels()
+	throws IOException
+	{
+		HalResource r = new HalResource();
+		List<Link> links = new ArrayList<Link>();
+		String[] rels = {"a", "b", "a", "c", "b", "a", "d", "c", "a", "b", "e"};
+
+		for (int i = 0; i < rels.length; i++)
+		{
+			Link link = new LinkBuilder("/" + i).rel(rels[i]).build();
+			r.addLink(link, "d".equals(rels[i]));
+			links.add(link);
+		}
+
+		String expected = "{\"_links\":{"
+			+ "\"a\":[{\"href\":\"/0\"},{\"href\":\"/2\"},{\"href\":\"/5\"},{\"href\":\"/8\"}],"
+			+ "\"b\":[{\"href\":\"/1\"},{\"href\":\"/4\"},{\"href\":\"/9\"}],"
+			+ "\"c\":[{\"href\":\"/3\"},{\"href\":\"/7\"}],"
+			+ "\"d\":[{\"href\":\"/6\"}],"
+			+ "\"e\":{\"href\":\"/10\"}}}";
+		assertEquals(expected, mapper.writeValueAsString(r));
+		assertEquals(Arrays.asList("a", "b", "c", "d", "e"), new ArrayList<String>(r.getLinksByRel().keySet()));
+		assertEquals(Arrays.asList(links.get(1), links.get(4), links.get(9)), r.getLinksByRel().get("b"));
+		assertTrue(r.isMultipleLinks("d"));
+		assertFalse(r.isMultipleLinks("a"));
+
+		// A list without an index of its own is grouped the same way, scanned or indexed.
+		HalLinkWriter.ArrayRels arrayRels = new HalLinkWriter.ArrayRels()
+		{
+			@Override
+			public boolean isArrayRel(String rel)
+			{
+				return "d".equals(rel);
+			}
+		};
+		assertTrue(links.size() > HalLinkWriter.SCANNED_SIZE);
+		assertEquals(expected, writeLinks(links, arrayRels));
+		assertEquals("{\"_links\":{\"a\":[{\"href\":\"/0\"},{\"href\":\"/2\"}],\"b\":{\"href\":\"/1\"}}}", writeLinks(links.subList(0, 3), arrayRels));
+	}
+
+	private String writeLinks(List<Link> links, HalLinkWriter.ArrayRels arrayRels)
+	throws IOException
+	{
+		StringWriter json = new StringWriter();
+		JsonGenerator jgen = mapper.getFactory().createGenerator(json);
+		jgen.writeStartObject();
+		HalLinkWriter.writeLinks(links, Collections.<Namespace> emptyList(), arrayRels, jgen);
+		jgen.writeEndObject();
+		jgen.close();
+		return json.toString();
+	}
+
+	@Test
+	public void shouldSerializeLinkAttributes()
+	throws JsonProcessingException
+	{
+		Resource r = new HalResource();
+		LinkBuilder l = new LinkBuilder();
+		r.addLink(l.rel("self").urlPattern("/{id}").set("profile", "/profile").set("type", "application/json")
+			.set("title", "Title").set("name", "a name").set("templated", "false").set("ignored", "x").build());
+		String json = mapper.writeValueAsString(r);
+		assertEquals("{\"_links\":{\"self\":{\"href\":\"/{id}\",\"name\":\"a name\",\"title\":\"Title\",\"templated\":false,\"type\":\"application/json\",\"profile\":\"/profile\"}}}", json);
+	}
+
+	@Test
+	public void shouldDetectTemplatesLikeHalLink()
+	{
+		String[] hrefs = {"/a", "/{a}", "/{}", "/{a-b}", "/{{a}", "/{a", "/a}", "/{a.b}/{c}", "{x_1}"};
+
+		for (String href : hrefs)
+		{
+			assertEquals(href, new HalLink().setHref(href).hasTemplate(), HalLinkWriter.isTemplated(href));
+		}
+	}
+
 	@Test
 	public void shouldSerializeProperties()
 	throws JsonProcessingException
@@ -220,4 +322,34 @@ public class HalResourceSerializerTest
 		String json = mapper.writeValueAsString(r);
 		assertEquals("{\"_links\":{\"curies\":[{\"name\":\"ns:1\",\"href\":\"/namespaces/1\"},{\"name\":\"ns:2\",\"href\":\"/namespaces/2\"}],\"self\":[{\"href\":\"/something\"},{\"href\":\"/something/{templated}\",\"templated\":true}]},\"_embedded\":{\"children\":[{\"name\":\"child 1\"},{\"name\":\"child 2\"}]},\"name\":\"root\"}", json);
 	}
+
+	@Test
+	public void shouldSerializeUsedCuriesOnly()
+	throws JsonProcessingException
+	{
+		ObjectMapper usedOnly = new ObjectMapper();
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(HalResource.class, new HalResourceSerializer(true));
+		usedOnly.registerModule(module);
+		usedOnly
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+			.setVisibility(PropertyAccessor.FIELD, Visibility.ANY)
+			.setVisibility(PropertyAccessor.GETTER, Visibility.NONE)
+			.setVisibility(PropertyAccessor.IS_GETTER, Visibility.NONE);
+
+		Resource r = new HalResource();
+		r.addNamespace("ea", "http://example.com/docs/rels/{rel}");
+		r.addNamespace("blog", "http://example.com/blog/rels/{rel}");
+		r.addNamespace("unused", "http://example.com/unused/rels/{rel}");
+		r.addLink(new LinkBuilder("/blogs/1").rel("self").build());
+		Resource embedded = new HalResource();
+		embedded.addLink(new LinkBuilder("/users/2").rel("blog:author").build());
+		r.addResource("ea:entries", embedded);
+		assertEquals("{\"_links\":{\"curies\":[{\"name\":\"ea\",\"href\":\"http://example.com/docs/rels/{rel}\"},"
+			+ "{\"name\":\"blog\",\"href\":\"http://example.com/blog/rels/{rel}\"}],"
+			+ "\"self\":{\"href\":\"/blogs/1\"}},"
+			+ "\"_embedded\":{\"ea:entries\":{\"_links\":{\"blog:author\":{\"href\":\"/users/2\"}}}}}", usedOnly.writeValueAsString(r));
+
+		assertEquals(3, r.getNamespaces().size());
+	}
 }
@@ -0,0 +1,236 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.strategicgains.hyperexpress.HyperExpress;
+import com.strategicgains.hyperexpress.RelTypes;
+import com.strategicgains.hyperexpress.builder.RelationshipDefinition;
+import com.strategicgains.hyperexpress.builder.TokenBinder;
+import com.strategicgains.hyperexpress.builder.TokenResolver;
+import com.strategicgains.hyperexpress.domain.Namespace;
+import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.hal.Blog;
+import com.strategicgains.hyperexpress.domain.hal.HalResource;
+import com.strategicgains.hyperexpress.domain.hal.HalResourceFactory;
+import com.strategicgains.hyperexpress.domain.hal.StreamingHalResource;
+import com.strategicgains.hyperexpress.exception.ResourceException;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class StreamingHalResourceSerializerTest
+{
+	private static final String HAL_JSON = "application/hal+json";
+
+	private static ObjectMapper mapper = new ObjectMapper();
+	private static RelationshipDefinition original;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception
+	{
+		HalResourceFactory factory = new HalResourceFactory();
+		HyperExpress.registerResourceFactoryStrategy(factory, HAL_JSON);
+		original = HyperExpress.relationships();
+		HyperExpress.relationships(new RelationshipDefinition()
+			.addNamespaces(
+				new Namespace("ea", "http://namespaces.example.com/{rel}"),
+				new Namespace("blog", "http://namespaces.example.com/blog/{rel}"))
+			.forCollectionOf(Blog.class)
+				.rel(RelTypes.SELF, "/blogs")
+				.rel(RelTypes.NEXT, "/blogs?offset={nextOffset}").optional()
+			.forClass(Blog.class)
+				.rel(RelTypes.SELF, "/blogs/{blogId}")
+				.rels("ea:entries", "/blogs/{blogId}/entries")
+				.rel("ea:owner", "/users/{ownerId}").optional());
+
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(HalResource.class, new HalResourceSerializer());
+		module.addSerializer(StreamingHalResource.class, new StreamingHalResourceSerializer(factory));
+		mapper.registerModule(module);
+		mapper
+			.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+			.setVisibility(PropertyAccessor.FIELD, Visibility.ANY)
+			.setVisibility(PropertyAccessor.GETTER, Visibility.NONE)
+			.setVisibility(PropertyAccessor.SETTER, Visibility.NONE)
+			.setVisibility(PropertyAccessor.IS_GETTER, Visibility.NONE)
+			.setDateFormat(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ"));
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass()
+	{
+		HyperExpress.relationships(original);
+		HyperExpress.clearTokenBindings();
+	}
+
+	@Test
+	public void shouldMatchHalResourceForObject()
+	throws JsonProcessingException
+	{
+		Blog blog = newBlog("First", "first blog");
+		bindTokens();
+		String expected = mapper.writeValueAsString(HyperExpress.createResource(blog, HAL_JSON));
+		HyperExpress.clearTokenBindings();
+
+		bindTokens();
+		String actual = mapper.writeValueAsString(StreamingHalResource.of(blog, HyperExpress.detachTokenResolver()));
+		assertEquals(expected, actual);
+		assertTrue(actual.contains("\"self\":{\"href\":\"/blogs/" + blog.getId() + "\"}"));
+		assertTrue(actual.contains("\"description\":\"first blog\""));
+	}
+
+	@Test
+	public void shouldMatchHalResourceForCollection()
+	throws JsonProcessingException
+	{
+		List<Blog> blogs = Arrays.asList(newBlog("First", "first blog"), newBlog("Second", null));
+		bindTokens();
+		HyperExpress.bind("nextOffset", "20");
+		String expected = mapper.writeValueAsString(HyperExpress.createCollectionResource(blogs, Blog.class, "blogs", HAL_JSON));
+		HyperExpress.clearTokenBindings();
+
+		bindTokens();
+		HyperExpress.bind("nextOffset", "20");
+		String actual = mapper.writeValueAsString(StreamingHalResource.ofCollection(blogs, Blog.class, "blogs", HyperExpress.detachTokenResolver()));
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void shouldMatchHalResourceForLazyCollection()
+	throws JsonProcessingException
+	{
+		List<Blog> blogs = Arrays.asList(newBlog("First", "first blog"), newBlog("Second", null));
+		bindTokens();
+		String expected = mapper.writeValueAsString(HyperExpress.createCollectionResource(blogs, Blog.class, "blogs", HAL_JSON));
+		HyperExpress.clearTokenBindings();
+
+		bindTokens();
+		Resource lazy = HyperExpress.createLazyCollectionResource(blogs.iterator(), Blog.class, "blogs", HAL_JSON, HyperExpress.detachTokenResolver());
+		assertEquals(expected, mapper.writeValueAsString(lazy));
+	}
+
+	@Test
+	public void shouldMatchHalResourceForEmptyCollection()
+	throws JsonProcessingException
+	{
+		String expected = mapper.writeValueAsString(HyperExpress.createCollectionResource(Collections.emptyList(), Blog.class, "blogs", HAL_JSON));
+		HyperExpress.clearTokenBindings();
+
+		String actual = mapper.writeValueAsString(StreamingHalResource.ofCollection(Collections.emptyList(), Blog.class, "blogs", HyperExpress.detachTokenResolver()));
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void shouldNotBeAffectedByClearTokenBindingsAfterDetach()
+	throws JsonProcessingException
+	{
+		Blog blog = newBlog("First", "first blog");
+		bindTokens();
+		String expected = mapper.writeValueAsString(HyperExpress.createResource(blog, HAL_JSON));
+		HyperExpress.clearTokenBindings();
+
+		bindTokens();
+		StreamingHalResource streaming = StreamingHalResource.of(blog, HyperExpress.detachTokenResolver());
+		HyperExpress.clearTokenBindings();
+		assertEquals(expected, mapper.writeValueAsString(streaming));
+	}
+
+	@Test
+	public void shouldRejectShadowedFieldLikeHalResource()
+	{
+		Shadowing shadowing = new Shadowing();
+
+		try
+		{
+			HyperExpress.createResource(shadowing, HAL_JSON);
+			fail("Expected a duplicate property");
+		}
+		catch (ResourceException e)
+		{
+			assertEquals("Duplicate property: name", e.getMessage());
+		}
+
+		try
+		{
+			mapper.writeValueAsString(StreamingHalResource.of(shadowing, new TokenResolver()));
+			fail("Expected a duplicate property");
+		}
+		catch (JsonProcessingException e)
+		{
+			assertTrue(e.getCause() instanceof ResourceException);
+			assertEquals("Duplicate property: name", e.getCause().getMessage());
+		}
+	}
+
+	private void bindTokens()
+	{
+		HyperExpress.tokenBinder(new TokenBinder<Blog>()
+		{
+			@Override
+			public void bind(Blog object, TokenResolver resolver)
+			{
+				resolver.bind("blogId", object.getId().toString())
+					.bind("ownerId", (object.getOwnerId() == null ? null : object.getOwnerId().toString()));
+			}
+		});
+	}
+
+	private Blog newBlog(String name, String description)
+	{
+		Blog blog = new Blog();
+		blog.setId(UUID.randomUUID());
+		blog.setName(name);
+		blog.setDescription(description);
+		blog.setOwnerId(description == null ? null : UUID.randomUUID());
+		return blog;
+	}
+
+	private static class Named
+	{
+		@SuppressWarnings("unused")
+		private String name = "named";
+	}
+
+	private static class Shadowing
+	extends Named
+	{
+		@SuppressWarnings("unused")
+		private String name = "shadowing";
+	}
+}
@@ -0,0 +1,320 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+
+import com.strategicgains.hyperexpress.ModelAccessors;
+import com.strategicgains.hyperexpress.annotation.BindToken;
+import com.strategicgains.hyperexpress.annotation.HyperExpressModel;
+
+/**
+ * Generates a ModelAccessor for each class annotated with {@link HyperExpressModel}.
+ * The accessor is generated into the same package as the model class, so it can read
+ * non-private fields directly. Private fields are read via their getter (getX() or, for
+ * booleans, isX()).
+ * <p/>
+ * If any copied or bound field cannot be read that way, a warning is issued and no accessor
+ * is generated for the class, leaving HyperExpress to copy its properties reflectively.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class ModelAccessorProcessor
+extends AbstractProcessor
+{
+	private static final Set<Modifier> IGNORED_FIELD_MODIFIERS = Collections.unmodifiableSet(
+		EnumSet.of(Modifier.FINAL, Modifier.STATIC, Modifier.TRANSIENT, Modifier.VOLATILE));
+
+	private static final String RESOURCE_TYPE = "com.strategicgains.hyperexpress.domain.Resource";
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes()
+	{
+		return Collections.singleton(HyperExpressModel.class.getName());
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		for (Element element : roundEnv.getElementsAnnotatedWith(HyperExpressModel.class))
+		{
+			if (isSupported(element))
+			{
+				generate((TypeElement) element);
+			}
+		}
+
+		return true;
+	}
+
+	private boolean isSupported(Element element)
+	{
+		if (element.getKind() != ElementKind.CLASS)
+		{
+			warn(element, "@HyperExpressModel is only supported on classes");
+			return false;
+		}
+
+		TypeElement type = (TypeElement) element;
+
+		if (type.getModifiers().contains(Modifier.PRIVATE)
+			|| (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC))
+			|| (type.getNestingKind() != NestingKind.TOP_LEVEL && type.getNestingKind() != NestingKind.MEMBER))
+		{
+			warn(type, "@HyperExpressModel classes must be top-level or non-private static nested classes");
+			return false;
+		}
+
+		TypeElement resource = processingEnv.getElementUtils().getTypeElement(RESOURCE_TYPE);
+
+		if (resource != null && processingEnv.getTypeUtils().isAssignable(type.asType(), processingEnv.getTypeUtils().erasure(resource.asType())))
+		{
+			warn(type, "@HyperExpressModel is ignored on Resource implementations");
+			return false;
+		}
+
+		return true;
+	}
+
+	private void generate(TypeElement model)
+	{
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(model);
+		List<Property> copies = new ArrayList<>();
+		List<Property> bindings = new ArrayList<>();
+		Set<String> copiedNames = new HashSet<>();
+
+		for (TypeElement type = model; type != null; type = superclassOf(type))
+		{
+			for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements()))
+			{
+				BindToken token = field.getAnnotation(BindToken.class);
+				boolean isCopied = Collections.disjoint(field.getModifiers(), IGNORED_FIELD_MODIFIERS);
+
+				if (!isCopied && token == null) continue;
+
+				String accessor = accessorFor(model, type, field, pkg);
+
+				if (accessor == null)
+				{
+					warn(model, "Not generating a ModelAccessor: field '" + field.getSimpleName()
+						+ "' in " + type.getQualifiedName() + " is not accessible and has no accessible getter");
+					return;
+				}
+
+				if (isCopied && !copiedNames.add(field.getSimpleName().toString()))
+				{
+					// Fall back to reflection, which rejects the duplicate property as Resource.addProperty() does.
+					warn(model, "Not generating a ModelAccessor: field '" + field.getSimpleName()
+						+ "' in " + type.getQualifiedName() + " is shadowed by a sub-class field");
+					return;
+				}
+
+				if (isCopied)
+				{
+					copies.add(new Property(field.getSimpleName().toString(), accessor));
+				}
+
+				if (token != null)
+				{
+					bindings.add(new Property(token.value(), accessor));
+				}
+			}
+		}
+
+		write(model, pkg, copies, bindings);
+	}
+
+	/**
+	 * Answers a Java expression that reads the field from a variable named 'from', or null
+	 * if the field cannot be read from the model's package.
+	 */
+	private String accessorFor(TypeElement model, TypeElement declaringType, VariableElement field, PackageElement pkg)
+	{
+		String from = (model.equals(declaringType) ? "from" : "((" + erasureOf(declaringType) + ") from)");
+
+		if (isAccessible(field, declaringType, pkg))
+		{
+			return from + "." + field.getSimpleName();
+		}
+
+		ExecutableElement getter = findGetter(declaringType, field, pkg);
+
+		if (getter != null)
+		{
+			return from + "." + getter.getSimpleName() + "()";
+		}
+
+		return null;
+	}
+
+	private ExecutableElement findGetter(TypeElement declaringType, VariableElement field, PackageElement pkg)
+	{
+		String name = field.getSimpleName().toString();
+		String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		boolean isBoolean = (field.asType().getKind() == TypeKind.BOOLEAN);
+
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(declaringType)))
+		{
+			String methodName = method.getSimpleName().toString();
+
+			if (method.getParameters().isEmpty()
+				&& !method.getModifiers().contains(Modifier.STATIC)
+				&& method.getReturnType().getKind() != TypeKind.VOID
+				&& (methodName.equals("get" + suffix) || (isBoolean && methodName.equals("is" + suffix)))
+				&& isAccessible(method, (TypeElement) method.getEnclosingElement(), pkg))
+			{
+				return method;
+			}
+		}
+
+		return null;
+	}
+
+	private boolean isAccessible(Element member, TypeElement declaringType, PackageElement pkg)
+	{
+		Set<Modifier> modifiers = member.getModifiers();
+
+		if (modifiers.contains(Modifier.PRIVATE)) return false;
+
+		if (modifiers.contains(Modifier.PUBLIC) && declaringType.getModifiers().contains(Modifier.PUBLIC)) return true;
+
+		return pkg.equals(processingEnv.getElementUtils().getPackageOf(declaringType));
+	}
+
+	private TypeElement superclassOf(TypeElement type)
+	{
+		TypeMirror superclass = type.getSuperclass();
+
+		if (superclass.getKind() != TypeKind.DECLARED) return null;
+
+		TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+		return (Object.class.getName().equals(element.getQualifiedName().toString()) ? null : element);
+	}
+
+	private String erasureOf(TypeElement type)
+	{
+		return processingEnv.getTypeUtils().erasure(type.asType()).toString();
+	}
+
+	private void write(TypeElement model, PackageElement pkg, List<Property> copies, List<Property> bindings)
+	{
+		String binaryName = processingEnv.getElementUtils().getBinaryName(model).toString();
+		String packageName = pkg.getQualifiedName().toString();
+		String simpleName = (pkg.isUnnamed() ? binaryName : binaryName.substring(packageName.length() + 1)) + ModelAccessors.ACCESSOR_SUFFIX;
+		String modelName = erasureOf(model);
+		StringBuilder s = new StringBuilder(1024);
+
+		if (!pkg.isUnnamed())
+		{
+			s.append("package ").append(packageName).append(";\n\n");
+		}
+
+		s.append("/**\n * ModelAccessor for ").append(modelName).append(".\n")
+			.append(" * Generated by ").append(getClass().getName()).append(". Do not edit.\n */\n")
+			.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+			.append("public final class ").append(simpleName).append("\n")
+			.append("implements com.strategicgains.hyperexpress.ModelAccessor<").append(modelName).append(">\n{\n")
+			.append("\t@Override\n")
+			.append("\tpublic void visitProperties(").append(modelName).append(" from, com.strategicgains.hyperexpress.PropertyVisitor visitor)\n\t{\n")
+			.append("\t\tObject value;\n");
+
+		for (Property copy : copies)
+		{
+			s.append("\t\tvalue = ").append(copy.accessor).append(";\n")
+				.append("\t\tif (value != null) visitor.visit(\"").append(copy.name).append("\", value);\n");
+		}
+
+		s.append("\t}\n\n")
+			.append("\t@Override\n")
+			.append("\tpublic void bind(").append(modelName).append(" from, com.strategicgains.hyperexpress.builder.TokenResolver resolver)\n\t{\n")
+			.append("\t\tObject value;\n");
+
+		for (Property binding : bindings)
+		{
+			s.append("\t\tvalue = ").append(binding.accessor).append(";\n")
+				.append("\t\tresolver.bind(\"").append(escape(binding.name)).append("\", (value == null ? null : value.toString()));\n");
+		}
+
+		s.append("\t}\n}\n");
+
+		try (Writer writer = processingEnv.getFiler().createSourceFile(
+			(pkg.isUnnamed() ? simpleName : packageName + "." + simpleName), model).openWriter())
+		{
+			writer.write(s.toString());
+		}
+		catch (IOException e)
+		{
+			processingEnv.getMessager().printMessage(Kind.ERROR, "Cannot write ModelAccessor: " + e.getMessage(), model);
+		}
+	}
+
+	private static String escape(String literal)
+	{
+		return literal.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	private void warn(Element element, String message)
+	{
+		processingEnv.getMessager().printMessage(Kind.WARNING, message, element);
+	}
+
+	/**
+	 * A property (or token) name and the Java expression that reads its value.
+	 */
+	private static class Property
+	{
+		final String name;
+		final String accessor;
+
+		Property(String name, String accessor)
+		{
+			super();
+			this.name = name;
+			this.accessor = accessor;
+		}
+	}
+}
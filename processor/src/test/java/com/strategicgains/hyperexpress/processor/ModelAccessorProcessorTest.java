@@ -0,0 +1,214 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.strategicgains.hyperexpress.ModelAccessor;
+import com.strategicgains.hyperexpress.ModelAccessors;
+import com.strategicgains.hyperexpress.PropertyVisitor;
+import com.strategicgains.hyperexpress.builder.TokenResolver;
+import com.strategicgains.hyperexpress.domain.AbstractResource;
+import com.strategicgains.hyperexpress.domain.Resource;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class ModelAccessorProcessorTest
+{
+	private File sourceDir;
+	private File classDir;
+	private DiagnosticCollector<JavaFileObject> diagnostics;
+
+	@Before
+	public void setup()
+	throws IOException
+	{
+		sourceDir = Files.createTempDirectory("hyperexpress-src").toFile();
+		classDir = Files.createTempDirectory("hyperexpress-classes").toFile();
+		diagnostics = new DiagnosticCollector<>();
+	}
+
+	@Test
+	public void shouldGenerateAccessor()
+	throws Exception
+	{
+		source("model/Entity.java",
+			"package model;",
+			"public abstract class Entity {",
+			"  @com.strategicgains.hyperexpress.annotation.BindToken(\"blogId\") String id;",
+			"}");
+		source("model/Blog.java",
+			"package model;",
+			"@com.strategicgains.hyperexpress.annotation.HyperExpressModel",
+			"public class Blog extends Entity {",
+			"  private String name;",
+			"  public int count;",
+			"  private boolean active;",
+			"  transient String ignored = \"ignored\";",
+			"  public static final String CONSTANT = \"constant\";",
+			"  public Blog(String id, String name) { this.id = id; this.name = name; this.count = 3; this.active = true; }",
+			"  public String getName() { return name; }",
+			"  public boolean isActive() { return active; }",
+			"}");
+
+		assertTrue(compile());
+		ClassLoader loader = new URLClassLoader(new URL[] {classDir.toURI().toURL()}, getClass().getClassLoader());
+		Class<?> blogClass = loader.loadClass("model.Blog");
+		Object blog = blogClass.getConstructor(String.class, String.class).newInstance("42", "Blog Name");
+
+		@SuppressWarnings("unchecked")
+		ModelAccessor<Object> accessor = (ModelAccessor<Object>) ModelAccessors.forClass(blogClass);
+		assertNotNull(accessor);
+		assertEquals("model.Blog_HyperExpressAccessor", accessor.getClass().getName());
+
+		final Resource r = new AbstractResource() {};
+		accessor.visitProperties(blog, new PropertyVisitor()
+		{
+			@Override
+			public void visit(String name, Object value)
+			{
+				r.addProperty(name, value);
+			}
+		});
+		assertEquals("Blog Name", r.getProperty("name"));
+		assertEquals(3, r.getProperty("count"));
+		assertEquals(true, r.getProperty("active"));
+		assertEquals("42", r.getProperty("id"));
+		assertNull(r.getProperty("ignored"));
+		assertNull(r.getProperty("CONSTANT"));
+
+		TokenResolver resolver = new TokenResolver();
+		resolver.callTokenBinders(blog);
+		assertEquals("/blogs/42", resolver.resolve("/blogs/{blogId}"));
+	}
+
+	@Test
+	public void shouldNotGenerateAccessorForInaccessibleField()
+	throws Exception
+	{
+		source("model/Secret.java",
+			"package model;",
+			"@com.strategicgains.hyperexpress.annotation.HyperExpressModel",
+			"public class Secret {",
+			"  private String hidden;",
+			"}");
+
+		assertTrue(compile());
+		assertFalse(new File(classDir, "model/Secret_HyperExpressAccessor.class").exists());
+		assertTrue(hasWarning("hidden"));
+
+		ClassLoader loader = new URLClassLoader(new URL[] {classDir.toURI().toURL()}, getClass().getClassLoader());
+		assertNull(ModelAccessors.forClass(loader.loadClass("model.Secret")));
+	}
+
+	@Test
+	public void shouldNotGenerateAccessorForShadowedField()
+	throws Exception
+	{
+		source("model/Named.java",
+			"package model;",
+			"public class Named {",
+			"  public String name;",
+			"}");
+		source("model/Shadowing.java",
+			"package model;",
+			"@com.strategicgains.hyperexpress.annotation.HyperExpressModel",
+			"public class Shadowing extends Named {",
+			"  public String name;",
+			"}");
+
+		assertTrue(compile());
+		assertFalse(new File(classDir, "model/Shadowing_HyperExpressAccessor.class").exists());
+		assertTrue(hasWarning("shadowed"));
+	}
+
+	private void source(String path, String... lines)
+	throws IOException
+	{
+		File file = new File(sourceDir, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+	}
+
+	private boolean compile()
+	throws IOException
+	{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		List<File> sources = new ArrayList<>();
+		collect(sourceDir, sources);
+
+		try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8))
+		{
+			String classpath = new File(Resource.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+			JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics,
+				Arrays.asList("-classpath", classpath, "-d", classDir.getPath()), null,
+				files.getJavaFileObjectsFromFiles(sources));
+			task.setProcessors(Arrays.asList(new ModelAccessorProcessor()));
+			return task.call();
+		}
+	}
+
+	private void collect(File dir, List<File> sources)
+	{
+		for (File file : dir.listFiles())
+		{
+			if (file.isDirectory())
+			{
+				collect(file, sources);
+			}
+			else if (file.getName().endsWith(".java"))
+			{
+				sources.add(file);
+			}
+		}
+	}
+
+	private boolean hasWarning(String text)
+	{
+		for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics())
+		{
+			if (d.getKind() == Diagnostic.Kind.WARNING && d.getMessage(null).contains(text)) return true;
+		}
+
+		return false;
+	}
+}
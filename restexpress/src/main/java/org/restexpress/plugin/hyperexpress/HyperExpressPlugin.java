@@ -15,6 +15,10 @@
  */
 package org.restexpress.plugin.hyperexpress;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.restexpress.ContentType;
 import org.restexpress.RestExpress;
 import org.restexpress.plugin.AbstractPlugin;
@@ -23,6 +27,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.strategicgains.hyperexpress.HyperExpress;
 import com.strategicgains.hyperexpress.ResourceFactoryStrategy;
 import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.ResourceArena;
 import com.strategicgains.hyperexpress.domain.hal.HalResourceFactory;
 import com.strategicgains.hyperexpress.domain.siren.SirenResourceFactory;
 import com.strategicgains.hyperexpress.expand.Expander;
@@ -44,6 +49,22 @@ import com.strategicgains.hyperexpress.expand.ExpansionCallback;
  * 'application/hal+json' content types. Note that there are possibly other
  * configuration options on the factory, such as HalResourceFactory, which can
  * be configured before passing it to addResourceFactory().
+ * <p/>
+ * For high-volume endpoints, HAL responses may be streamed straight from the domain
+ * objects, without building intermediate HalResource instances, by flagging routes with
+ * {@link #STREAM_HAL} or by calling streamHal() for the domain types. This requires the
+ * StreamingHalResourceSerializer to be registered with Jackson (see the HyperExpress-HAL
+ * README) and is skipped for requests that ask for expansion.
+ * <p/>
+ * Collection routes flagged with {@link #LAZY_COLLECTIONS} embed their components lazily,
+ * creating each embedded Resource as the response is serialized (for any media type),
+ * so large pages are not held in memory as Resources all at once. This is also skipped
+ * for requests that ask for expansion.
+ * <p/>
+ * To reduce garbage under sustained load, recycleResources() creates each request's
+ * Resources in a ResourceArena, which is released once the response is serialized, so the
+ * resources are reset and reused by later requests. Responses must then not be retained
+ * beyond the request.
  * 
  * @author toddf
  * @since May 7, 2014
@@ -51,8 +72,24 @@ import com.strategicgains.hyperexpress.expand.ExpansionCallback;
 public class HyperExpressPlugin
 extends AbstractPlugin
 {
+	/**
+	 * Route flag that causes HAL responses for the route to be streamed. For example:
+	 * <code>server.uri("/blogs", controller).flag(HyperExpressPlugin.STREAM_HAL);</code>
+	 */
+	public static final String STREAM_HAL = "hyperexpress.streamHal";
+
+	/**
+	 * Route flag that causes collection resources for the route to create their embedded
+	 * resources lazily, during serialization. For example:
+	 * <code>server.uri("/blogs", controller).flag(HyperExpressPlugin.LAZY_COLLECTIONS);</code>
+	 */
+	public static final String LAZY_COLLECTIONS = "hyperexpress.lazyCollections";
+
 	private Class<?> domainMarkerClass;
 	private boolean usesCustomFactory = false;
+	private Set<Class<?>> streamedTypes = new HashSet<Class<?>>();
+	private boolean isRecycling = false;
+	private boolean isDebugArena = false;
 
 	/**
 	 * Default constructor. Use this constructor if your domain classes
@@ -93,7 +130,12 @@ extends AbstractPlugin
 		if (isRegistered()) return this;
 
 		server.addPreprocessor(new RequestHeaderTokenBinder())
-		    .addPostprocessor(new HyperExpressPostprocessor(domainMarkerClass));
+		    .addPostprocessor(new HyperExpressPostprocessor(domainMarkerClass, streamedTypes, isRecycling, isDebugArena));
+
+		if (isRecycling)
+		{
+			server.addFinallyProcessor(new ResourceArenaReleaser());
+		}
 
 		return (HyperExpressPlugin) super.register(server);
 	}
@@ -132,6 +174,50 @@ extends AbstractPlugin
 		return this;
 	}
 
+	/**
+	 * Stream HAL responses for the given domain types (or collections of them) straight
+	 * from the domain objects, instead of first converting them into HalResource instances.
+	 * Requires the StreamingHalResourceSerializer to be registered with Jackson.
+	 * 
+	 * @param types the domain types to stream.
+	 * @return this plugin to facilitate method chaining.
+	 * @see #STREAM_HAL
+	 */
+	public HyperExpressPlugin streamHal(Class<?>... types)
+	{
+		streamedTypes.addAll(Arrays.asList(types));
+		return this;
+	}
+
+	/**
+	 * Recycle the Resources created for each request, once the response is serialized.
+	 * Must be called before register().
+	 * 
+	 * @return this plugin to facilitate method chaining.
+	 * @see ResourceArena
+	 */
+	public HyperExpressPlugin recycleResources()
+	{
+		return recycleResources(false);
+	}
+
+	/**
+	 * Recycle the Resources created for each request, once the response is serialized.
+	 * In debug mode, released resources are not reused, but throw IllegalStateException
+	 * if used, to detect responses retained beyond the request. Must be called before
+	 * register().
+	 * 
+	 * @param isDebug true to detect use of resources after release.
+	 * @return this plugin to facilitate method chaining.
+	 * @see ResourceArena
+	 */
+	public HyperExpressPlugin recycleResources(boolean isDebug)
+	{
+		this.isRecycling = true;
+		this.isDebugArena = isDebug;
+		return this;
+	}
+
 	/**
 	 * Convenience method to register an {@link ExpansionCallback}
 	 * implementation with HyperExpress. This method actually simply registers
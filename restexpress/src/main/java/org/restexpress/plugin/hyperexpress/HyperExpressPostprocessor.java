@@ -19,6 +19,8 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 
 import org.restexpress.Request;
 import org.restexpress.Response;
@@ -27,6 +29,9 @@ import org.restexpress.plugin.hyperexpress.expand.ExpansionParser;
 
 import com.strategicgains.hyperexpress.HyperExpress;
 import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.ResourceArena;
+import com.strategicgains.hyperexpress.domain.hal.HalResource;
+import com.strategicgains.hyperexpress.domain.hal.StreamingHalResource;
 import com.strategicgains.hyperexpress.exception.ResourceException;
 import com.strategicgains.hyperexpress.expand.Expander;
 import com.strategicgains.hyperexpress.expand.Expansion;
@@ -39,6 +44,22 @@ import com.strategicgains.hyperexpress.expand.Expansion;
  * This postprocessor works in conjunction with HyperExpress relationship definitions, token bindings
  * and Jackson-based custom serializers. It will copy any extenders of the domainMarkerClass into
  * an instance of Resource, depending on the content type of the requested Accept header.
+ * <p/>
+ * If HAL streaming is enabled for the route (see HyperExpressPlugin.STREAM_HAL) or the domain
+ * type, and no expansion is requested, the body is instead wrapped in a StreamingHalResource,
+ * which is rendered straight from the domain objects when the response is serialized.
+ * Likewise, collection routes flagged with HyperExpressPlugin.LAZY_COLLECTIONS create their
+ * embedded resources lazily, as the response is serialized.
+ * <p/>
+ * The embedded resources of a collection are expanded with one call to the Expander, so a
+ * BatchExpansionCallback registered for the component type sees them all at once.
+ * <p/>
+ * If resource recycling is enabled (see HyperExpressPlugin.recycleResources()), the resources
+ * are created in a ResourceArena, which is attached to the request as {@link #RESOURCE_ARENA}
+ * and released by a ResourceArenaReleaser once the response is serialized.
+ * <p/>
+ * The current thread's token bindings are cleared when processing completes, whether or
+ * not a resource was created.
  * 
  * @author toddf
  * @since Apr 21, 2014
@@ -47,22 +68,76 @@ import com.strategicgains.hyperexpress.expand.Expansion;
 public class HyperExpressPostprocessor
 implements Postprocessor
 {
+	/**
+	 * The name of the request attachment holding the ResourceArena, if resources are recycled.
+	 */
+	public static final String RESOURCE_ARENA = "hyperexpress.resourceArena";
+
 	private Class<?> resourceMarker;
+	private Set<Class<?>> streamedTypes;
+	private boolean isRecycling = false;
+	private boolean isDebugArena = false;
 
 	public HyperExpressPostprocessor(Class<?> resourceMarkerClass)
+	{
+		this(resourceMarkerClass, Collections.<Class<?>> emptySet());
+	}
+
+	/**
+	 * @param resourceMarkerClass the base class or interface of the linkable domain objects.
+	 * @param streamedTypes the domain types for which HAL responses are streamed.
+	 */
+	public HyperExpressPostprocessor(Class<?> resourceMarkerClass, Set<Class<?>> streamedTypes)
 	{
 		super();
 		this.resourceMarker = resourceMarkerClass;
+		this.streamedTypes = streamedTypes;
+	}
+
+	/**
+	 * @param resourceMarkerClass the base class or interface of the linkable domain objects.
+	 * @param streamedTypes the domain types for which HAL responses are streamed.
+	 * @param isRecycling true to create resources in a ResourceArena, to be recycled once serialized.
+	 * @param isDebugArena true to detect (instead of recycle) released resources. See ResourceArena.
+	 */
+	public HyperExpressPostprocessor(Class<?> resourceMarkerClass, Set<Class<?>> streamedTypes, boolean isRecycling, boolean isDebugArena)
+	{
+		this(resourceMarkerClass, streamedTypes);
+		this.isRecycling = isRecycling;
+		this.isDebugArena = isDebugArena;
 	}
 
     @Override
 	public void process(Request request, Response response)
+	{
+		ResourceArena arena = (isRecycling ? new ResourceArena(isDebugArena).enter() : null);
+
+		// Always clear this thread's bindings, even if resource creation fails,
+		// so they don't linger on (and leak into later requests of) a pooled thread.
+		// Likewise, always attach the arena, so the ResourceArenaReleaser releases it.
+		try
+		{
+			createResource(request, response);
+		}
+		finally
+		{
+			HyperExpress.clearTokenBindings();
+
+			if (arena != null)
+			{
+				arena.exit();
+				request.putAttachment(RESOURCE_ARENA, arena);
+			}
+		}
+	}
+
+	private void createResource(Request request, Response response)
 	{
 		Object body = response.getBody();
 
 		if (body == null || !response.isSerialized()) return;
 
-		Resource resource = null;
+		Object resource = null;
 		Class<?> bodyClass = body.getClass();
 		Expansion expansion = ExpansionParser.parseFrom(request, response);
 
@@ -70,8 +145,16 @@ implements Postprocessor
 		{
 			if (isMarkerClass(bodyClass))
 			{
-				resource = HyperExpress.createResource(body, expansion.getMediaType());
-				Expander.expand(expansion, bodyClass, resource);
+				if (isStreamed(request, bodyClass, expansion))
+				{
+					resource = StreamingHalResource.of(body, HyperExpress.detachTokenResolver());
+				}
+				else
+				{
+					Resource r = HyperExpress.createResource(body, expansion.getMediaType());
+					Expander.expand(expansion, bodyClass, r);
+					resource = r;
+				}
 			}
 			else if (isCollection(bodyClass))
 			{
@@ -83,9 +166,22 @@ implements Postprocessor
 	
 					if (resourceMarker.isAssignableFrom((Class<?>) t))
 					{
-						String componentRel = HyperExpress.relationships().getCollectionRelFor((Class<?>) t);
-						resource = HyperExpress.createCollectionResource((Collection<?>) body, (Class<?>) t, componentRel, expansion.getMediaType());
-				    	Expander.expand(expansion, (Class<?>) t, resource.getResources(componentRel));
+						String componentRel = HyperExpress.compiledRelationships().getCollectionRelFor((Class<?>) t);
+
+						if (isStreamed(request, (Class<?>) t, expansion))
+						{
+							resource = StreamingHalResource.ofCollection((Collection<?>) body, (Class<?>) t, componentRel, HyperExpress.detachTokenResolver());
+						}
+						else if (isLazy(request, expansion))
+						{
+							resource = HyperExpress.createLazyCollectionResource(((Collection<?>) body).iterator(), (Class<?>) t, componentRel, expansion.getMediaType(), HyperExpress.detachTokenResolver());
+						}
+						else
+						{
+							Resource r = HyperExpress.createCollectionResource((Collection<?>) body, (Class<?>) t, componentRel, expansion.getMediaType());
+					    	Expander.expand(expansion, (Class<?>) t, r.getResources(componentRel));
+					    	resource = r;
+						}
 					}
 				}
 			}
@@ -93,10 +189,25 @@ implements Postprocessor
 			{
 				if (isMarkerClass(bodyClass.getComponentType()))
 				{
-					String componentRel = HyperExpress.relationships().getCollectionRelFor(bodyClass.getComponentType());
-					resource = HyperExpress.createCollectionResource(Arrays.asList((Object[]) body),
-						bodyClass.getComponentType(), componentRel, expansion.getMediaType());
-			    	Expander.expand(expansion, bodyClass.getComponentType(), resource.getResources(componentRel));
+					String componentRel = HyperExpress.compiledRelationships().getCollectionRelFor(bodyClass.getComponentType());
+
+					if (isStreamed(request, bodyClass.getComponentType(), expansion))
+					{
+						resource = StreamingHalResource.ofCollection(Arrays.asList((Object[]) body),
+							bodyClass.getComponentType(), componentRel, HyperExpress.detachTokenResolver());
+					}
+					else if (isLazy(request, expansion))
+					{
+						resource = HyperExpress.createLazyCollectionResource(Arrays.asList((Object[]) body).iterator(),
+							bodyClass.getComponentType(), componentRel, expansion.getMediaType(), HyperExpress.detachTokenResolver());
+					}
+					else
+					{
+						Resource r = HyperExpress.createCollectionResource(Arrays.asList((Object[]) body),
+							bodyClass.getComponentType(), componentRel, expansion.getMediaType());
+				    	Expander.expand(expansion, bodyClass.getComponentType(), r.getResources(componentRel));
+				    	resource = r;
+					}
 				}
 			}
 		}
@@ -109,8 +220,27 @@ implements Postprocessor
 		{
 			response.setBody(resource);
 		}
+	}
 
-		HyperExpress.clearTokenBindings();
+	/**
+	 * Answers whether to stream a HAL response for the given domain type, instead of
+	 * creating a Resource. Expansion requires a Resource, so is never streamed.
+	 */
+	private boolean isStreamed(Request request, Class<?> type, Expansion expansion)
+	{
+		if (!expansion.isEmpty()) return false;
+		if (!request.isFlagged(HyperExpressPlugin.STREAM_HAL) && !streamedTypes.contains(type)) return false;
+
+		return HalResource.class.isAssignableFrom(HyperExpress.getResourceType(expansion.getMediaType()));
+	}
+
+	/**
+	 * Answers whether to embed a collection's components lazily. Expansion iterates the
+	 * embedded resources, so is never combined with lazy collections.
+	 */
+	private boolean isLazy(Request request, Expansion expansion)
+	{
+		return (expansion.isEmpty() && request.isFlagged(HyperExpressPlugin.LAZY_COLLECTIONS));
 	}
 
 	private boolean isMarkerClass(Class<?> aClass)
@@ -0,0 +1,49 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package org.restexpress.plugin.hyperexpress;
+
+import org.restexpress.Request;
+import org.restexpress.Response;
+import org.restexpress.pipeline.Postprocessor;
+
+import com.strategicgains.hyperexpress.domain.ResourceArena;
+
+/**
+ * A RestExpress 'finally' processor that releases the ResourceArena attached to the request by
+ * HyperExpressPostprocessor, once the response has been serialized, so its resources are
+ * recycled by later requests. RestExpress runs 'finally' processors whether or not the request
+ * succeeded, so the arena is released on error paths too. The attachment is cleared first, so the
+ * arena is released only once.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see HyperExpressPlugin#recycleResources()
+ */
+public class ResourceArenaReleaser
+implements Postprocessor
+{
+	@Override
+	public void process(Request request, Response response)
+	{
+		ResourceArena arena = (ResourceArena) request.getAttachment(HyperExpressPostprocessor.RESOURCE_ARENA);
+
+		if (arena != null)
+		{
+			request.putAttachment(HyperExpressPostprocessor.RESOURCE_ARENA, null);
+			arena.release();
+		}
+	}
+}
@@ -41,34 +41,49 @@ implements Resource
 
 	public String getTitle()
 	{
+		assertNotReleased();
 		return title;
 	}
 
 	public SirenResource setTitle(String title)
 	{
+		assertNotReleased();
 		this.title = title;
 		return this;
 	}
 
 	public SirenResource addClass(String className)
 	{
+		assertNotReleased();
 		classes.add(className);
 		return this;
 	}
 
 	public Collection<String> getClasses()
 	{
+		assertNotReleased();
 		return Collections.unmodifiableSet(classes);
 	}
 
 	public SirenResource addAction(SirenAction action)
 	{
+		assertNotReleased();
 		actions.add(action);
 		return this;
 	}
 
 	public Collection<SirenAction> getActions()
 	{
+		assertNotReleased();
 		return Collections.unmodifiableCollection(actions);
 	}
+
+	@Override
+	protected void reset()
+	{
+		super.reset();
+		title = null;
+		classes.clear();
+		actions.clear();
+	}
 }
@@ -17,6 +17,7 @@ package com.strategicgains.hyperexpress.domain.siren;
 
 import com.strategicgains.hyperexpress.AbstractResourceFactoryStrategy;
 import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.ResourcePool;
 
 /**
  * SirenResourceFactory is a ResourceFactoryStrategy implementation that creates
@@ -24,6 +25,8 @@ import com.strategicgains.hyperexpress.domain.Resource;
  * <p/>
  * It can be used by itself or added to a ResourceFactory implementation, such as
  * DefaultResourceFactory, with a given content type.
+ * <p/>
+ * Resources are acquired from a ResourcePool, so are recycled while a ResourceArena is in use.
  * 
  * @author toddf
  * @since Sep 12, 2014
@@ -31,10 +34,19 @@ import com.strategicgains.hyperexpress.domain.Resource;
 public class SirenResourceFactory
 extends AbstractResourceFactoryStrategy
 {
+	private static final ResourcePool<SirenResource> POOL = new ResourcePool<SirenResource>()
+	{
+		@Override
+		protected SirenResource create()
+		{
+			return new SirenResource();
+		}
+	};
+
 	@Override
 	public Resource createResource(Object object)
 	{
-		Resource r = new SirenResource();
+		Resource r = POOL.acquire();
 
 		if (object != null)
 		{
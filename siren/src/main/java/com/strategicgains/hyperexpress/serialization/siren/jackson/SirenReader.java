@@ -0,0 +1,590 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.siren.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.strategicgains.hyperexpress.domain.siren.SirenAction;
+import com.strategicgains.hyperexpress.domain.siren.SirenField;
+import com.strategicgains.hyperexpress.domain.siren.SirenLink;
+import com.strategicgains.hyperexpress.domain.siren.TypedSirenResource;
+import com.strategicgains.hyperexpress.serialization.siren.jackson.SirenVisitor.Section;
+
+/**
+ * Reads a Siren document in a single forward pass, calling back a SirenVisitor for
+ * each entity, link, property and action as the parser encounters them. No tree or
+ * SirenResource is built, so memory use is constant regardless of the size of the
+ * document's entities arrays.
+ * <p/>
+ * Usage:
+ * <pre>
+ * new SirenReader(objectMapper).read(inputStream, new SirenVisitorAdapter()
+ * {
+ *     public boolean startSection(Section section, int depth)
+ *     {
+ *         return (section == Section.ENTITIES || section == Section.LINKS);
+ *     }
+ *
+ *     public void visitLink(SirenLink link)
+ *     {
+ *         ...
+ *     }
+ * });
+ * </pre>
+ * <p/>
+ * Alternatively, read(..., Class) builds the resource graph, binding the properties
+ * of the root entity (and those of sub-entities with a type registered for their rel
+ * via entity()) into domain classes with the codec, during the same pass:
+ * <pre>
+ * TypedSirenResource&lt;Order&gt; order = new SirenReader(objectMapper)
+ *     .entity("customer", Customer.class)
+ *     .read(inputStream, Order.class);
+ * </pre>
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class SirenReader
+{
+	private static final String CLASS = "class";
+	private static final String TITLE = "title";
+	private static final String REL = "rel";
+	private static final String PROPERTIES = "properties";
+	private static final String ENTITIES = "entities";
+	private static final String LINKS = "links";
+	private static final String ACTIONS = "actions";
+	private static final String NAME = "name";
+	private static final String METHOD = "method";
+	private static final String HREF = "href";
+	private static final String TYPE = "type";
+	private static final String VALUE = "value";
+	private static final String FIELDS = "fields";
+
+	private JsonFactory factory;
+	private ObjectCodec codec;
+	private Map<String, Class<?>> entityTypes = new HashMap<String, Class<?>>();
+
+	/**
+	 * Create a SirenReader whose parsers have no codec. Visitors will not be able to
+	 * use readValueAs() when visiting properties.
+	 */
+	public SirenReader()
+	{
+		this(new JsonFactory());
+	}
+
+	/**
+	 * Create a SirenReader that creates its parsers with the given factory.
+	 * 
+	 * @param factory a JsonFactory
+	 */
+	public SirenReader(JsonFactory factory)
+	{
+		super();
+		this.factory = factory;
+	}
+
+	/**
+	 * Create a SirenReader whose parsers use the given codec (e.g. an ObjectMapper),
+	 * so visitors may bind property values with readValueAs().
+	 * 
+	 * @param codec an ObjectCodec
+	 */
+	public SirenReader(ObjectCodec codec)
+	{
+		this(codec.getFactory());
+		this.codec = codec;
+	}
+
+	/**
+	 * Bind the properties of sub-entities with the given rel into the given type,
+	 * when reading typed resources.
+	 * 
+	 * @param rel a sub-entity relation type.
+	 * @param type the type to bind those entities' properties into.
+	 * @return this SirenReader to facilitate method chaining.
+	 */
+	public SirenReader entity(String rel, Class<?> type)
+	{
+		entityTypes.put(rel, type);
+		return this;
+	}
+
+	public void read(InputStream in, SirenVisitor visitor)
+	throws IOException
+	{
+		try (JsonParser jp = factory.createParser(in))
+		{
+			read(jp, visitor);
+		}
+	}
+
+	public void read(String json, SirenVisitor visitor)
+	throws IOException
+	{
+		try (JsonParser jp = factory.createParser(json))
+		{
+			read(jp, visitor);
+		}
+	}
+
+	public <T> TypedSirenResource<T> read(InputStream in, Class<T> type)
+	throws IOException
+	{
+		try (JsonParser jp = factory.createParser(in))
+		{
+			return read(jp, type);
+		}
+	}
+
+	public <T> TypedSirenResource<T> read(String json, Class<T> type)
+	throws IOException
+	{
+		try (JsonParser jp = factory.createParser(json))
+		{
+			return read(jp, type);
+		}
+	}
+
+	/**
+	 * Read the Siren entity at the parser's current position into a resource graph,
+	 * binding the entity's properties into an instance of the given type.
+	 * 
+	 * @param jp a JsonParser
+	 * @param type the type to bind the root entity's properties into.
+	 * @return a TypedSirenResource containing the bound properties.
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> TypedSirenResource<T> read(JsonParser jp, Class<T> type)
+	throws IOException
+	{
+		ObjectCodec bindWith = (jp.getCodec() != null ? jp.getCodec() : codec);
+
+		if (bindWith == null)
+		{
+			throw new IllegalStateException("Binding properties requires a SirenReader created with an ObjectCodec");
+		}
+
+		jp.setCodec(bindWith);
+		SirenResourceBuilder builder = new SirenResourceBuilder(bindWith, type, entityTypes);
+		read(jp, builder);
+		return (TypedSirenResource<T>) builder.getRoot();
+	}
+
+	/**
+	 * Read the Siren entity at the parser's current position (or its next token, if
+	 * it has none), leaving the parser on the entity's END_OBJECT token.
+	 * 
+	 * @param jp a JsonParser
+	 * @param visitor the callbacks.
+	 * @throws IOException
+	 */
+	public void read(JsonParser jp, SirenVisitor visitor)
+	throws IOException
+	{
+		JsonToken t = jp.getCurrentToken();
+
+		if (t == null)
+		{
+			t = jp.nextToken();
+		}
+
+		if (t != JsonToken.START_OBJECT && t != JsonToken.FIELD_NAME && t != JsonToken.END_OBJECT)
+		{
+			throw new JsonParseException("Expected a Siren entity object but found " + t, jp.getCurrentLocation());
+		}
+
+		readEntity(jp, visitor, 0);
+	}
+
+	private void readEntity(JsonParser jp, SirenVisitor visitor, int depth)
+	throws IOException
+	{
+		boolean isVisited = visitor.startEntity(depth);
+		boolean isSkipping = !isVisited;
+		JsonToken t = jp.getCurrentToken();
+
+		if (t == JsonToken.START_OBJECT)
+		{
+			if (isSkipping)
+			{
+				jp.skipChildren();
+				return;
+			}
+
+			t = jp.nextToken();
+		}
+
+		for (; t == JsonToken.FIELD_NAME; t = jp.nextToken())
+		{
+			String name = jp.getCurrentName();
+			jp.nextToken();
+
+			if (isSkipping)
+			{
+				jp.skipChildren();
+			}
+			else if (REL.equals(name))
+			{
+				isSkipping = !readRels(jp, visitor);
+			}
+			else if (CLASS.equals(name))
+			{
+				readClasses(jp, visitor);
+			}
+			else if (TITLE.equals(name))
+			{
+				visitor.visitTitle(readText(jp));
+			}
+			else if (LINKS.equals(name))
+			{
+				if (enter(jp, visitor, Section.LINKS, depth)) readLinks(jp, visitor);
+			}
+			else if (ENTITIES.equals(name))
+			{
+				if (enter(jp, visitor, Section.ENTITIES, depth)) readEntities(jp, visitor, depth + 1);
+			}
+			else if (PROPERTIES.equals(name))
+			{
+				if (enter(jp, visitor, Section.PROPERTIES, depth)) readProperties(jp, visitor);
+			}
+			else if (ACTIONS.equals(name))
+			{
+				if (enter(jp, visitor, Section.ACTIONS, depth)) readActions(jp, visitor);
+			}
+			else
+			{
+				jp.skipChildren();
+			}
+		}
+
+		if (isVisited)
+		{
+			visitor.endEntity(depth);
+		}
+	}
+
+	/**
+	 * Ask the visitor whether to read a section, skipping it if not.
+	 */
+	private boolean enter(JsonParser jp, SirenVisitor visitor, Section section, int depth)
+	throws IOException
+	{
+		if (visitor.startSection(section, depth)) return true;
+
+		jp.skipChildren();
+		return false;
+	}
+
+	private boolean readRels(JsonParser jp, SirenVisitor visitor)
+	throws IOException
+	{
+		if (jp.getCurrentToken() != JsonToken.START_ARRAY)
+		{
+			return visitor.visitRel(readText(jp));
+		}
+
+		while (jp.nextToken() != JsonToken.END_ARRAY)
+		{
+			if (!visitor.visitRel(readText(jp)))
+			{
+				jp.skipChildren();
+
+				while (jp.nextToken() != JsonToken.END_ARRAY)
+				{
+					jp.skipChildren();
+				}
+
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void readClasses(JsonParser jp, SirenVisitor visitor)
+	throws IOException
+	{
+		if (jp.getCurrentToken() != JsonToken.START_ARRAY)
+		{
+			visitor.visitClass(readText(jp));
+			return;
+		}
+
+		while (jp.nextToken() != JsonToken.END_ARRAY)
+		{
+			visitor.visitClass(readText(jp));
+		}
+	}
+
+	private void readLinks(JsonParser jp, SirenVisitor visitor)
+	throws IOException
+	{
+		if (jp.getCurrentToken() != JsonToken.START_ARRAY)
+		{
+			jp.skipChildren();
+			return;
+		}
+
+		while (jp.nextToken() != JsonToken.END_ARRAY)
+		{
+			if (jp.getCurrentToken() == JsonToken.START_OBJECT)
+			{
+				visitor.visitLink(readLink(jp));
+			}
+			else
+			{
+				jp.skipChildren();
+			}
+		}
+	}
+
+	private SirenLink readLink(JsonParser jp)
+	throws IOException
+	{
+		SirenLink link = new SirenLink();
+
+		while (jp.nextToken() == JsonToken.FIELD_NAME)
+		{
+			String name = jp.getCurrentName();
+			JsonToken t = jp.nextToken();
+
+			if (REL.equals(name))
+			{
+				if (t == JsonToken.START_ARRAY)
+				{
+					while (jp.nextToken() != JsonToken.END_ARRAY)
+					{
+						link.addRel(readText(jp));
+					}
+				}
+				else
+				{
+					link.addRel(readText(jp));
+				}
+			}
+			else if (HREF.equals(name))
+			{
+				link.setHref(readText(jp));
+			}
+			else if (TITLE.equals(name))
+			{
+				link.setTitle(readText(jp));
+			}
+			else if (TYPE.equals(name))
+			{
+				link.setType(readText(jp));
+			}
+			else
+			{
+				jp.skipChildren();
+			}
+		}
+
+		return link;
+	}
+
+	private void readEntities(JsonParser jp, SirenVisitor visitor, int depth)
+	throws IOException
+	{
+		if (jp.getCurrentToken() != JsonToken.START_ARRAY)
+		{
+			jp.skipChildren();
+			return;
+		}
+
+		while (jp.nextToken() != JsonToken.END_ARRAY)
+		{
+			if (jp.getCurrentToken() == JsonToken.START_OBJECT)
+			{
+				readEntity(jp, visitor, depth);
+			}
+			else
+			{
+				jp.skipChildren();
+			}
+		}
+	}
+
+	private void readProperties(JsonParser jp, SirenVisitor visitor)
+	throws IOException
+	{
+		if (jp.getCurrentToken() != JsonToken.START_OBJECT)
+		{
+			jp.skipChildren();
+			return;
+		}
+
+		while (jp.nextToken() == JsonToken.FIELD_NAME)
+		{
+			String name = jp.getCurrentName();
+			jp.nextToken();
+			visitor.visitProperty(name, jp);
+
+			// The visitor left a structured value untouched.
+			JsonToken t = jp.getCurrentToken();
+
+			if (t == JsonToken.START_OBJECT || t == JsonToken.START_ARRAY)
+			{
+				jp.skipChildren();
+			}
+		}
+	}
+
+	private void readActions(JsonParser jp, SirenVisitor visitor)
+	throws IOException
+	{
+		if (jp.getCurrentToken() != JsonToken.START_ARRAY)
+		{
+			jp.skipChildren();
+			return;
+		}
+
+		while (jp.nextToken() != JsonToken.END_ARRAY)
+		{
+			if (jp.getCurrentToken() == JsonToken.START_OBJECT)
+			{
+				visitor.visitAction(readAction(jp));
+			}
+			else
+			{
+				jp.skipChildren();
+			}
+		}
+	}
+
+	private SirenAction readAction(JsonParser jp)
+	throws IOException
+	{
+		SirenAction action = new SirenAction();
+
+		while (jp.nextToken() == JsonToken.FIELD_NAME)
+		{
+			String name = jp.getCurrentName();
+			JsonToken t = jp.nextToken();
+
+			if (NAME.equals(name))
+			{
+				action.setName(readText(jp));
+			}
+			else if (CLASS.equals(name) && t == JsonToken.START_ARRAY)
+			{
+				while (jp.nextToken() != JsonToken.END_ARRAY)
+				{
+					action.addClass(readText(jp));
+				}
+			}
+			else if (METHOD.equals(name))
+			{
+				action.setMethod(readText(jp));
+			}
+			else if (HREF.equals(name))
+			{
+				action.setHref(readText(jp));
+			}
+			else if (TITLE.equals(name))
+			{
+				action.setTitle(readText(jp));
+			}
+			else if (TYPE.equals(name))
+			{
+				action.setType(readText(jp));
+			}
+			else if (FIELDS.equals(name) && t == JsonToken.START_ARRAY)
+			{
+				while (jp.nextToken() != JsonToken.END_ARRAY)
+				{
+					if (jp.getCurrentToken() == JsonToken.START_OBJECT)
+					{
+						action.addField(readField(jp));
+					}
+					else
+					{
+						jp.skipChildren();
+					}
+				}
+			}
+			else
+			{
+				jp.skipChildren();
+			}
+		}
+
+		return action;
+	}
+
+	private SirenField readField(JsonParser jp)
+	throws IOException
+	{
+		SirenField field = new SirenField();
+
+		while (jp.nextToken() == JsonToken.FIELD_NAME)
+		{
+			String name = jp.getCurrentName();
+			jp.nextToken();
+
+			if (NAME.equals(name))
+			{
+				field.setName(readText(jp));
+			}
+			else if (TYPE.equals(name))
+			{
+				field.setType(readText(jp));
+			}
+			else if (VALUE.equals(name))
+			{
+				field.setValue(readText(jp));
+			}
+			else if (TITLE.equals(name))
+			{
+				field.setTitle(readText(jp));
+			}
+			else
+			{
+				jp.skipChildren();
+			}
+		}
+
+		return field;
+	}
+
+	/**
+	 * Answer the current scalar value as text, or null for a JSON null. Nested objects
+	 * and arrays are skipped and read as null.
+	 */
+	private String readText(JsonParser jp)
+	throws IOException
+	{
+		JsonToken t = jp.getCurrentToken();
+
+		if (t == JsonToken.START_OBJECT || t == JsonToken.START_ARRAY)
+		{
+			jp.skipChildren();
+			return null;
+		}
+
+		return (t == JsonToken.VALUE_NULL ? null : jp.getText());
+	}
+}
@@ -0,0 +1,245 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.siren.jackson;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.strategicgains.hyperexpress.domain.LinkDefinition;
+import com.strategicgains.hyperexpress.domain.siren.SirenAction;
+import com.strategicgains.hyperexpress.domain.siren.SirenLink;
+import com.strategicgains.hyperexpress.domain.siren.SirenResource;
+import com.strategicgains.hyperexpress.domain.siren.TypedSirenResource;
+
+/**
+ * A SirenVisitor that assembles the visited entities into SirenResource instances.
+ * Sub-entities are embedded using their first rel; those without a rel are ignored,
+ * as Siren requires one.
+ * <p/>
+ * Untyped, properties are set on each resource as text. Typed, every entity is a
+ * TypedSirenResource and its properties are collected as tokens, then bound by the
+ * codec into the root type or the type registered for the entity's rel when the
+ * entity ends (the rel may follow the properties). Entities without a type keep
+ * their properties as text.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+class SirenResourceBuilder
+extends SirenVisitorAdapter
+{
+	private Deque<Frame> frames = new ArrayDeque<Frame>();
+	private ObjectCodec codec;
+	private Class<?> rootType;
+	private Map<String, Class<?>> entityTypes;
+	private SirenResource root;
+
+	/**
+	 * Create an untyped builder.
+	 */
+	SirenResourceBuilder()
+	{
+		this(null, null, Collections.<String, Class<?>> emptyMap());
+	}
+
+	/**
+	 * Create a typed builder.
+	 * 
+	 * @param codec the codec used to bind properties.
+	 * @param rootType the type of the root entity's properties.
+	 * @param entityTypes the property types of sub-entities, by rel.
+	 */
+	SirenResourceBuilder(ObjectCodec codec, Class<?> rootType, Map<String, Class<?>> entityTypes)
+	{
+		super();
+		this.codec = codec;
+		this.rootType = rootType;
+		this.entityTypes = entityTypes;
+	}
+
+	public SirenResource getRoot()
+	{
+		return root;
+	}
+
+	private boolean isTyped()
+	{
+		return (rootType != null);
+	}
+
+	@Override
+	public boolean startEntity(int depth)
+	{
+		frames.push(new Frame(isTyped() ? new TypedSirenResource<Object>() : new SirenResource()));
+		return true;
+	}
+
+	@Override
+	public boolean visitRel(String rel)
+	{
+		Frame frame = frames.peek();
+
+		if (frame.rel == null)
+		{
+			frame.rel = rel;
+		}
+
+		return true;
+	}
+
+	@Override
+	public void visitClass(String className)
+	{
+		frames.peek().resource.addClass(className);
+	}
+
+	@Override
+	public void visitTitle(String title)
+	{
+		frames.peek().resource.setTitle(title);
+	}
+
+	@Override
+	public void visitLink(SirenLink link)
+	{
+		SirenResource resource = frames.peek().resource;
+
+		for (String rel : link.getRel())
+		{
+			resource.addLink(new LinkDefinition(rel, link.getHref())
+				.set(SirenLink.TITLE, link.getTitle())
+				.set(SirenLink.TYPE, link.getType()));
+		}
+	}
+
+	@Override
+	public void visitProperty(String name, JsonParser parser)
+	throws IOException
+	{
+		Frame frame = frames.peek();
+
+		if (isTyped())
+		{
+			if (frame.properties == null)
+			{
+				frame.properties = new TokenBuffer(parser);
+				frame.properties.writeStartObject();
+			}
+
+			frame.properties.writeFieldName(name);
+			frame.properties.copyCurrentStructure(parser);
+		}
+		else
+		{
+			frame.resource.setProperty(name, readText(parser));
+		}
+	}
+
+	@Override
+	public void visitAction(SirenAction action)
+	{
+		frames.peek().resource.addAction(action);
+	}
+
+	@Override
+	public void endEntity(int depth)
+	throws IOException
+	{
+		Frame frame = frames.pop();
+
+		if (isTyped())
+		{
+			bind(frame, (depth == 0 ? rootType : entityTypes.get(frame.rel)));
+		}
+
+		if (frames.isEmpty())
+		{
+			root = frame.resource;
+		}
+		else if (frame.rel != null && !frame.rel.isEmpty())
+		{
+			frames.peek().resource.addResource(frame.rel, frame.resource);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void bind(Frame frame, Class<?> type)
+	throws IOException
+	{
+		if (frame.properties == null)
+		{
+			frame.properties = new TokenBuffer(codec, false);
+			frame.properties.writeStartObject();
+		}
+
+		frame.properties.writeEndObject();
+
+		try (JsonParser bp = frame.properties.asParser(codec))
+		{
+			bp.nextToken();
+
+			if (type != null)
+			{
+				((TypedSirenResource<Object>) frame.resource).setContent(bp.readValueAs(type));
+				return;
+			}
+
+			while (bp.nextToken() == JsonToken.FIELD_NAME)
+			{
+				String name = bp.getCurrentName();
+				bp.nextToken();
+				frame.resource.setProperty(name, readText(bp));
+			}
+		}
+	}
+
+	/**
+	 * Answer the current value as text. Nested objects and arrays are skipped
+	 * and read as an empty string.
+	 */
+	private static String readText(JsonParser jp)
+	throws IOException
+	{
+		JsonToken t = jp.getCurrentToken();
+
+		if (t == JsonToken.START_OBJECT || t == JsonToken.START_ARRAY)
+		{
+			jp.skipChildren();
+			return "";
+		}
+
+		return jp.getText();
+	}
+
+	private static class Frame
+	{
+		SirenResource resource;
+		String rel;
+		TokenBuffer properties;
+
+		Frame(SirenResource resource)
+		{
+			this.resource = resource;
+		}
+	}
+}
@@ -17,7 +17,6 @@ package com.strategicgains.hyperexpress.serialization.siren.jackson;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -25,6 +24,8 @@ import java.util.Map.Entry;
 import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.strategicgains.hyperexpress.domain.Link;
@@ -35,23 +36,29 @@ import com.strategicgains.hyperexpress.domain.siren.SirenLink;
 import com.strategicgains.hyperexpress.domain.siren.SirenResource;
 
 /**
+ * Renders a SirenResource directly with the streaming generator. Field names are
+ * pre-encoded and links sharing an href are merged into a single Siren link (with
+ * multiple rels) in place, without building intermediate SirenLink instances.
+ * 
  * @author toddf
  * @since Sep 12, 2014
  */
 public class SirenResourceSerializer
 extends JsonSerializer<SirenResource>
 {
-	private static final String CLASS = "class";
-	private static final String TITLE = "title";
-	private static final String PROPERTIES = "properties";
-	private static final String ENTITIES = "entities";
-	private static final String LINKS = "links";
-	private static final String ACTIONS = "actions";
-	private static final String NAME = "name";
-	private static final String METHOD = "method";
-	private static final String HREF = "href";
-	private static final String TYPE = "type";
-	private static final String FIELDS = "fields";
+	private static final SerializableString CLASS = new SerializedString("class");
+	private static final SerializableString TITLE = new SerializedString(SirenLink.TITLE);
+	private static final SerializableString PROPERTIES = new SerializedString("properties");
+	private static final SerializableString ENTITIES = new SerializedString("entities");
+	private static final SerializableString LINKS = new SerializedString("links");
+	private static final SerializableString ACTIONS = new SerializedString("actions");
+	private static final SerializableString NAME = new SerializedString("name");
+	private static final SerializableString METHOD = new SerializedString("method");
+	private static final SerializableString HREF = new SerializedString(SirenLink.HREF);
+	private static final SerializableString TYPE = new SerializedString(SirenLink.TYPE);
+	private static final SerializableString REL = new SerializedString(SirenLink.REL);
+	private static final SerializableString VALUE = new SerializedString("value");
+	private static final SerializableString FIELDS = new SerializedString("fields");
 
 	public SirenResourceSerializer()
 	{
@@ -72,7 +79,7 @@ extends JsonSerializer<SirenResource>
 	{
 		writeClass(resource.getClasses(), jgen);
 		writeTitle(resource.getTitle(), jgen);
-		writeLinks(resource, jgen);
+		writeLinks(resource.getLinks(), jgen);
 		writeEntities(resource, jgen);
 		writeProperties(resource.getProperties(), jgen);
 		writeActions(resource.getActions(), jgen);
@@ -81,12 +88,17 @@ extends JsonSerializer<SirenResource>
 	private void writeClass(Collection<String> classes, JsonGenerator jgen)
 	throws IOException
     {
-		if (classes != null && !classes.isEmpty())
+		if (classes == null || classes.isEmpty()) return;
+
+		jgen.writeFieldName(CLASS);
+		jgen.writeStartArray();
+
+		for (String c : classes)
 		{
-			jgen.writeArrayFieldStart(CLASS);
-			jgen.writeObject(classes);
-			jgen.writeEndArray();
+			jgen.writeString(c);
 		}
+
+		jgen.writeEndArray();
     }
 
 	private void writeTitle(String title, JsonGenerator jgen)
@@ -94,56 +106,73 @@ extends JsonSerializer<SirenResource>
     {
 		if (title != null && !title.isEmpty())
 		{
-			jgen.writeObjectFieldStart(TITLE);
-			jgen.writeObject(title);
-			jgen.writeEndObject();
+			jgen.writeFieldName(TITLE);
+			jgen.writeString(title);
 		}
     }
 
-	private void writeLinks(SirenResource resource, JsonGenerator jgen)
+	/**
+	 * Write the links, merging links with the same href into one Siren link
+	 * carrying all their rels. Links are written in the order their href first
+	 * appears. The merge scans the list in place, which for the handful of links
+	 * on a resource is cheaper than allocating an index.
+	 * 
+	 * @param links
+	 * @param jgen
+	 */
+	private void writeLinks(List<Link> links, JsonGenerator jgen)
 	throws JsonGenerationException, IOException
 	{
-		List<Link> links = resource.getLinks();
+		if (links == null || links.isEmpty()) return;
 
-		if (links.isEmpty()) return;
+		jgen.writeFieldName(LINKS);
+		jgen.writeStartArray();
+		int size = links.size();
 
-		jgen.writeArrayFieldStart(LINKS);
-		Map<String, SirenLink> linksByRel = indexLinksByHref(resource.getLinks());
-
-		for (SirenLink link : linksByRel.values())
+		for (int i = 0; i < size; i++)
 		{
-			jgen.writeObject(link);
+			Link link = links.get(i);
+
+			if (!isFirstForHref(links, i, link.getHref())) continue;
+
+			jgen.writeStartObject();
+			jgen.writeFieldName(REL);
+			jgen.writeStartArray();
+			jgen.writeString(link.getRel());
+
+			for (int j = i + 1; j < size; j++)
+			{
+				Link other = links.get(j);
+
+				if (equals(link.getHref(), other.getHref()))
+				{
+					jgen.writeString(other.getRel());
+				}
+			}
+
+			jgen.writeEndArray();
+			writeOptionalField(HREF, link.getHref(), jgen);
+			writeOptionalField(TITLE, link.get(SirenLink.TITLE), jgen);
+			writeOptionalField(TYPE, link.get(SirenLink.TYPE), jgen);
+			jgen.writeEndObject();
 		}
 
 		jgen.writeEndArray();
 	}
 
-	/**
-	 * Index the links by href, adding rels to the links with matching hrefs.
-	 * 
-	 * @param links
-	 * @return
-	 */
-	private Map<String, SirenLink> indexLinksByHref(List<Link> links)
+	private boolean isFirstForHref(List<Link> links, int index, String href)
 	{
-		Map<String, SirenLink> linksByHref = new HashMap<String, SirenLink>();
-
-		for (Link link : links)
+		for (int i = 0; i < index; i++)
 		{
-			SirenLink linkForHref = linksByHref.get(link.getHref());
-
-			if (linkForHref == null)
-			{
-				linkForHref = new SirenLink(link);
-				linksByHref.put(link.getHref(), linkForHref);
-			}
-			else
-			{
-				linkForHref.addRel(link.getRel());
-			}
+			if (equals(href, links.get(i).getHref())) return false;
 		}
 
-		return linksByHref;
+		return true;
+	}
+
+	private static boolean equals(String a, String b)
+	{
+		return (a == null ? b == null : a.equals(b));
 	}
 
 	private void writeEntities(Resource resource, JsonGenerator jgen)
@@ -153,15 +182,19 @@ extends JsonSerializer<SirenResource>
 
 		if (entities == null || entities.isEmpty()) return;
 
-		jgen.writeArrayFieldStart(ENTITIES);
+		jgen.writeFieldName(ENTITIES);
+		jgen.writeStartArray();
 
 		for (Entry<String, List<Resource>> entry : entities.entrySet())
 		{
+			String rel = entry.getKey();
+
 			for (Resource r : entry.getValue())
 			{
 				jgen.writeStartObject();
-				jgen.writeArrayFieldStart("rel");
-				jgen.writeString(entry.getKey());
+				jgen.writeFieldName(REL);
+				jgen.writeStartArray();
+				jgen.writeString(rel);
 				jgen.writeEndArray();
 				renderJson((SirenResource) r, jgen);
 				jgen.writeEndObject();
@@ -176,7 +209,8 @@ extends JsonSerializer<SirenResource>
 	{
 		if (properties == null || properties.isEmpty()) return;
 
-		jgen.writeObjectFieldStart(PROPERTIES);
+		jgen.writeFieldName(PROPERTIES);
+		jgen.writeStartObject();
 
 		for (Entry<String, Object> entry : properties.entrySet())
 		{
@@ -190,8 +224,9 @@ extends JsonSerializer<SirenResource>
 	throws IOException
     {
 		if (actions == null || actions.isEmpty()) return;
-		
-		jgen.writeArrayFieldStart(ACTIONS);
+
+		jgen.writeFieldName(ACTIONS);
+		jgen.writeStartArray();
 
 		for (SirenAction action : actions)
 		{
@@ -208,10 +243,12 @@ extends JsonSerializer<SirenResource>
 
 		jgen.writeStartObject();
 		writeClass(action.getClasses(), jgen);
-		jgen.writeStringField(NAME, action.getName());
-		writeOptionalField("title", action.getTitle(), jgen);
+		jgen.writeFieldName(NAME);
+		jgen.writeString(action.getName());
+		writeOptionalField(TITLE, action.getTitle(), jgen);
 		writeOptionalField(METHOD, action.getMethod(), jgen);
-		jgen.writeStringField(HREF, action.getHref());
+		jgen.writeFieldName(HREF);
+		jgen.writeString(action.getHref());
 		writeOptionalField(TYPE, action.getType(), jgen);
 		writeFields(action.getFields(), jgen);
 		jgen.writeEndObject();
@@ -222,22 +259,31 @@ extends JsonSerializer<SirenResource>
     {
 		if (fields == null) return;
 
-		jgen.writeArrayFieldStart(FIELDS);
+		jgen.writeFieldName(FIELDS);
+		jgen.writeStartArray();
 
 		for (SirenField field : fields)
 		{
-			jgen.writeObject(field);
+			if (field == null) continue;
+
+			jgen.writeStartObject();
+			writeOptionalField(NAME, field.getName(), jgen);
+			writeOptionalField(TYPE, field.getType(), jgen);
+			writeOptionalField(VALUE, field.getValue(), jgen);
+			writeOptionalField(TITLE, field.getTitle(), jgen);
+			jgen.writeEndObject();
 		}
 
 		jgen.writeEndArray();
     }
 
-	private void writeOptionalField(String name, String value, JsonGenerator jgen)
+	private void writeOptionalField(SerializableString name, String value, JsonGenerator jgen)
 	throws IOException
 	{
 		if (value != null)
 		{
-			jgen.writeStringField(name, value);
+			jgen.writeFieldName(name);
+			jgen.writeString(value);
 		}
 	}
 }
@@ -0,0 +1,102 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.siren.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.strategicgains.hyperexpress.domain.siren.SirenAction;
+import com.strategicgains.hyperexpress.domain.siren.SirenLink;
+
+/**
+ * Callbacks made by SirenReader as it encounters the parts of a Siren document.
+ * The root entity is at depth zero and each level of sub-entities increases the
+ * depth by one.
+ * <p/>
+ * Parts a visitor declines (by returning false from startEntity(), visitRel() or
+ * startSection()) are skipped at the parser level, so no objects are created for
+ * them. Extend SirenVisitorAdapter to implement only the callbacks of interest.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ * @see SirenReader
+ * @see SirenVisitorAdapter
+ */
+public interface SirenVisitor
+{
+	/**
+	 * The sections of a Siren entity that may be skipped as a whole.
+	 */
+	public enum Section
+	{
+		LINKS, ENTITIES, PROPERTIES, ACTIONS
+	}
+
+	/**
+	 * Called at the start of an entity.
+	 * 
+	 * @param depth the nesting depth of the entity.
+	 * @return true to visit the entity, false to skip it entirely (endEntity() is then not called).
+	 */
+	boolean startEntity(int depth);
+
+	/**
+	 * Called for each of a sub-entity's relation types.
+	 * 
+	 * @param rel a relation type of the current entity.
+	 * @return true to continue visiting the entity, false to skip the remainder of it.
+	 */
+	boolean visitRel(String rel);
+
+	void visitClass(String className);
+
+	void visitTitle(String title);
+
+	/**
+	 * Called before a section of the current entity is read.
+	 * 
+	 * @param section the section about to be read.
+	 * @param depth the nesting depth of the current entity.
+	 * @return true to visit the section, false to skip it.
+	 */
+	boolean startSection(Section section, int depth);
+
+	void visitLink(SirenLink link);
+
+	/**
+	 * Called for each property of the current entity, with the parser positioned on the
+	 * first token of the property value. The visitor may read the value from the parser
+	 * (e.g. getText() or readValueAs()), consuming it entirely, or leave the parser
+	 * untouched, in which case the value is skipped.
+	 * 
+	 * @param name the property name.
+	 * @param parser the parser, positioned on the property value.
+	 * @throws IOException if reading the value fails.
+	 */
+	void visitProperty(String name, JsonParser parser)
+	throws IOException;
+
+	void visitAction(SirenAction action);
+
+	/**
+	 * Called at the end of an entity for which startEntity() returned true.
+	 * 
+	 * @param depth the nesting depth of the entity.
+	 * @throws IOException if completing the entity fails.
+	 */
+	void endEntity(int depth)
+	throws IOException;
+}
@@ -0,0 +1,83 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.siren.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.strategicgains.hyperexpress.domain.siren.SirenAction;
+import com.strategicgains.hyperexpress.domain.siren.SirenLink;
+
+/**
+ * A SirenVisitor that visits everything and does nothing with it. Property values
+ * are skipped unless visitProperty() is overridden to read them.
+ * 
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public abstract class SirenVisitorAdapter
+implements SirenVisitor
+{
+	@Override
+	public boolean startEntity(int depth)
+	{
+		return true;
+	}
+
+	@Override
+	public boolean visitRel(String rel)
+	{
+		return true;
+	}
+
+	@Override
+	public void visitClass(String className)
+	{
+	}
+
+	@Override
+	public void visitTitle(String title)
+	{
+	}
+
+	@Override
+	public boolean startSection(Section section, int depth)
+	{
+		return true;
+	}
+
+	@Override
+	public void visitLink(SirenLink link)
+	{
+	}
+
+	@Override
+	public void visitProperty(String name, JsonParser parser)
+	throws IOException
+	{
+	}
+
+	@Override
+	public void visitAction(SirenAction action)
+	{
+	}
+
+	@Override
+	public void endEntity(int depth)
+	throws IOException
+	{
+	}
+}
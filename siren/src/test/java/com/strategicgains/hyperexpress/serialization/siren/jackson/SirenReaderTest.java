@@ -0,0 +1,218 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.siren.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strategicgains.hyperexpress.domain.Resource;
+import com.strategicgains.hyperexpress.domain.siren.SirenAction;
+import com.strategicgains.hyperexpress.domain.siren.SirenLink;
+import com.strategicgains.hyperexpress.domain.siren.TypedSirenResource;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class SirenReaderTest
+{
+	private static final String ORDER = "{"
+		+ "\"class\":[\"order\"],"
+		+ "\"properties\":{\"orderNumber\":42,\"status\":\"pending\",\"shipping\":{\"address\":[\"1 Main St\"]}},"
+		+ "\"entities\":["
+		+ "{\"class\":[\"items\"],\"rel\":[\"http://x.io/rels/order-items\"],\"href\":\"/orders/42/items\"},"
+		+ "{\"rel\":[\"http://x.io/rels/customer\"],\"properties\":{\"customerId\":\"pj123\",\"name\":\"Peter Joseph\"},"
+		+ "\"links\":[{\"rel\":[\"self\"],\"href\":\"/customers/pj123\"}]}],"
+		+ "\"actions\":[{\"name\":\"add-item\",\"method\":\"POST\",\"href\":\"/orders/42/items\","
+		+ "\"fields\":[{\"name\":\"orderNumber\",\"type\":\"hidden\",\"value\":\"42\"}]}],"
+		+ "\"links\":[{\"rel\":[\"self\"],\"href\":\"/orders/42\"},{\"rel\":[\"previous\"],\"href\":\"/orders/41\"}]"
+		+ "}";
+
+	@Test
+	public void shouldVisitEverything()
+	throws IOException
+	{
+		final List<String> events = new ArrayList<String>();
+		new SirenReader(new ObjectMapper()).read(ORDER, new SirenVisitorAdapter()
+		{
+			@Override
+			public boolean startEntity(int depth)
+			{
+				events.add("start:" + depth);
+				return true;
+			}
+
+			@Override
+			public boolean visitRel(String rel)
+			{
+				events.add("rel:" + rel);
+				return true;
+			}
+
+			@Override
+			public void visitClass(String className)
+			{
+				events.add("class:" + className);
+			}
+
+			@Override
+			public void visitLink(SirenLink link)
+			{
+				events.add("link:" + link.getRel() + link.getHref());
+			}
+
+			@Override
+			public void visitProperty(String name, JsonParser parser)
+			throws IOException
+			{
+				if ("shipping".equals(name)) return;
+
+				events.add("property:" + name + "=" + parser.getText());
+			}
+
+			@Override
+			public void visitAction(SirenAction action)
+			{
+				events.add("action:" + action.getName() + "/" + action.getFields().get(0).getName());
+			}
+
+			@Override
+			public void endEntity(int depth)
+			{
+				events.add("end:" + depth);
+			}
+		});
+
+		assertEquals("[start:0, class:order, property:orderNumber=42, property:status=pending, "
+			+ "start:1, class:items, rel:http://x.io/rels/order-items, end:1, "
+			+ "start:1, rel:http://x.io/rels/customer, property:customerId=pj123, property:name=Peter Joseph, link:[self]/customers/pj123, end:1, "
+			+ "action:add-item/orderNumber, link:[self]/orders/42, link:[previous]/orders/41, end:0]", events.toString());
+	}
+
+	@Test
+	public void shouldSkipDeclinedParts()
+	throws IOException
+	{
+		final List<String> selfLinks = new ArrayList<String>();
+		new SirenReader().read(ORDER, new SirenVisitorAdapter()
+		{
+			@Override
+			public boolean visitRel(String rel)
+			{
+				return rel.endsWith("customer");
+			}
+
+			@Override
+			public boolean startSection(Section section, int depth)
+			{
+				return (section == Section.ENTITIES || (depth > 0 && section == Section.LINKS));
+			}
+
+			@Override
+			public void visitLink(SirenLink link)
+			{
+				selfLinks.add(link.getHref());
+			}
+
+			@Override
+			public void visitProperty(String name, JsonParser parser)
+			{
+				throw new AssertionError("Properties should be skipped");
+			}
+		});
+
+		assertEquals("[/customers/pj123]", selfLinks.toString());
+	}
+
+	@Test
+	public void shouldBindPropertiesWithCodec()
+	throws IOException
+	{
+		final List<Object> values = new ArrayList<Object>();
+		new SirenReader(new ObjectMapper()).read(ORDER, new SirenVisitorAdapter()
+		{
+			@Override
+			public boolean startEntity(int depth)
+			{
+				return (depth == 0);
+			}
+
+			@Override
+			public void visitProperty(String name, JsonParser parser)
+			throws IOException
+			{
+				values.add(parser.readValueAs(Object.class));
+			}
+		});
+
+		assertEquals("[42, pending, {address=[1 Main St]}]", values.toString());
+	}
+
+	@Test
+	public void shouldReadTypedResources()
+	throws IOException
+	{
+		ObjectMapper mapper = new ObjectMapper()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+			.setVisibility(PropertyAccessor.FIELD, Visibility.ANY);
+		TypedSirenResource<Order> order = new SirenReader(mapper)
+			.entity("http://x.io/rels/customer", Customer.class)
+			.read(ORDER, Order.class);
+
+		assertEquals(42, order.getContent().orderNumber);
+		assertEquals("pending", order.getContent().status);
+		assertEquals("[1 Main St]", order.getContent().shipping.address.toString());
+		assertEquals(2, order.getLinks().size());
+		assertEquals(1, order.getActions().size());
+
+		@SuppressWarnings("unchecked")
+		TypedSirenResource<Customer> customer = (TypedSirenResource<Customer>) order.getResources("http://x.io/rels/customer").get(0);
+		assertEquals("Peter Joseph", customer.getContent().name);
+		assertEquals("/customers/pj123", customer.getLinks().get(0).getHref());
+
+		Resource items = order.getResources("http://x.io/rels/order-items").get(0);
+		assertNull(((TypedSirenResource<?>) items).getContent());
+	}
+
+	private static class Order
+	{
+		private int orderNumber;
+		private String status;
+		private Shipping shipping;
+	}
+
+	private static class Shipping
+	{
+		private List<String> address;
+	}
+
+	private static class Customer
+	{
+		private String customerId;
+		private String name;
+	}
+}
@@ -0,0 +1,69 @@
+/*
+    Copyright 2014, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.hyperexpress.serialization.siren.jackson;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.strategicgains.hyperexpress.domain.siren.SirenResource;
+
+/**
+ * @author agent
+ * @since Oct 17, 2026
+ */
+public class SirenResourceDeserializerTest
+{
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception
+	{
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(SirenResource.class, new SirenResourceSerializer());
+		module.addDeserializer(SirenResource.class, new SirenResourceDeserializer());
+		mapper.registerModule(module);
+		mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+	}
+
+	@Test
+	public void shouldDeserializeEmptyResource()
+	throws IOException
+	{
+		SirenResource r = mapper.readValue("{}", SirenResource.class);
+		assertEquals(0, r.getLinks().size());
+		assertEquals(0, r.getProperties().size());
+	}
+
+	@Test
+	public void shouldRoundTrip()
+	throws IOException
+	{
+		String json = "{\"class\":[\"order\"],\"title\":\"An Order\","
+			+ "\"links\":[{\"rel\":[\"self\",\"alternate\"],\"href\":\"/orders/42\"},{\"rel\":[\"previous\"],\"href\":\"/orders/41\",\"type\":\"application/json\"}],"
+			+ "\"entities\":[{\"rel\":[\"customer\"],\"links\":[{\"rel\":[\"self\"],\"href\":\"/customers/pj123\"}],\"properties\":{\"name\":\"Peter Joseph\"}}],"
+			+ "\"properties\":{\"orderNumber\":\"42\"},"
+			+ "\"actions\":[{\"name\":\"add-item\",\"method\":\"POST\",\"href\":\"/orders/42/items\","
+			+ "\"fields\":[{\"name\":\"orderNumber\",\"type\":\"hidden\",\"value\":\"42\"}]}]}";
+		assertEquals(json, mapper.writeValueAsString(mapper.readValue(json, SirenResource.class)));
+	}
+}
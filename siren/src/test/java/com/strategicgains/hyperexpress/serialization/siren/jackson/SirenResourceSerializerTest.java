@@ -18,6 +18,7 @@ package com.strategicgains.hyperexpress.serialization.siren.jackson;
 import static org.junit.Assert.assertEquals;
 
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -31,6 +32,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.strategicgains.hyperexpress.builder.LinkBuilder;
+import com.strategicgains.hyperexpress.domain.LazyResourceList;
 import com.strategicgains.hyperexpress.domain.Resource;
 import com.strategicgains.hyperexpress.domain.siren.SirenAction;
 import com.strategicgains.hyperexpress.domain.siren.SirenField;
@@ -140,6 +142,32 @@ public class SirenResourceSerializerTest
 		assertEquals("{\"links\":[{\"rel\":[\"self\",\"alternate\"],\"href\":\"/something/self\"}]}", json);
 	}
 
+	@Test
+	public void shouldCollapseNonAdjacentUrlsInOrder()
+	throws JsonProcessingException
+	{
+		Resource r = new SirenResource();
+		LinkBuilder l = new LinkBuilder();
+		r.addLink(l.rel("self").urlPattern("/b").title("B").type("application/json").build());
+		r.addLink(new LinkBuilder().rel("up").urlPattern("/a").build());
+		r.addLink(new LinkBuilder().rel("alternate").urlPattern("/b").build());
+		String json = mapper.writeValueAsString(r);
+		assertEquals("{\"links\":["
+			+ "{\"rel\":[\"self\",\"alternate\"],\"href\":\"/b\",\"title\":\"B\",\"type\":\"application/json\"},"
+			+ "{\"rel\":[\"up\"],\"href\":\"/a\"}]}", json);
+	}
+
+	@Test
+	public void shouldSerializeClassAndTitle()
+	throws JsonProcessingException
+	{
+		SirenResource r = new SirenResource();
+		r.addClass("order");
+		r.setTitle("An Order");
+		String json = mapper.writeValueAsString(r);
+		assertEquals("{\"class\":[\"order\"],\"title\":\"An Order\"}", json);
+	}
+
 	@Test
 	public void shouldSerializeProperties()
 	throws JsonProcessingException
@@ -211,6 +239,24 @@ public class SirenResourceSerializerTest
 		assertEquals("{\"links\":[{\"rel\":[\"self\"],\"href\":\"/something\"},{\"rel\":[\"self\"],\"href\":\"/something/{templated}\"}],\"entities\":[{\"rel\":[\"children\"],\"properties\":{\"name\":\"child 1\"}},{\"rel\":[\"children\"],\"properties\":{\"name\":\"child 2\"}}],\"properties\":{\"name\":\"root\"}}", json);
 	}
 
+	@Test
+	public void shouldSerializeLazyEntities()
+	throws JsonProcessingException
+	{
+		Resource r = new SirenResource();
+		r.addProperty("name", "root");
+		r.addResources("children", new LazyResourceList(Arrays.asList("child 1", "child 2").iterator(), new LazyResourceList.Creator()
+		{
+			@Override
+			public Resource create(Object component)
+			{
+				return new SirenResource().addProperty("name", component);
+			}
+		}));
+		String json = mapper.writeValueAsString(r);
+		assertEquals("{\"entities\":[{\"rel\":[\"children\"],\"properties\":{\"name\":\"child 1\"}},{\"rel\":[\"children\"],\"properties\":{\"name\":\"child 2\"}}],\"properties\":{\"name\":\"root\"}}", json);
+	}
+
 	@Test
 	public void shouldSerializeActions()
 	throws JsonProcessingException